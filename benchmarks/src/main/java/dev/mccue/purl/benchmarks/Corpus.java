@@ -0,0 +1,200 @@
+package dev.mccue.purl.benchmarks;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Corpora of package-urls resembling those found in real dependency graphs.
+ *
+ * Each corpus is generated from a fixed seed, so results are comparable between runs and versions.
+ */
+public enum Corpus
+{
+    /**
+     * {@code maven} coordinates; with a {@code type} or {@code classifier} qualifier now and then.
+     */
+    MAVEN {
+        @Override
+        String generate(final Random random) {
+            String[] coordinate = pick(random, MAVEN_COORDINATES);
+            StringBuilder buf = new StringBuilder("pkg:maven/")
+                    .append(coordinate[0]).append('/').append(coordinate[1])
+                    .append('@').append(version(random));
+            int qualifiers = random.nextInt(10);
+            if (qualifiers == 0) {
+                buf.append("?type=pom");
+            }
+            else if (qualifiers == 1) {
+                buf.append("?classifier=sources&type=jar");
+            }
+            return buf.toString();
+        }
+    },
+
+    /**
+     * {@code npm} packages; half of them scoped, with the {@code @} of the scope percent-encoded.
+     */
+    NPM {
+        @Override
+        String generate(final Random random) {
+            String name = pick(random, NPM_NAMES);
+            if (random.nextBoolean()) {
+                return "pkg:npm/%40" + pick(random, NPM_SCOPES) + '/' + name + '@' + version(random);
+            }
+            return "pkg:npm/" + name + '@' + version(random);
+        }
+    },
+
+    /**
+     * {@code pypi} packages; with mixed case and underscores normalized by the type specific transformations.
+     */
+    PYPI {
+        @Override
+        String generate(final Random random) {
+            return "pkg:pypi/" + pick(random, PYPI_NAMES) + '@' + version(random) +
+                   (random.nextInt(4) == 0 ? "rc" + random.nextInt(3) : "");
+        }
+    },
+
+    /**
+     * {@code golang} modules; with deep namespaces and pseudo-versions.
+     */
+    GOLANG {
+        @Override
+        String generate(final Random random) {
+            String module = pick(random, GOLANG_MODULES);
+            int slash = module.lastIndexOf('/');
+            String version = random.nextBoolean()
+                    ? "v" + version(random)
+                    : String.format("v0.0.0-2023%02d%02d%02d%02d%02d-%012x", 1 + random.nextInt(12),
+                            1 + random.nextInt(28), random.nextInt(24), random.nextInt(60), random.nextInt(60),
+                            random.nextLong() & 0xFFFFFFFFFFFFL);
+            return "pkg:golang/" + module.substring(0, slash) + '/' + module.substring(slash + 1) + '@' + version;
+        }
+    },
+
+    /**
+     * Package-urls with many qualifiers and a subpath.
+     */
+    QUALIFIED {
+        @Override
+        String generate(final Random random) {
+            String[] coordinate = pick(random, MAVEN_COORDINATES);
+            return "pkg:" + pick(random, "maven", "generic", "docker", "rpm") + '/' + coordinate[0] + '/' +
+                   coordinate[1] + '@' + version(random) +
+                   "?arch=" + pick(random, "x86_64", "aarch64", "noarch") +
+                   "&checksum=sha256:" + Long.toHexString(random.nextLong()) + Long.toHexString(random.nextLong()) +
+                   "&distro=" + pick(random, "fedora-38", "debian-12", "alpine-3.18") +
+                   "&download_url=https://repo.example.com/releases/" + coordinate[1] + ".tar.gz" +
+                   "&repository_url=repo.example.com%2Fmirror" +
+                   '#' + pick(random, "src/main/java", "lib", "docs/api", "cmd/server/internal");
+        }
+    },
+
+    /**
+     * Package-urls with percent-encoded non-ASCII names, versions and qualifier values.
+     */
+    UNICODE {
+        @Override
+        String generate(final Random random) {
+            return "pkg:" + pick(random, "generic", "npm", "pypi") + '/' + pick(random, UNICODE_NAMESPACES) + '/' +
+                   pick(random, UNICODE_NAMES) + '@' + version(random) + "-%CE%B2%C3%AAta" +
+                   "?author=" + pick(random, UNICODE_NAMES);
+        }
+    },
+
+    /**
+     * All of the other corpora, interleaved.
+     */
+    MIXED {
+        @Override
+        String generate(final Random random) {
+            Corpus[] corpora = values();
+            return corpora[random.nextInt(corpora.length - 1)].generate(random);
+        }
+    };
+
+    /**
+     * Number of package-urls in each corpus.
+     */
+    public static final int SIZE = 1024;
+
+    private static final long SEED = 0x7075726cL;
+
+    /**
+     * Package-urls of corpus; in the same order every time.
+     */
+    public List<String> purls() {
+        Random random = new Random(SEED + ordinal());
+        List<String> result = new ArrayList<>(SIZE);
+        for (int i = 0; i < SIZE; i++) {
+            result.add(generate(random));
+        }
+        return Collections.unmodifiableList(result);
+    }
+
+    abstract String generate(Random random);
+
+    private static String version(final Random random) {
+        return random.nextInt(12) + "." + random.nextInt(30) + "." + random.nextInt(20);
+    }
+
+    @SafeVarargs
+    private static <T> T pick(final Random random, final T... values) {
+        return values[random.nextInt(values.length)];
+    }
+
+    private static final String[][] MAVEN_COORDINATES = {
+            {"org.apache.commons", "commons-lang3"},
+            {"org.apache.commons", "commons-collections4"},
+            {"com.google.guava", "guava"},
+            {"com.fasterxml.jackson.core", "jackson-databind"},
+            {"com.fasterxml.jackson.datatype", "jackson-datatype-jsr310"},
+            {"org.springframework", "spring-core"},
+            {"org.springframework.boot", "spring-boot-starter-web"},
+            {"io.netty", "netty-handler"},
+            {"org.slf4j", "slf4j-api"},
+            {"ch.qos.logback", "logback-classic"},
+            {"org.junit.jupiter", "junit-jupiter-engine"},
+            {"org.hibernate.orm", "hibernate-core"},
+            {"io.projectreactor", "reactor-core"},
+            {"org.eclipse.jetty", "jetty-server"},
+            {"software.amazon.awssdk", "s3"},
+            {"org.jetbrains.kotlin", "kotlin-stdlib"},
+    };
+
+    private static final String[] NPM_SCOPES = {
+            "babel", "types", "angular", "aws-sdk", "testing-library", "vue", "nestjs", "emotion"
+    };
+
+    private static final String[] NPM_NAMES = {
+            "core", "node", "react", "lodash", "express", "client-s3", "runtime", "parser", "cli", "utils",
+            "eslint-plugin-import", "webpack", "typescript", "jest", "chalk", "debug"
+    };
+
+    private static final String[] PYPI_NAMES = {
+            "requests", "Django", "numpy", "typing_extensions", "PyYAML", "python-dateutil", "SQLAlchemy",
+            "zope.interface", "Jinja2", "charset_normalizer", "botocore", "pydantic_core"
+    };
+
+    private static final String[] GOLANG_MODULES = {
+            "github.com/gorilla/mux",
+            "github.com/stretchr/testify/assert",
+            "golang.org/x/net/http2",
+            "google.golang.org/grpc",
+            "github.com/aws/aws-sdk-go-v2/service/s3",
+            "k8s.io/apimachinery/pkg/util/runtime",
+            "github.com/prometheus/client_golang/prometheus",
+            "go.opentelemetry.io/otel/sdk/metric",
+    };
+
+    private static final String[] UNICODE_NAMESPACES = {
+            "%E4%B8%AD%E6%96%87", "caf%C3%A9", "%D0%BF%D1%80%D0%BE%D0%B5%D0%BA%D1%82", "stra%C3%9Fe"
+    };
+
+    private static final String[] UNICODE_NAMES = {
+            "%E3%83%86%E3%82%B9%E3%83%88", "na%C3%AFve", "%CE%B1%CE%BB%CF%86%CE%B1", "%F0%9F%93%A6-box", "m%C3%BCller"
+    };
+}
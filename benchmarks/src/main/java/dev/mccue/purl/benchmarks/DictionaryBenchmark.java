@@ -0,0 +1,94 @@
+package dev.mccue.purl.benchmarks;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import dev.mccue.purl.PackageUrl;
+import dev.mccue.purl.PackageUrlDictionary;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Benchmarks of looking up package-urls in a {@link PackageUrlDictionary} file of many package-urls of a
+ * {@link Corpus}; reported per lookup.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 2, jvmArgsAppend = "-Xmx8g")
+public class DictionaryBenchmark
+{
+    @Param({"MAVEN", "NPM", "MIXED"})
+    public Corpus corpus;
+
+    @Param({"1000000"})
+    public int size;
+
+    private Path path;
+
+    private PackageUrlDictionary dictionary;
+
+    /**
+     * Package-urls looked up; written to the dictionary.
+     */
+    private PackageUrl[] queries;
+
+    @Setup
+    public void setUp() throws IOException {
+        this.path = Files.createTempFile("purls", ".dictionary");
+        Random random = new Random(size);
+        PackageUrlDictionary.write(path,
+                Stream.generate(() -> PackageUrl.parse(corpus.generate(random))).limit(size));
+        this.dictionary = PackageUrlDictionary.open(path);
+        Random queryRandom = new Random(size);
+        this.queries = new PackageUrl[Corpus.SIZE];
+        for (int i = 0; i < queries.length; i++) {
+            queries[i] = PackageUrl.parse(corpus.generate(queryRandom));
+        }
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        Files.delete(path);
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public PackageUrlDictionary open() throws IOException {
+        return PackageUrlDictionary.open(path);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(Corpus.SIZE)
+    public void contains(final Blackhole blackhole) {
+        for (PackageUrl query : queries) {
+            blackhole.consume(dictionary.contains(query));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(Corpus.SIZE)
+    public void find(final Blackhole blackhole) {
+        for (PackageUrl query : queries) {
+            blackhole.consume(dictionary.find(query.getType(), query.getNamespace(), query.getName()).count());
+        }
+    }
+}
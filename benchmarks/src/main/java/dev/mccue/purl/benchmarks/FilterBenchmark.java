@@ -0,0 +1,92 @@
+package dev.mccue.purl.benchmarks;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import dev.mccue.purl.PackageUrl;
+import dev.mccue.purl.PackageUrlFilter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Benchmarks of checking package-url strings, which are mostly not contained, against a {@link PackageUrlFilter} of
+ * many package-urls of a {@link Corpus}; next to parsing them and checking a {@link HashSet}.  Reported per check.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 2, jvmArgsAppend = "-Xmx8g")
+@OperationsPerInvocation(Corpus.SIZE)
+public class FilterBenchmark
+{
+    @Param({"MAVEN", "NPM", "MIXED"})
+    public Corpus corpus;
+
+    @Param({"1000000"})
+    public int size;
+
+    private PackageUrlFilter filter;
+
+    private PackageUrlFilter versionless;
+
+    private Set<PackageUrl> set;
+
+    /**
+     * Canonical package-urls checked; of the corpus, but of other versions than those contained.
+     */
+    private String[] queries;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(size);
+        List<PackageUrl> purls = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            purls.add(PackageUrl.parse(corpus.generate(random)));
+        }
+        this.filter = PackageUrlFilter.of(purls, 0.01);
+        this.versionless = PackageUrlFilter.versionless(purls, 0.01);
+        this.set = new HashSet<>(purls);
+        this.queries = new String[Corpus.SIZE];
+        for (int i = 0; i < queries.length; i++) {
+            queries[i] = purls.get(random.nextInt(size)).withVersion("1000." + i).toString();
+        }
+    }
+
+    @Benchmark
+    public void mightContain(final Blackhole blackhole) {
+        for (String query : queries) {
+            blackhole.consume(filter.mightContain(query));
+        }
+    }
+
+    @Benchmark
+    public void mightContainVersionless(final Blackhole blackhole) {
+        for (String query : queries) {
+            blackhole.consume(versionless.mightContain(query));
+        }
+    }
+
+    @Benchmark
+    public void parseContains(final Blackhole blackhole) {
+        for (String query : queries) {
+            blackhole.consume(set.contains(PackageUrl.parse(query)));
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package dev.mccue.purl.benchmarks;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.TreeMap;
+
+import dev.mccue.purl.PackageUrl;
+import dev.mccue.purl.PackageUrlTable;
+import org.openjdk.jol.info.GraphLayout;
+
+import static java.util.Collections.unmodifiableList;
+import static java.util.Collections.unmodifiableSortedMap;
+
+/**
+ * Reports the retained size of parsed package-urls of each {@link Corpus}, next to the size of the same components held
+ * in {@link TreeMap} and {@link ArrayList} collections as package-urls once did, and in a {@link PackageUrlTable}.
+ *
+ * Strings are shared by the first two layouts, so are not counted; the table holds its own, so counts them.
+ *
+ * Run with {@code java -cp target/benchmarks.jar dev.mccue.purl.benchmarks.Footprint}.
+ */
+public final class Footprint
+{
+    private Footprint() {
+        // empty
+    }
+
+    public static void main(final String[] args) {
+        System.out.printf("%-10s %12s %12s %12s%n", "corpus", "bytes/purl", "collections", "table");
+        for (Corpus corpus : Corpus.values()) {
+            List<PackageUrl> purls = new ArrayList<>();
+            List<Object[]> collections = new ArrayList<>();
+            for (String value : corpus.purls()) {
+                PackageUrl purl = PackageUrl.parse(value);
+                purls.add(purl);
+                collections.add(collections(purl));
+            }
+            // the string payload is identical; only count the structure around it
+            long strings = strings(purls);
+            long compact = GraphLayout.parseInstance(purls.toArray()).totalSize() - strings;
+            long expanded = GraphLayout.parseInstance(collections.toArray()).totalSize() - strings;
+            PackageUrlTable table = new PackageUrlTable();
+            table.addAll(purls);
+            table.trimToSize();
+            long columns = GraphLayout.parseInstance(table).totalSize();
+            System.out.printf("%-10s %12.1f %12.1f %12.1f%n", corpus, (double) compact / purls.size(),
+                    (double) expanded / purls.size(), (double) columns / purls.size());
+        }
+    }
+
+    /**
+     * Components of package-url in the collections it used to be made of; in an array of about the same size as a
+     * package-url.
+     */
+    static Object[] collections(final PackageUrl purl) {
+        return new Object[] {
+                purl.getType(),
+                purl.getNamespace() != null ? unmodifiableList(new ArrayList<>(purl.getNamespace())) : null,
+                purl.getName(),
+                purl.getVersion(),
+                purl.getQualifiers() != null ? unmodifiableSortedMap(new TreeMap<>(purl.getQualifiers())) : null,
+                purl.getSubpath() != null ? unmodifiableList(new ArrayList<>(purl.getSubpath())) : null,
+                0,
+                null,
+                null
+        };
+    }
+
+    private static long strings(final List<PackageUrl> purls) {
+        List<String> strings = new ArrayList<>();
+        for (PackageUrl purl : purls) {
+            strings.add(purl.getType());
+            strings.add(purl.getName());
+            strings.add(purl.getVersion());
+            if (purl.getNamespace() != null) {
+                strings.addAll(purl.getNamespace());
+            }
+            if (purl.getQualifiers() != null) {
+                strings.addAll(purl.getQualifiers().keySet());
+                strings.addAll(purl.getQualifiers().values());
+            }
+            if (purl.getSubpath() != null) {
+                strings.addAll(purl.getSubpath());
+            }
+        }
+        strings.removeIf(s -> s == null);
+        return GraphLayout.parseInstance(strings.toArray()).totalSize();
+    }
+}
@@ -0,0 +1,82 @@
+package dev.mccue.purl.benchmarks;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import dev.mccue.purl.PackageUrl;
+import dev.mccue.purl.PackageUrlIndex;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Benchmarks of looking up package-urls in a {@link PackageUrlIndex} of many package-urls of a {@link Corpus}; reported
+ * per lookup.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 2, jvmArgsAppend = "-Xmx8g")
+@OperationsPerInvocation(Corpus.SIZE)
+public class IndexBenchmark
+{
+    @Param({"MAVEN", "NPM", "MIXED"})
+    public Corpus corpus;
+
+    @Param({"1000000"})
+    public int size;
+
+    private PackageUrlIndex index;
+
+    /**
+     * Package-urls looked up; added to the index, but separate instances.
+     */
+    private PackageUrl[] queries;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(size);
+        this.index = new PackageUrlIndex();
+        for (int i = 0; i < size; i++) {
+            index.add(PackageUrl.parse(corpus.generate(random)));
+        }
+        random = new Random(size);
+        this.queries = new PackageUrl[Corpus.SIZE];
+        for (int i = 0; i < queries.length; i++) {
+            queries[i] = PackageUrl.parse(corpus.generate(random));
+        }
+    }
+
+    @Benchmark
+    public void contains(final Blackhole blackhole) {
+        for (PackageUrl query : queries) {
+            blackhole.consume(index.contains(query));
+        }
+    }
+
+    @Benchmark
+    public void find(final Blackhole blackhole) {
+        for (PackageUrl query : queries) {
+            blackhole.consume(index.find(query));
+        }
+    }
+
+    @Benchmark
+    public void names(final Blackhole blackhole) {
+        for (PackageUrl query : queries) {
+            blackhole.consume(index.names(query.getType(), query.getNamespace()));
+        }
+    }
+}
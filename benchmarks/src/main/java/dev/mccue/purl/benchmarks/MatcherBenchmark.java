@@ -0,0 +1,99 @@
+package dev.mccue.purl.benchmarks;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import dev.mccue.purl.PackageUrl;
+import dev.mccue.purl.PackageUrlMatcher;
+import dev.mccue.purl.PackageUrlPattern;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Benchmarks of matching package-urls of a {@link Corpus} against many {@link PackageUrlPattern}s, as an advisory
+ * database would; by a {@link PackageUrlMatcher} and by each pattern in turn.  Reported per package-url.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@OperationsPerInvocation(Corpus.SIZE)
+public class MatcherBenchmark
+{
+    @Param({"MAVEN", "NPM", "MIXED"})
+    public Corpus corpus;
+
+    @Param({"1000", "10000"})
+    public int patterns;
+
+    private List<PackageUrlPattern> list;
+
+    private PackageUrlMatcher matcher;
+
+    /**
+     * Package-urls matched; half of them of the packages of patterns.
+     */
+    private PackageUrl[] purls;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(patterns);
+        // packages of a few ranges each; with names made distinct, as the corpus has few
+        List<String> packages = new ArrayList<>(patterns);
+        this.list = new ArrayList<>(patterns);
+        for (int i = 0; i < patterns; i++) {
+            if (i % 4 == 0) {
+                PackageUrl purl = PackageUrl.parse(corpus.generate(random));
+                packages.add(purl.withoutVersion().withoutQualifiers().withoutSubpath() + "-" + i);
+            }
+            String pkg = packages.get(packages.size() - 1);
+            // mostly version ranges of one package, some of every package of a namespace
+            String pattern = i % 64 == 0
+                             ? pkg.substring(0, pkg.lastIndexOf('/') + 1) + '*'
+                             : pkg + "@>=" + (1 + random.nextInt(4)) + ".0|<" + (5 + random.nextInt(5)) + ".0";
+            list.add(PackageUrlPattern.parse(pattern));
+        }
+        this.matcher = PackageUrlMatcher.compile(list);
+        this.purls = new PackageUrl[Corpus.SIZE];
+        for (int i = 0; i < purls.length; i++) {
+            purls[i] = i % 2 == 0
+                       ? PackageUrl.parse(packages.get(random.nextInt(packages.size())) + "@" + random.nextInt(10) + ".5")
+                       : PackageUrl.parse(corpus.generate(random));
+        }
+    }
+
+    @Benchmark
+    public void matcher(final Blackhole blackhole) {
+        for (PackageUrl purl : purls) {
+            blackhole.consume(matcher.match(purl));
+        }
+    }
+
+    @Benchmark
+    public void linear(final Blackhole blackhole) {
+        for (PackageUrl purl : purls) {
+            List<PackageUrlPattern> matched = new ArrayList<>();
+            for (PackageUrlPattern pattern : list) {
+                if (pattern.matches(purl)) {
+                    matched.add(pattern);
+                }
+            }
+            blackhole.consume(matched);
+        }
+    }
+}
@@ -0,0 +1,194 @@
+package dev.mccue.purl.benchmarks;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import dev.mccue.purl.PackageUrl;
+import dev.mccue.purl.PackageUrlBuilder;
+import dev.mccue.purl.PackageUrlParser;
+import dev.mccue.purl.RenderFlavor;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Benchmarks of the hot paths of {@link PackageUrl}; each operation is applied to every package-url of a
+ * {@link Corpus}, and reported per package-url.
+ *
+ * Renderings and hash codes are remembered by each package-url, so {@link #toStringCold} and {@link #hashCodeCold}
+ * build a new package-url first; subtract {@link #build} for the cost of rendering or hashing alone.
+ *
+ * The {@code parseLazy} benchmarks compare {@link PackageUrlParser#lazy(boolean) lazy} parsing with the eager
+ * {@code parse} benchmarks; for consumers which read only some components, or only hash package-urls.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@OperationsPerInvocation(Corpus.SIZE)
+public class PackageUrlBenchmark
+{
+    @Param
+    public Corpus corpus;
+
+    private String[] values;
+
+    private PackageUrl[] purls;
+
+    /**
+     * Package-urls equal to, but distinct from, {@link #purls}.
+     */
+    private PackageUrl[] copies;
+
+    private PackageUrlParser parser;
+
+    private PackageUrlParser lazyParser;
+
+    /**
+     * Rendering flavor; only a parameter of the rendering benchmarks.
+     */
+    @State(Scope.Benchmark)
+    public static class Flavor
+    {
+        @Param({"SCHEME", "SCHEMELESS"})
+        public RenderFlavor flavor;
+    }
+
+    @Setup
+    public void setUp() {
+        List<String> values = corpus.purls();
+        this.values = values.toArray(new String[0]);
+        this.purls = new PackageUrl[values.size()];
+        this.copies = new PackageUrl[values.size()];
+        this.parser = new PackageUrlParser();
+        this.lazyParser = new PackageUrlParser().lazy(true);
+        for (int i = 0; i < values.size(); i++) {
+            purls[i] = parser.parse(values.get(i));
+            copies[i] = new PackageUrlParser().parse(new String(values.get(i)));
+        }
+    }
+
+    @Benchmark
+    public void parse(final Blackhole blackhole) {
+        for (String value : values) {
+            blackhole.consume(parser.parse(value));
+        }
+    }
+
+    @Benchmark
+    public void parseLazy(final Blackhole blackhole) {
+        for (String value : values) {
+            blackhole.consume(lazyParser.parse(value));
+        }
+    }
+
+    @Benchmark
+    public void parseGetName(final Blackhole blackhole) {
+        for (String value : values) {
+            blackhole.consume(parser.parse(value).getName());
+        }
+    }
+
+    @Benchmark
+    public void parseLazyGetName(final Blackhole blackhole) {
+        for (String value : values) {
+            blackhole.consume(lazyParser.parse(value).getName());
+        }
+    }
+
+    @Benchmark
+    public void parseHashCode(final Blackhole blackhole) {
+        for (String value : values) {
+            blackhole.consume(parser.parse(value).hashCode());
+        }
+    }
+
+    @Benchmark
+    public void parseLazyHashCode(final Blackhole blackhole) {
+        for (String value : values) {
+            blackhole.consume(lazyParser.parse(value).hashCode());
+        }
+    }
+
+    @Benchmark
+    public void build(final Blackhole blackhole) {
+        for (PackageUrl purl : purls) {
+            blackhole.consume(builder(purl).build());
+        }
+    }
+
+    @Benchmark
+    public void toStringCold(final Flavor flavor, final Blackhole blackhole) {
+        for (PackageUrl purl : purls) {
+            blackhole.consume(builder(purl).build().toString(flavor.flavor));
+        }
+    }
+
+    @Benchmark
+    public void toStringCached(final Flavor flavor, final Blackhole blackhole) {
+        for (PackageUrl purl : purls) {
+            blackhole.consume(purl.toString(flavor.flavor));
+        }
+    }
+
+    @Benchmark
+    public void equalsCopy(final Blackhole blackhole) {
+        for (int i = 0; i < purls.length; i++) {
+            blackhole.consume(purls[i].equals(copies[i]));
+        }
+    }
+
+    @Benchmark
+    public void equalsNeighbour(final Blackhole blackhole) {
+        for (int i = 1; i < purls.length; i++) {
+            blackhole.consume(purls[i].equals(purls[i - 1]));
+        }
+    }
+
+    @Benchmark
+    public void hashCodeCold(final Blackhole blackhole) {
+        for (PackageUrl purl : purls) {
+            blackhole.consume(builder(purl).build().hashCode());
+        }
+    }
+
+    @Benchmark
+    public void hashCodeCached(final Blackhole blackhole) {
+        for (PackageUrl purl : purls) {
+            blackhole.consume(purl.hashCode());
+        }
+    }
+
+    /**
+     * Builder of the components of given package-url; as an application would build it from its own model.
+     */
+    private static PackageUrlBuilder builder(final PackageUrl purl) {
+        PackageUrlBuilder builder = PackageUrl.builder()
+                .typeSpecificTransformations(false)
+                .type(purl.getType())
+                .name(purl.getName())
+                .version(purl.getVersion());
+        if (purl.getNamespace() != null) {
+            builder.namespace(purl.getNamespace());
+        }
+        if (purl.getQualifiers() != null) {
+            builder.qualifiers(purl.getQualifiers());
+        }
+        if (purl.getSubpath() != null) {
+            builder.subpath(purl.getSubpath());
+        }
+        return builder;
+    }
+}
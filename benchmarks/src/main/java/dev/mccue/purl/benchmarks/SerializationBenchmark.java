@@ -0,0 +1,138 @@
+package dev.mccue.purl.benchmarks;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import dev.mccue.purl.PackageUrl;
+import dev.mccue.purl.PackageUrlCodec;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Benchmarks of writing and reading every package-url of a {@link Corpus} to and from a single stream; reported per
+ * package-url.
+ *
+ * The sizes of each format are reported by {@link SerializedSize}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@OperationsPerInvocation(Corpus.SIZE)
+public class SerializationBenchmark
+{
+    /**
+     * Format written and read.
+     */
+    public enum Format
+    {
+        /**
+         * {@link ObjectOutputStream}.
+         */
+        JAVA,
+
+        /**
+         * {@link PackageUrlCodec} without a dictionary.
+         */
+        CODEC,
+
+        /**
+         * {@link PackageUrlCodec} with a dictionary of {@link #DICTIONARY_SIZE} types, namespace segments and
+         * qualifier keys.
+         */
+        DICTIONARY
+    }
+
+    static final int DICTIONARY_SIZE = 1024;
+
+    @Param
+    public Corpus corpus;
+
+    @Param
+    public Format format;
+
+    private PackageUrl[] purls;
+
+    private byte[] serialized;
+
+    @Setup
+    public void setUp() throws IOException {
+        List<String> values = corpus.purls();
+        this.purls = new PackageUrl[values.size()];
+        for (int i = 0; i < values.size(); i++) {
+            purls[i] = PackageUrl.parse(values.get(i));
+        }
+        this.serialized = write(format, purls);
+    }
+
+    @Benchmark
+    public byte[] write() throws IOException {
+        return write(format, purls);
+    }
+
+    @Benchmark
+    public void read(final Blackhole blackhole) throws IOException, ClassNotFoundException {
+        ByteArrayInputStream bytes = new ByteArrayInputStream(serialized);
+        if (format == Format.JAVA) {
+            try (ObjectInputStream in = new ObjectInputStream(bytes)) {
+                for (int i = 0; i < purls.length; i++) {
+                    blackhole.consume(in.readObject());
+                }
+            }
+        }
+        else {
+            PackageUrlCodec codec = codec(format);
+            DataInputStream in = new DataInputStream(bytes);
+            for (int i = 0; i < purls.length; i++) {
+                blackhole.consume(codec.read(in));
+            }
+        }
+    }
+
+    /**
+     * Write given package-urls to a single stream in given format.
+     */
+    static byte[] write(final Format format, final PackageUrl[] purls) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        if (format == Format.JAVA) {
+            try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+                for (PackageUrl purl : purls) {
+                    out.writeObject(purl);
+                }
+            }
+        }
+        else {
+            PackageUrlCodec codec = codec(format);
+            DataOutputStream out = new DataOutputStream(bytes);
+            for (PackageUrl purl : purls) {
+                codec.write(purl, out);
+            }
+            out.flush();
+        }
+        return bytes.toByteArray();
+    }
+
+    private static PackageUrlCodec codec(final Format format) {
+        return format == Format.DICTIONARY ? new PackageUrlCodec(DICTIONARY_SIZE) : new PackageUrlCodec();
+    }
+}
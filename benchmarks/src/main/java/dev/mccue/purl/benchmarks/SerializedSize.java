@@ -0,0 +1,56 @@
+package dev.mccue.purl.benchmarks;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectOutputStream;
+import java.util.List;
+
+import dev.mccue.purl.PackageUrl;
+import dev.mccue.purl.benchmarks.SerializationBenchmark.Format;
+
+/**
+ * Reports the serialized size of package-urls of each {@link Corpus}, in each {@link Format}; next to the size of a
+ * single package-url serialized on its own, and of its components in the collections package-urls were once
+ * serialized as.
+ *
+ * Run with {@code java -cp target/benchmarks.jar dev.mccue.purl.benchmarks.SerializedSize}.
+ */
+public final class SerializedSize
+{
+    private SerializedSize() {
+        // empty
+    }
+
+    public static void main(final String[] args) throws IOException {
+        System.out.printf("%-10s %12s %12s %12s %12s %12s%n", "corpus", "single", "collections", "java", "codec",
+                "dictionary");
+        for (Corpus corpus : Corpus.values()) {
+            List<String> values = corpus.purls();
+            PackageUrl[] purls = new PackageUrl[values.size()];
+            long single = 0;
+            long collections = 0;
+            for (int i = 0; i < purls.length; i++) {
+                purls[i] = PackageUrl.parse(values.get(i));
+                single += serialize(purls[i]);
+                collections += serialize(Footprint.collections(purls[i]));
+            }
+            System.out.printf("%-10s %12.1f %12.1f %12.1f %12.1f %12.1f%n", corpus,
+                    (double) single / purls.length,
+                    (double) collections / purls.length,
+                    (double) SerializationBenchmark.write(Format.JAVA, purls).length / purls.length,
+                    (double) SerializationBenchmark.write(Format.CODEC, purls).length / purls.length,
+                    (double) SerializationBenchmark.write(Format.DICTIONARY, purls).length / purls.length);
+        }
+    }
+
+    /**
+     * Size of given object serialized on its own.
+     */
+    private static long serialize(final Object value) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            out.writeObject(value);
+        }
+        return bytes.size();
+    }
+}
@@ -0,0 +1,100 @@
+package dev.mccue.purl.benchmarks;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import dev.mccue.purl.PackageUrl;
+import dev.mccue.purl.PackageUrlParser;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks of sorting many package-urls of a {@link Corpus}; by their {@link PackageUrl#compareTo natural order},
+ * and by their {@link PackageUrl#toString() string representation}.
+ *
+ * Each iteration sorts package-urls freshly parsed from the same values; so none have been rendered before, as when
+ * sorting package-urls just read.  Natural order is measured for package-urls parsed eagerly, lazily, and by a parser
+ * which {@link PackageUrlParser#sharePackages(boolean) shares packages}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx8g")
+public class SortBenchmark
+{
+    @Param({"MAVEN", "MIXED"})
+    public Corpus corpus;
+
+    @Param({"100000", "10000000"})
+    public int size;
+
+    private String[] values;
+
+    private PackageUrl[] purls;
+
+    private PackageUrl[] lazyPurls;
+
+    private PackageUrl[] sharedPurls;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(size);
+        this.values = new String[size];
+        for (int i = 0; i < size; i++) {
+            values[i] = corpus.generate(random);
+        }
+    }
+
+    @Setup(Level.Iteration)
+    public void parse() {
+        PackageUrlParser parser = new PackageUrlParser();
+        PackageUrlParser lazyParser = new PackageUrlParser().lazy(true);
+        PackageUrlParser sharingParser = new PackageUrlParser().sharePackages(true);
+        this.purls = new PackageUrl[size];
+        this.lazyPurls = new PackageUrl[size];
+        this.sharedPurls = new PackageUrl[size];
+        for (int i = 0; i < size; i++) {
+            purls[i] = parser.parse(values[i]);
+            lazyPurls[i] = lazyParser.parse(values[i]);
+            sharedPurls[i] = sharingParser.parse(values[i]);
+        }
+    }
+
+    @Benchmark
+    public PackageUrl[] sortNatural() {
+        Arrays.sort(purls);
+        return purls;
+    }
+
+    @Benchmark
+    public PackageUrl[] sortNaturalLazy() {
+        Arrays.sort(lazyPurls);
+        return lazyPurls;
+    }
+
+    @Benchmark
+    public PackageUrl[] sortNaturalShared() {
+        Arrays.sort(sharedPurls);
+        return sharedPurls;
+    }
+
+    @Benchmark
+    public PackageUrl[] sortByString() {
+        Arrays.sort(purls, Comparator.comparing(PackageUrl::toString));
+        return purls;
+    }
+}
@@ -0,0 +1,96 @@
+package dev.mccue.purl.benchmarks;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import dev.mccue.purl.PackageUrl;
+import dev.mccue.purl.VersionRange;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks of checking every package-url of a {@link Corpus} against {@value #RANGES} version ranges of its type;
+ * reported per check.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@OperationsPerInvocation(Corpus.SIZE * VersionRangeBenchmark.RANGES)
+public class VersionRangeBenchmark
+{
+    static final int RANGES = 1024;
+
+    @Param({"MAVEN", "NPM", "PYPI"})
+    public Corpus corpus;
+
+    private PackageUrl[] purls;
+
+    private VersionRange[] ranges;
+
+    @Setup
+    public void setUp() {
+        List<String> values = corpus.purls();
+        this.purls = new PackageUrl[values.size()];
+        for (int i = 0; i < purls.length; i++) {
+            purls[i] = PackageUrl.parse(values.get(i));
+        }
+        String scheme = purls[0].getType();
+        Random random = new Random(RANGES);
+        this.ranges = new VersionRange[RANGES];
+        for (int i = 0; i < ranges.length; i++) {
+            StringBuilder vers = new StringBuilder("vers:").append(scheme).append('/');
+            int major = random.nextInt(12);
+            vers.append(">=").append(major).append('.').append(random.nextInt(30)).append(".0")
+                    .append("|<").append(major + 1).append(".0.0")
+                    .append("|!=").append(major).append('.').append(random.nextInt(30)).append('.')
+                    .append(random.nextInt(20));
+            ranges[i] = VersionRange.parse(vers.toString());
+        }
+    }
+
+    /**
+     * Check the package-urls; parsing the version of each once, for the first range.
+     */
+    @Benchmark
+    public int matches() {
+        int result = 0;
+        for (VersionRange range : ranges) {
+            for (PackageUrl purl : purls) {
+                if (range.matches(purl)) {
+                    result++;
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Check the versions of the package-urls; parsing the version for every range.
+     */
+    @Benchmark
+    public int contains() {
+        int result = 0;
+        for (VersionRange range : ranges) {
+            for (PackageUrl purl : purls) {
+                if (range.contains(purl.getVersion())) {
+                    result++;
+                }
+            }
+        }
+        return result;
+    }
+}
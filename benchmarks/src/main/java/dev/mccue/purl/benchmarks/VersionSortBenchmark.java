@@ -0,0 +1,87 @@
+package dev.mccue.purl.benchmarks;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import dev.mccue.purl.PackageUrl;
+import dev.mccue.purl.PackageUrlParser;
+import dev.mccue.purl.VersionScheme;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks of sorting many package-urls of a {@link Corpus} by version, in the {@link VersionScheme} of their type; by
+ * {@link PackageUrl#versionComparator()}, by {@link PackageUrl#sortedByVersion}, which also dedupes, and by comparing
+ * versions with {@link VersionScheme#comparator()}, which parses both on each comparison.
+ *
+ * Each iteration sorts package-urls freshly parsed from the same values; so no versions have been parsed before.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx8g")
+public class VersionSortBenchmark
+{
+    @Param({"MAVEN", "NPM", "PYPI", "GOLANG"})
+    public Corpus corpus;
+
+    @Param({"100000", "1000000"})
+    public int size;
+
+    private String[] values;
+
+    private PackageUrl[] purls;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(size);
+        this.values = new String[size];
+        for (int i = 0; i < size; i++) {
+            values[i] = corpus.generate(random);
+        }
+    }
+
+    @Setup(Level.Iteration)
+    public void parse() {
+        PackageUrlParser parser = new PackageUrlParser();
+        this.purls = new PackageUrl[size];
+        for (int i = 0; i < size; i++) {
+            purls[i] = parser.parse(values[i]);
+        }
+    }
+
+    @Benchmark
+    public PackageUrl[] sortByVersionComparator() {
+        Arrays.sort(purls, PackageUrl.versionComparator());
+        return purls;
+    }
+
+    @Benchmark
+    public List<PackageUrl> sortedByVersion() {
+        return PackageUrl.sortedByVersion(Arrays.asList(purls));
+    }
+
+    @Benchmark
+    public PackageUrl[] sortByVersionString() {
+        // as when versions are kept as strings; every corpus benchmarked is of one type
+        VersionScheme scheme = VersionScheme.of(purls[0].getType());
+        Arrays.sort(purls, Comparator.comparing(PackageUrl::getName)
+                .thenComparing(PackageUrl::getVersion, scheme.comparator()));
+        return purls;
+    }
+}
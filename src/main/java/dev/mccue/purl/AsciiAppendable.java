@@ -0,0 +1,58 @@
+package dev.mccue.purl;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+
+/**
+ * {@link Appendable} writing ASCII characters as single bytes; which are also valid {@code UTF-8}.
+ *
+ * Rendered package-urls are always ASCII, as everything else is percent-encoded.
+ */
+abstract class AsciiAppendable
+        implements Appendable
+{
+    abstract void write(int b) throws IOException;
+
+    static AsciiAppendable of(final ByteBuffer buffer) {
+        return new AsciiAppendable()
+        {
+            @Override
+            void write(final int b) {
+                buffer.put((byte) b);
+            }
+        };
+    }
+
+    static AsciiAppendable of(final OutputStream out) {
+        return new AsciiAppendable()
+        {
+            @Override
+            void write(final int b) throws IOException {
+                out.write(b);
+            }
+        };
+    }
+
+    @Override
+    public Appendable append(final char c) throws IOException {
+        if (c >= 0x80) {
+            throw new IllegalArgumentException("Not ASCII: " + c);
+        }
+        write(c);
+        return this;
+    }
+
+    @Override
+    public Appendable append(final CharSequence csq) throws IOException {
+        return append(csq, 0, csq.length());
+    }
+
+    @Override
+    public Appendable append(final CharSequence csq, final int start, final int end) throws IOException {
+        for (int i = start; i < end; i++) {
+            append(csq.charAt(i));
+        }
+        return this;
+    }
+}
@@ -0,0 +1,79 @@
+package dev.mccue.purl;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * {@link CharSequence} view of a range of ASCII bytes; which is also valid {@code UTF-8}.
+ *
+ * Lets {@code UTF-8} input be parsed without first decoding it to a {@link String}.
+ */
+final class AsciiCharSequence
+        implements CharSequence
+{
+    private final ByteBuffer bytes;
+
+    private final int start;
+
+    private final int end;
+
+    private AsciiCharSequence(final ByteBuffer bytes, final int start, final int end) {
+        this.bytes = bytes;
+        this.start = start;
+        this.end = end;
+    }
+
+    /**
+     * View remaining bytes of buffer as characters; decoding them if they are not all ASCII.
+     *
+     * The buffer must not be modified while the view is in use.
+     */
+    static CharSequence of(final ByteBuffer bytes) {
+        return of(bytes, bytes.position(), bytes.limit());
+    }
+
+    /**
+     * View given range of buffer as characters; decoding them if they are not all ASCII.
+     *
+     * The range must not be modified while the view is in use.
+     */
+    static CharSequence of(final ByteBuffer bytes, final int start, final int end) {
+        for (int i = start; i < end; i++) {
+            if (bytes.get(i) < 0) {
+                return StandardCharsets.UTF_8.decode(bytes.duplicate().position(start).limit(end)).toString();
+            }
+        }
+        return new AsciiCharSequence(bytes, start, end);
+    }
+
+    @Override
+    public int length() {
+        return end - start;
+    }
+
+    @Override
+    public char charAt(final int index) {
+        if (index < 0 || index >= end - start) {
+            throw new IndexOutOfBoundsException(index);
+        }
+        return (char) bytes.get(start + index);
+    }
+
+    @Override
+    public CharSequence subSequence(final int start, final int end) {
+        if (start < 0 || start > end || end > this.end - this.start) {
+            throw new IndexOutOfBoundsException("start " + start + ", end " + end + ", length " + length());
+        }
+        return new AsciiCharSequence(bytes, this.start + start, this.start + end);
+    }
+
+    @Override
+    public String toString() {
+        if (bytes.hasArray()) {
+            return new String(bytes.array(), bytes.arrayOffset() + start, end - start, StandardCharsets.ISO_8859_1);
+        }
+        byte[] copy = new byte[end - start];
+        bytes.get(start, copy);
+        return new String(copy, StandardCharsets.ISO_8859_1);
+    }
+}
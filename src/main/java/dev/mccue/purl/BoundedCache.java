@@ -0,0 +1,119 @@
+package dev.mccue.purl;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.jspecify.annotations.Nullable;
+
+/**
+ * Size bounded, least recently used, cache.
+ *
+ * Entries are spread over independently locked segments, each evicting its own least recently used entry, so
+ * concurrent access to different keys rarely contends and the bound is approximate by at most one entry per segment.
+ */
+final class BoundedCache<K, V>
+{
+    private static final int MAXIMUM_SEGMENTS = 16;
+
+    private final Segment<K, V>[] segments;
+
+    private final LongAdder hits = new LongAdder();
+
+    private final LongAdder misses = new LongAdder();
+
+    @SuppressWarnings("unchecked")
+    BoundedCache(final int maximumSize) {
+        if (maximumSize <= 0) {
+            throw new IllegalArgumentException("Invalid maximum size: " + maximumSize);
+        }
+        int count = 1;
+        while (count < MAXIMUM_SEGMENTS && count * 2 <= maximumSize) {
+            count <<= 1;
+        }
+        int capacity = (maximumSize + count - 1) / count;
+        segments = (Segment<K, V>[]) new Segment<?, ?>[count];
+        for (int i = 0; i < count; i++) {
+            segments[i] = new Segment<>(capacity);
+        }
+    }
+
+    private Segment<K, V> segment(final Object key) {
+        int h = key.hashCode();
+        return segments[(h ^ (h >>> 16)) & (segments.length - 1)];
+    }
+
+    /**
+     * Lookup value for key; counting a hit or miss.
+     */
+    @Nullable
+    V get(final K key) {
+        Segment<K, V> segment = segment(key);
+        V value;
+        synchronized (segment) {
+            value = segment.get(key);
+        }
+        if (value != null) {
+            hits.increment();
+        }
+        else {
+            misses.increment();
+        }
+        return value;
+    }
+
+    /**
+     * Associate value with key unless already present; returning the value associated afterwards.
+     */
+    V putIfAbsent(final K key, final V value) {
+        Segment<K, V> segment = segment(key);
+        synchronized (segment) {
+            V existing = segment.putIfAbsent(key, value);
+            return existing != null ? existing : value;
+        }
+    }
+
+    long hitCount() {
+        return hits.sum();
+    }
+
+    long missCount() {
+        return misses.sum();
+    }
+
+    int size() {
+        int size = 0;
+        for (Segment<K, V> segment : segments) {
+            synchronized (segment) {
+                size += segment.size();
+            }
+        }
+        return size;
+    }
+
+    void clear() {
+        for (Segment<K, V> segment : segments) {
+            synchronized (segment) {
+                segment.clear();
+            }
+        }
+    }
+
+    private static final class Segment<K, V>
+            extends LinkedHashMap<K, V>
+    {
+        private static final long serialVersionUID = 1L;
+
+        private final int capacity;
+
+        Segment(final int capacity) {
+            super(16, 0.75f, true);
+            this.capacity = capacity;
+        }
+
+        @Override
+        protected boolean removeEldestEntry(final Map.Entry<K, V> eldest) {
+            return size() > capacity;
+        }
+    }
+}
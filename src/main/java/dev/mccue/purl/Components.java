@@ -0,0 +1,30 @@
+package dev.mccue.purl;
+
+import org.jspecify.annotations.Nullable;
+
+/**
+ * Components after the type of a {@link PackageUrl} which are held elsewhere than its fields; by
+ * {@link LazyComponents} for a lazily parsed package-url, or by a {@link PackageUrlTable} for a view of one of its rows.
+ *
+ * Arrays returned are owned by the package-url; never modified.  As for package-urls held in fields, an empty namespace
+ * or subpath is not the same as none; lazily parsed components never have one, but the rows of a table can.
+ */
+interface Components
+{
+    @Nullable
+    String[] namespace();
+
+    String name();
+
+    @Nullable
+    String version();
+
+    /**
+     * Alternating qualifier keys and values, sorted by key.
+     */
+    @Nullable
+    String[] qualifiers();
+
+    @Nullable
+    String[] subpath();
+}
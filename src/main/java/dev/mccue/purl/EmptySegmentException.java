@@ -23,4 +23,8 @@ public final class EmptySegmentException
     EmptySegmentException(final String value) {
         super("Empty segment in: " + value);
     }
+
+    EmptySegmentException(final String value, final boolean writableStackTrace) {
+        super("Empty segment in: " + value, writableStackTrace);
+    }
 }
\ No newline at end of file
@@ -0,0 +1,43 @@
+package dev.mccue.purl;
+
+/**
+ * Versions as runs of digits, compared numerically, and runs of other letters, compared lexicographically and before
+ * numbers; ignoring everything else as separators.  A version orders before any longer version it is a prefix of.
+ */
+final class GenericVersionScheme
+        extends VersionScheme
+{
+    private static final int END = 0x01;
+
+    private static final int TEXT = 0x02;
+
+    private static final int NUMBER = 0x03;
+
+    @Override
+    boolean encode(final String version, final KeyWriter out) {
+        int i = 0;
+        while (i < version.length()) {
+            char c = version.charAt(i);
+            int start = i;
+            if (isDigit(c)) {
+                while (i < version.length() && isDigit(version.charAt(i))) {
+                    i++;
+                }
+                out.write(NUMBER);
+                out.number(version, start, i);
+            }
+            else if (Character.isLetter(c)) {
+                while (i < version.length() && Character.isLetter(version.charAt(i))) {
+                    i++;
+                }
+                out.write(TEXT);
+                out.string(version, start, i, false);
+            }
+            else {
+                i++;
+            }
+        }
+        out.write(END);
+        return true;
+    }
+}
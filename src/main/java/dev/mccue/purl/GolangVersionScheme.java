@@ -0,0 +1,18 @@
+package dev.mccue.purl;
+
+/**
+ * <a href="https://go.dev/ref/mod#versions">Go module versions</a>; semantic versions with a required {@code v} prefix.
+ *
+ * Pseudo-versions, eg. {@code v0.0.0-20191109021931-daa7c04131f5}, are pre-releases of the version after their base,
+ * whose identifiers start with a fixed width timestamp; so they order by their base, then by commit time, and before
+ * any tagged release of that version, as Go orders them.  The {@code +incompatible} suffix is build metadata, so is
+ * ignored.
+ */
+final class GolangVersionScheme
+        extends VersionScheme
+{
+    @Override
+    boolean encode(final String version, final KeyWriter out) {
+        return !version.isEmpty() && version.charAt(0) == 'v' && SEMVER.encode(version, out);
+    }
+}
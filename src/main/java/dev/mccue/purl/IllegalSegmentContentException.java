@@ -11,4 +11,8 @@ public final class IllegalSegmentContentException
     IllegalSegmentContentException(final String content, final String value) {
         super("Illegal segment content: " + content + " in: " + value);
     }
+
+    IllegalSegmentContentException(final String content, final String value, final boolean writableStackTrace) {
+        super("Illegal segment content: " + content + " in: " + value, writableStackTrace);
+    }
 }
\ No newline at end of file
@@ -22,4 +22,8 @@ public sealed class InvalidException
     InvalidException(final String message) {
         super(message);
     }
+
+    InvalidException(final String message, final boolean writableStackTrace) {
+        super(message, null, true, writableStackTrace);
+    }
 }
\ No newline at end of file
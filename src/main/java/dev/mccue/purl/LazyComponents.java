@@ -0,0 +1,223 @@
+package dev.mccue.purl;
+
+import java.util.List;
+
+import org.jspecify.annotations.Nullable;
+
+/**
+ * Components of a {@link PackageUrlParser#lazy(boolean) lazily parsed} {@link PackageUrl}; each decoded from the parsed
+ * value when first asked for.
+ *
+ * The value was scanned and checked to decode when parsed, so decoding here never fails.  Decoded components are
+ * published through volatile fields; racing threads at worst decode the same component twice.
+ */
+final class LazyComponents
+        implements Components
+{
+    /**
+     * Marks an array component which was decoded to {@code null}; eg. qualifiers with only blank values, or a namespace
+     * of only slashes.
+     */
+    private static final String[] ABSENT = new String[0];
+
+    private final String value;
+
+    private final String type;
+
+    private final boolean typeSpecificTransformations;
+
+    /**
+     * Recently parsed packages to share the namespace and name of; if the parser shares them.
+     */
+    @Nullable
+    private final RecentPackages packages;
+
+    private final int namespaceStart;
+
+    private final int namespaceEnd;
+
+    private final int nameStart;
+
+    private final int nameEnd;
+
+    private final int versionStart;
+
+    private final int versionEnd;
+
+    private final int qualifiersStart;
+
+    private final int qualifiersEnd;
+
+    private final int subpathStart;
+
+    private final int subpathEnd;
+
+    @Nullable
+    private volatile String[] namespace;
+
+    @Nullable
+    private volatile String name;
+
+    @Nullable
+    private volatile String version;
+
+    @Nullable
+    private volatile String[] qualifiers;
+
+    @Nullable
+    private volatile String[] subpath;
+
+    /**
+     * Components of given value, at the offsets located by given scanner.
+     */
+    LazyComponents(final String value,
+                   final String type,
+                   final boolean typeSpecificTransformations,
+                   @Nullable final RecentPackages packages,
+                   final PackageUrlScanner scanner)
+    {
+        this.value = value;
+        this.type = type;
+        this.typeSpecificTransformations = typeSpecificTransformations;
+        this.packages = packages;
+        this.namespaceStart = scanner.namespaceStart;
+        this.namespaceEnd = scanner.namespaceEnd;
+        this.nameStart = scanner.nameStart;
+        this.nameEnd = scanner.nameEnd;
+        this.versionStart = scanner.versionStart;
+        this.versionEnd = scanner.versionEnd;
+        this.qualifiersStart = scanner.qualifiersStart;
+        this.qualifiersEnd = scanner.qualifiersEnd;
+        this.subpathStart = scanner.subpathStart;
+        this.subpathEnd = scanner.subpathEnd;
+    }
+
+    @Override
+    @Nullable
+    public String[] namespace() {
+        if (namespaceStart == -1) {
+            return null;
+        }
+        String[] result = namespace;
+        if (result == null) {
+            if (packages != null) {
+                decodePackage(packages);
+                result = namespace;
+            }
+            else {
+                result = decodeNamespace();
+                namespace = result != null ? result : ABSENT;
+            }
+        }
+        return result != ABSENT ? result : null;
+    }
+
+    @Override
+    public String name() {
+        String result = name;
+        if (result == null) {
+            if (packages != null) {
+                decodePackage(packages);
+                result = name;
+            }
+            else {
+                result = decodeName();
+                name = result;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Decode the namespace and name together; sharing those of a recently parsed package-url of the same package.
+     */
+    private void decodePackage(final RecentPackages packages) {
+        RecentPackages.Entry shared = packages.share(namespaceStart != -1 ? decodeNamespace() : null, decodeName());
+        namespace = shared.namespace != null ? shared.namespace : ABSENT;
+        name = shared.name;
+    }
+
+    @Nullable
+    private String[] decodeNamespace() {
+        String[] result = segments(namespaceStart, namespaceEnd, "namespace");
+        if (typeSpecificTransformations) {
+            PackageUrlBuilder.transformNamespace(type, result);
+        }
+        return result;
+    }
+
+    private String decodeName() {
+        String result = decode(nameStart, nameEnd);
+        if (typeSpecificTransformations) {
+            result = PackageUrlBuilder.transformName(type, result);
+        }
+        return result;
+    }
+
+    @Override
+    @Nullable
+    public String version() {
+        if (versionStart == -1) {
+            return null;
+        }
+        String result = version;
+        if (result == null) {
+            result = decode(versionStart, versionEnd);
+            version = result;
+        }
+        return result;
+    }
+
+    @Override
+    @Nullable
+    public String[] qualifiers() {
+        if (qualifiersStart == -1) {
+            return null;
+        }
+        String[] result = qualifiers;
+        if (result == null) {
+            PackageUrlScanner scanner = new PackageUrlScanner();
+            result = PackageUrlBuilder.sortQualifiers(
+                    PackageUrlParser.parseQualifiers(value, qualifiersStart, qualifiersEnd, scanner));
+            check(scanner);
+            qualifiers = result != null ? result : ABSENT;
+        }
+        return result != ABSENT ? result : null;
+    }
+
+    @Override
+    @Nullable
+    public String[] subpath() {
+        if (subpathStart == -1) {
+            return null;
+        }
+        String[] result = subpath;
+        if (result == null) {
+            result = segments(subpathStart, subpathEnd, "subpath", ".", "..");
+            subpath = result != null ? result : ABSENT;
+        }
+        return result != ABSENT ? result : null;
+    }
+
+    private String decode(final int start, final int end) {
+        String result = PercentEncoding.tryDecode(value, start, end);
+        if (result == null) {
+            throw new AssertionError("Not decodable: " + value);
+        }
+        return result;
+    }
+
+    @Nullable
+    private String[] segments(final int start, final int end, final String component, final String... invalids) {
+        PackageUrlScanner scanner = new PackageUrlScanner();
+        List<String> result = PackageUrlParser.parseSegments(value, start, end, component, scanner, invalids);
+        check(scanner);
+        return result != null ? result.toArray(new String[0]) : null;
+    }
+
+    private void check(final PackageUrlScanner scanner) {
+        if (scanner.errorKind != null) {
+            throw new AssertionError("Not decodable: " + value);
+        }
+    }
+}
@@ -0,0 +1,274 @@
+package dev.mccue.purl;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Locale;
+
+import org.jspecify.annotations.Nullable;
+
+/**
+ * Maven versions; parsed and ordered as by the {@code ComparableVersion} of Maven 3.9.
+ *
+ * A version is a list of numbers, qualifiers and nested lists (started by {@code -}, or a change between digits and
+ * letters); with trailing zeros and release qualifiers removed.  Known qualifiers order {@code alpha < beta < milestone
+ * < rc < snapshot < release < sp}, and other qualifiers lexicographically after those.
+ *
+ * {@code ComparableVersion} is not transitive for some mixes of lists, qualifiers and zeros at the same position, eg.
+ * {@code 1.0-1} against {@code 1.0.0.1}; so keys order those by one consistent choice, rather than exactly as it does.
+ */
+final class MavenVersionScheme
+        extends VersionScheme
+{
+    private static final int ALPHA = 0x20;
+
+    /**
+     * List which orders before the end of a list; ie. whose first item not equal to the end is a qualifier before
+     * release.
+     */
+    private static final int LOW_LIST = 0x25;
+
+    // PAD: the end of a list, release qualifiers, and zeros which are followed by a qualifier before release
+
+    private static final int SP = 0x27;
+
+    private static final int QUALIFIER = 0x28;
+
+    private static final int LIST = 0x29;
+
+    /**
+     * Zero followed by an item which orders after the end of a list; eg. the zero of {@code 1.0.1}.
+     */
+    private static final int ZERO = 0x2A;
+
+    private static final int NUMBER = 0x2B;
+
+    private static final String[] QUALIFIERS = {"alpha", "beta", "milestone", "rc", "snapshot"};
+
+    @Override
+    boolean encode(final String version, final KeyWriter out) {
+        Item items = parse(version.toLowerCase(Locale.ENGLISH));
+        int[] significant = {out.length()};
+        encodeList(items.items, out, significant);
+        // trailing ends of lists are insignificant
+        out.truncate(significant[0]);
+        return true;
+    }
+
+    private static void encodeList(final List<Item> items, final KeyWriter out, final int[] significant) {
+        for (int i = 0; i < items.size(); i++) {
+            Item item = items.get(i);
+            if (item.items != null && !item.isNull()) {
+                out.write(signum(item.items, 0) <= 0 ? LOW_LIST : LIST);
+                encodeList(item.items, out, significant);
+                continue;
+            }
+            if (item.number && item.isNull()) {
+                // zeros equal the end of a list, but order after lists and qualifiers; normalizing only leaves zeros
+                // which are followed by other items, so order them as those against the end of a list
+                out.write(signum(items, i + 1) > 0 ? ZERO : PAD);
+            }
+            else if (item.isNull()) {
+                out.write(PAD);
+            }
+            else if (item.number) {
+                out.write(NUMBER);
+                out.number(item.value, 0, item.value.length());
+            }
+            else {
+                int rank = rank(item.value);
+                if (rank < QUALIFIERS.length) {
+                    out.write(ALPHA + rank);
+                }
+                else if (item.value.equals("sp")) {
+                    out.write(SP);
+                }
+                else {
+                    out.write(QUALIFIER);
+                    out.string(item.value, 0, item.value.length(), false);
+                }
+            }
+            significant[0] = out.length();
+        }
+        out.write(PAD);
+    }
+
+    /**
+     * Order of given items, from given index, against the end of a list; as of their first item not equal to it.
+     */
+    private static int signum(final List<Item> items, final int from) {
+        for (int i = from; i < items.size(); i++) {
+            int signum = items.get(i).signum();
+            if (signum != 0) {
+                return signum;
+            }
+        }
+        return 0;
+    }
+
+    private static int rank(final String qualifier) {
+        for (int i = 0; i < QUALIFIERS.length; i++) {
+            if (QUALIFIERS[i].equals(qualifier)) {
+                return i;
+            }
+        }
+        return QUALIFIERS.length;
+    }
+
+    /**
+     * Parse lower case version; as {@code ComparableVersion.parseVersion} does.
+     */
+    private static Item parse(final String version) {
+        Item list = Item.list();
+        Item items = list;
+        Deque<Item> stack = new ArrayDeque<>();
+        stack.push(list);
+        boolean isDigit = false;
+        int start = 0;
+        for (int i = 0; i < version.length(); i++) {
+            char c = version.charAt(i);
+            if (c == '.' || c == '-') {
+                list.items.add(i == start ? Item.number("") : Item.parse(isDigit, version.substring(start, i)));
+                start = i + 1;
+                if (c == '-') {
+                    list = push(list, stack);
+                }
+            }
+            else if (isDigit(c)) {
+                if (!isDigit && i > start) {
+                    // .X1 is treated as -X1
+                    if (!list.items.isEmpty()) {
+                        list = push(list, stack);
+                    }
+                    list.items.add(Item.qualifier(version.substring(start, i), true));
+                    start = i;
+                    list = push(list, stack);
+                }
+                isDigit = true;
+            }
+            else {
+                if (isDigit && i > start) {
+                    list.items.add(Item.parse(true, version.substring(start, i)));
+                    start = i;
+                    list = push(list, stack);
+                }
+                isDigit = false;
+            }
+        }
+        if (version.length() > start) {
+            // and a trailing .X as -X
+            if (!isDigit && !list.items.isEmpty()) {
+                list = push(list, stack);
+            }
+            list.items.add(Item.parse(isDigit, version.substring(start)));
+        }
+        while (!stack.isEmpty()) {
+            stack.pop().normalize();
+        }
+        return items;
+    }
+
+    private static Item push(final Item list, final Deque<Item> stack) {
+        Item result = Item.list();
+        list.items.add(result);
+        stack.push(result);
+        return result;
+    }
+
+    /**
+     * Number without leading zeros, qualifier with aliases resolved, or list.
+     */
+    private static final class Item
+    {
+        private final boolean number;
+
+        private final String value;
+
+        @Nullable
+        private final List<Item> items;
+
+        private Item(final boolean number, final String value, @Nullable final List<Item> items) {
+            this.number = number;
+            this.value = value;
+            this.items = items;
+        }
+
+        static Item list() {
+            return new Item(false, "", new ArrayList<>(4));
+        }
+
+        static Item number(final String digits) {
+            int i = 0;
+            while (i < digits.length() && digits.charAt(i) == '0') {
+                i++;
+            }
+            return new Item(true, digits.substring(i), null);
+        }
+
+        static Item qualifier(final String value, final boolean followedByDigit) {
+            String result = value;
+            if (followedByDigit && value.length() == 1) {
+                switch (value.charAt(0)) {
+                    case 'a':
+                        result = "alpha";
+                        break;
+                    case 'b':
+                        result = "beta";
+                        break;
+                    case 'm':
+                        result = "milestone";
+                        break;
+                    default:
+                        break;
+                }
+            }
+            switch (result) {
+                case "ga":
+                case "final":
+                case "release":
+                    return new Item(false, "", null);
+                case "cr":
+                    return new Item(false, "rc", null);
+                default:
+                    return new Item(false, result, null);
+            }
+        }
+
+        static Item parse(final boolean isDigit, final String value) {
+            return isDigit ? number(value) : qualifier(value, false);
+        }
+
+        boolean isNull() {
+            return items != null ? items.isEmpty() : value.isEmpty();
+        }
+
+        /**
+         * Order against the end of a list.
+         */
+        int signum() {
+            if (items != null) {
+                return MavenVersionScheme.signum(items, 0);
+            }
+            if (value.isEmpty()) {
+                return 0;
+            }
+            return number || rank(value) >= QUALIFIERS.length ? 1 : -1;
+        }
+
+        /**
+         * Remove trailing zeros, release qualifiers and empty lists; looking past trailing lists.
+         */
+        void normalize() {
+            for (int i = items.size() - 1; i >= 0; i--) {
+                Item last = items.get(i);
+                if (last.isNull()) {
+                    items.remove(i);
+                }
+                else if (last.items == null) {
+                    break;
+                }
+            }
+        }
+    }
+}
@@ -2,8 +2,6 @@ package dev.mccue.purl;
 
 import org.jspecify.annotations.Nullable;
 
-import java.util.ArrayList;
-import java.util.List;
 import java.util.Locale;
 
 /**
@@ -25,26 +23,51 @@ final class MoreStrings
     }
 
     /**
-     * Convert given list of values to lower-case.
+     * Check if given string is {@code null}, empty {@literal ""} or only contains whitespace.
+     *
+     * @since 1.2.0
      */
-    @Nullable
-    static List<String> lowerCase(@Nullable final List<String> values) {
-        if (values != null) {
-            List<String> result = new ArrayList<>(values.size());
-            for (String value : values) {
-                result.add(lowerCase(value));
+    static boolean isBlank(@Nullable final String value) {
+        return value != null && value.trim().isEmpty();
+    }
+
+    /**
+     * Index of the first given character in range of value; or {@code -1} if there is none.
+     */
+    static int indexOf(final CharSequence value, final char c, final int start, final int end) {
+        if (value instanceof String) {
+            int index = ((String) value).indexOf(c, start);
+            return index < end ? index : -1;
+        }
+        for (int i = start; i < end; i++) {
+            if (value.charAt(i) == c) {
+                return i;
             }
-            return result;
         }
-        return null;
+        return -1;
     }
 
     /**
-     * Check if given string is {@code null}, empty {@literal ""} or only contains whitespace.
-     *
-     * @since 1.2.0
+     * Compare two ranges of value lexicographically; as {@link String#compareTo(String)} does.
      */
-    static boolean isBlank(@Nullable final String value) {
-        return value != null && value.trim().isEmpty();
+    static int compare(final CharSequence value, final int start1, final int end1, final int start2, final int end2) {
+        int length = Math.min(end1 - start1, end2 - start2);
+        for (int i = 0; i < length; i++) {
+            int cmp = value.charAt(start1 + i) - value.charAt(start2 + i);
+            if (cmp != 0) {
+                return cmp;
+            }
+        }
+        return (end1 - start1) - (end2 - start2);
+    }
+
+    /**
+     * Copy range of value to a string.
+     */
+    static String substring(final CharSequence value, final int start, final int end) {
+        if (value instanceof String) {
+            return ((String) value).substring(start, end);
+        }
+        return value.subSequence(start, end).toString();
     }
 }
\ No newline at end of file
@@ -1,17 +1,24 @@
 package dev.mccue.purl;
 
+import java.io.DataOutput;
+import java.io.IOException;
+import java.io.InvalidObjectException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.OutputStream;
 import java.io.Serializable;
 import java.net.URI;
-import java.util.Iterator;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
 import java.util.List;
-import java.util.Map.Entry;
-import java.util.Objects;
 import java.util.SortedMap;
 
 import org.jspecify.annotations.Nullable;
 
-import static java.util.Collections.unmodifiableList;
-import static java.util.Collections.unmodifiableSortedMap;
 import static java.util.Objects.requireNonNull;
 import static dev.mccue.purl.PercentEncoding.encodeName;
 import static dev.mccue.purl.PercentEncoding.encodeQualifierValue;
@@ -25,9 +32,9 @@ import static dev.mccue.purl.PercentEncoding.encodeVersion;
  * @since 1.0.0
  */
 public final class PackageUrl
-        implements Serializable
+        implements Serializable, Comparable<PackageUrl>
 {
-    private static final long serialVersionUID = 1L;
+    private static final long serialVersionUID = 2L;
 
     /**
      * Standard URI scheme for Package-URL.
@@ -38,41 +45,124 @@ public final class PackageUrl
 
     private final String type;
 
+    /**
+     * Namespace segments; exposed through a {@link SegmentList} view.
+     *
+     * Like the other components after the type, {@code null} if {@link #lazy}; so only accessed through its accessor.
+     */
     @Nullable
-    private final List<String> namespace;
+    private final String[] namespace;
 
+    @Nullable
     private final String name;
 
     @Nullable
     private final String version;
 
     /**
-     * Sorted map of qualifiers (lexicographically).
+     * Alternating qualifier keys and values, sorted by key (lexicographically); exposed through a {@link QualifierMap}
+     * view.
      *
      * See: https://github.com/package-url/purl-spec/issues/51
      */
     @Nullable
-    private final SortedMap<String, String> qualifiers;
+    private final String[] qualifiers;
+
+    /**
+     * Subpath segments; exposed through a {@link SegmentList} view.
+     */
+    @Nullable
+    private final String[] subpath;
+
+    /**
+     * Components after the type if lazily parsed, decoded when first accessed; or if a view of a row of a
+     * {@link PackageUrlTable}.
+     */
+    @Nullable
+    private final transient Components lazy;
 
+    /**
+     * Cached {@link #hashCode()}; {@code 0} until first computed.
+     */
+    private transient int hash;
+
+    /**
+     * Cached {@link #toString(RenderFlavor)} for {@link RenderFlavor#SCHEME}.
+     *
+     * Rendering is deterministic and {@link String} is immutable so racing threads at worst render the same value twice.
+     */
     @Nullable
-    private final List<String> subpath;
+    private transient String schemeString;
+
+    /**
+     * Cached {@link #toString(RenderFlavor)} for {@link RenderFlavor#SCHEMELESS}.
+     */
+    @Nullable
+    private transient String schemelessString;
+
+    /**
+     * Cached {@link VersionScheme#key(String) key} of the version; for the versioning scheme last asked for.
+     */
+    @Nullable
+    private transient VersionKey versionKey;
 
     /**
      * Values should have already been validated via {@link PackageUrlBuilder} and {@link PackageUrlValidator}.
+     *
+     * Arrays are owned by the package-url from then on; qualifiers must be sorted by key.
      */
     PackageUrl(final String type,
-               @Nullable final List<String> namespace,
+               @Nullable final String[] namespace,
                final String name,
                @Nullable final String version,
-               @Nullable final SortedMap<String, String> qualifiers,
-               @Nullable final List<String> subpath)
+               @Nullable final String[] qualifiers,
+               @Nullable final String[] subpath)
     {
         this.type = requireNonNull(type);
-        this.namespace = namespace != null ? unmodifiableList(namespace) : null;
+        this.namespace = namespace;
         this.name = requireNonNull(name);
         this.version = version;
-        this.qualifiers = qualifiers != null ? unmodifiableSortedMap(qualifiers) : null;
-        this.subpath = subpath != null ? unmodifiableList(subpath) : null;
+        this.qualifiers = qualifiers;
+        this.subpath = subpath;
+        this.lazy = null;
+    }
+
+    /**
+     * Lazily parsed package-url, or view; with given {@link RenderFlavor#SCHEME} rendering, if it is already known.
+     */
+    PackageUrl(final String type, final Components lazy, @Nullable final String schemeString) {
+        this.type = requireNonNull(type);
+        this.namespace = null;
+        this.name = null;
+        this.version = null;
+        this.qualifiers = null;
+        this.subpath = null;
+        this.lazy = requireNonNull(lazy);
+        this.schemeString = schemeString;
+    }
+
+    @Nullable
+    String[] namespace() {
+        return lazy != null ? lazy.namespace() : namespace;
+    }
+
+    private String name() {
+        return lazy != null ? lazy.name() : requireNonNull(name);
+    }
+
+    @Nullable
+    private String version() {
+        return lazy != null ? lazy.version() : version;
+    }
+
+    @Nullable
+    private String[] qualifiers() {
+        return lazy != null ? lazy.qualifiers() : qualifiers;
+    }
+
+    @Nullable
+    private String[] subpath() {
+        return lazy != null ? lazy.subpath() : subpath;
     }
 
     public String getType() {
@@ -81,7 +171,8 @@ public final class PackageUrl
 
     @Nullable
     public List<String> getNamespace() {
-        return namespace;
+        String[] namespace = namespace();
+        return namespace != null ? new SegmentList(namespace) : null;
     }
 
     /**
@@ -89,29 +180,32 @@ public final class PackageUrl
      */
     @Nullable
     public String getNamespaceAsString() {
-        if (namespace != null && !namespace.isEmpty()) {
-            return renderSegments(new StringBuilder(), namespace, false).toString();
+        String[] namespace = namespace();
+        if (namespace != null && namespace.length != 0) {
+            return String.join("/", namespace);
         }
         return null;
     }
 
     public String getName() {
-        return name;
+        return name();
     }
 
     @Nullable
     public String getVersion() {
-        return version;
+        return version();
     }
 
     @Nullable
     public SortedMap<String, String> getQualifiers() {
-        return qualifiers;
+        String[] qualifiers = qualifiers();
+        return qualifiers != null ? new QualifierMap(qualifiers) : null;
     }
 
     @Nullable
     public List<String> getSubpath() {
-        return subpath;
+        String[] subpath = subpath();
+        return subpath != null ? new SegmentList(subpath) : null;
     }
 
     /**
@@ -119,12 +213,17 @@ public final class PackageUrl
      */
     @Nullable
     public String getSubpathAsString() {
-        if (subpath != null && !subpath.isEmpty()) {
-            return renderSegments(new StringBuilder(), subpath, false).toString();
+        String[] subpath = subpath();
+        if (subpath != null && subpath.length != 0) {
+            return String.join("/", subpath);
         }
         return null;
     }
 
+    /**
+     * Package-urls are equal if they have the same type and the same canonical {@link RenderFlavor#SCHEME} rendering;
+     * and neither has an empty namespace or subpath that the other has none of.
+     */
     @Override
     public boolean equals(final Object o) {
         if (this == o) {
@@ -134,17 +233,211 @@ public final class PackageUrl
             return false;
         }
         PackageUrl that = (PackageUrl) o;
-        return Objects.equals(type, that.type) &&
-               Objects.equals(namespace, that.namespace) &&
-               Objects.equals(name, that.name) &&
-               Objects.equals(version, that.version) &&
-               Objects.equals(qualifiers, that.qualifiers) &&
-               Objects.equals(subpath, that.subpath);
+        if (hash != 0 && that.hash != 0 && hash != that.hash) {
+            return false;
+        }
+        return type.equals(that.type) &&
+               emptySegments() == that.emptySegments() &&
+               toString(RenderFlavor.SCHEME).equals(that.toString(RenderFlavor.SCHEME));
+    }
+
+    /**
+     * Which of the namespace ({@code 1}) and subpath ({@code 2}) are empty rather than absent; which renders the same.
+     *
+     * Parsed package-urls never have either; built ones can, and so can views of the table rows they were added to.
+     */
+    private int emptySegments() {
+        String[] namespace = namespace();
+        String[] subpath = subpath();
+        return (namespace != null && namespace.length == 0 ? 1 : 0) | (subpath != null && subpath.length == 0 ? 2 : 0);
     }
 
+    /**
+     * Hash of the canonical {@link RenderFlavor#SCHEME} rendering; which is only computed as it is rendered, unless
+     * already rendered.
+     */
     @Override
     public int hashCode() {
-        return Objects.hash(type, namespace, name, version, qualifiers, subpath);
+        int result = hash;
+        if (result == 0) {
+            String rendered = schemeString;
+            if (rendered != null) {
+                result = rendered.hashCode();
+            }
+            else {
+                try {
+                    result = render(new Hasher(), RenderFlavor.SCHEME).hash;
+                }
+                catch (IOException e) {
+                    // Hasher does not throw
+                    throw new AssertionError(e);
+                }
+            }
+            hash = result;
+        }
+        return result;
+    }
+
+    /**
+     * Order by type, then namespace segments, name, version, qualifiers (by key then value) and subpath segments; with
+     * absent components first.
+     *
+     * Components are compared directly, so nothing is rendered; and the comparison stops at the first component which
+     * differs, so lazily parsed package-urls only decode as many components as needed.  Package-urls derived by the
+     * {@code with} methods share their namespace and name, as do those of the same package parsed by a parser which
+     * {@link PackageUrlParser#sharePackages(boolean) shares packages}; so those compare by identity without reading
+     * them.  Consistent with {@link #equals(Object)}; except for components with unpaired surrogates, which render the
+     * same as {@code ?}.
+     */
+    @Override
+    public int compareTo(final PackageUrl that) {
+        if (this == that) {
+            return 0;
+        }
+        int result = comparePackage(that);
+        if (result == 0) {
+            result = compare(version(), that.version());
+        }
+        if (result == 0) {
+            // keys and values alternate, so this compares by key then value
+            result = Arrays.compare(qualifiers(), that.qualifiers());
+        }
+        if (result == 0) {
+            result = Arrays.compare(subpath(), that.subpath());
+        }
+        return result;
+    }
+
+    /**
+     * Compare by type, namespace and name.
+     */
+    private int comparePackage(final PackageUrl that) {
+        // types parsed from known types are shared
+        int result = type == that.type ? 0 : type.compareTo(that.type);
+        if (result == 0) {
+            // arrays are compared by identity first
+            result = Arrays.compare(namespace(), that.namespace());
+        }
+        if (result == 0) {
+            result = compare(name(), that.name());
+        }
+        return result;
+    }
+
+    private static int compare(@Nullable final String a, @Nullable final String b) {
+        if (a == b) {
+            return 0;
+        }
+        if (a == null) {
+            return b == null ? 0 : -1;
+        }
+        return b == null ? 1 : a.compareTo(b);
+    }
+
+    /**
+     * {@link VersionScheme#key(String) Key} of the version, which must be present, in given versioning scheme; parsed
+     * once and kept for the versioning scheme last asked for.
+     */
+    byte[] versionKey(final VersionScheme scheme) {
+        VersionKey cached = versionKey;
+        if (cached != null && cached.scheme == scheme) {
+            return cached.key;
+        }
+        byte[] key = scheme.key(requireNonNull(version()));
+        versionKey = new VersionKey(scheme, key);
+        return key;
+    }
+
+    /**
+     * Package-url with the key of its version in the versioning scheme of its type; for sorting by version.
+     */
+    private static final class VersionEntry
+            implements Comparable<VersionEntry>
+    {
+        private final PackageUrl purl;
+
+        /**
+         * Key of the version; {@code null} if none.
+         */
+        @Nullable
+        private final byte[] key;
+
+        /**
+         * {@link VersionScheme#prefix(byte[]) Prefix} of the key; compared before the key, without an indirection.
+         */
+        private final long prefix;
+
+        VersionEntry(final PackageUrl purl) {
+            this.purl = purl;
+            this.key = purl.version() != null ? purl.versionKey(VersionScheme.of(purl.type)) : null;
+            this.prefix = key != null ? VersionScheme.prefix(key) : 0;
+        }
+
+        /**
+         * Compare by package, then by version in its versioning scheme; with no version first.
+         */
+        int compareVersion(final VersionEntry that) {
+            int result = purl.comparePackage(that.purl);
+            if (result != 0) {
+                return result;
+            }
+            if (key == null || that.key == null) {
+                return key != null ? 1 : that.key != null ? -1 : 0;
+            }
+            result = Long.compareUnsigned(prefix, that.prefix);
+            return result != 0 ? result : VersionScheme.compare(key, that.key);
+        }
+
+        @Override
+        public int compareTo(final VersionEntry that) {
+            int result = compareVersion(that);
+            return result != 0 ? result : purl.compareTo(that.purl);
+        }
+    }
+
+    /**
+     * Key of a version in a versioning scheme; immutable, so safely published through a racy field.
+     */
+    private static final class VersionKey
+    {
+        private final VersionScheme scheme;
+
+        private final byte[] key;
+
+        VersionKey(final VersionScheme scheme, final byte[] key) {
+            this.scheme = scheme;
+            this.key = key;
+        }
+    }
+
+    /**
+     * {@link Appendable} computing the {@link String#hashCode()} of what is appended.
+     */
+    private static final class Hasher
+            implements Appendable
+    {
+        private int hash;
+
+        @Override
+        public Appendable append(final char c) {
+            hash = 31 * hash + c;
+            return this;
+        }
+
+        @Override
+        public Appendable append(final CharSequence csq) {
+            return append(csq, 0, csq.length());
+        }
+
+        @Override
+        public Appendable append(final CharSequence csq, final int start, final int end) {
+            int result = hash;
+            for (int i = start; i < end; i++) {
+                result = 31 * result + csq.charAt(i);
+            }
+            hash = result;
+            return this;
+        }
     }
 
     /**
@@ -152,11 +445,11 @@ public final class PackageUrl
      */
     String explain() {
         return "{type='" + type + '\'' +
-               ", namespace=" + namespace +
-               ", name='" + name + '\'' +
-               ", version='" + version + '\'' +
-               ", qualifiers=" + qualifiers +
-               ", subpath=" + subpath +
+               ", namespace=" + getNamespace() +
+               ", name='" + name() + '\'' +
+               ", version='" + version() + '\'' +
+               ", qualifiers=" + getQualifiers() +
+               ", subpath=" + getSubpath() +
                '}';
     }
 
@@ -169,13 +462,142 @@ public final class PackageUrl
         return new PackageUrlBuilder().from(this);
     }
 
+    /**
+     * Return package-url with given version; sharing the other components with this one.
+     *
+     * Only the version is validated.
+     */
+    public PackageUrl withVersion(final String version) {
+        requireNonNull(version);
+        if (version.equals(version())) {
+            return this;
+        }
+        PackageUrlValidator.validateVersion(version);
+        return new PackageUrl(type, namespace(), name(), version, qualifiers(), subpath());
+    }
+
+    /**
+     * Return package-url without a version; sharing the other components with this one.
+     */
+    public PackageUrl withoutVersion() {
+        if (version() == null) {
+            return this;
+        }
+        return new PackageUrl(type, namespace(), name(), null, qualifiers(), subpath());
+    }
+
+    /**
+     * Return package-url with given qualifier added or replaced; sharing the other components with this one.
+     *
+     * As with {@link PackageUrlBuilder#qualifier(String, String)} the key is lower-cased, and a blank value removes the
+     * qualifier.  Only the key is validated.
+     */
+    public PackageUrl withQualifier(final String key, final String value) {
+        requireNonNull(key);
+        requireNonNull(value);
+        PackageUrlValidator.validateQualifierKey(key);
+        String lowerKey = MoreStrings.lowerCase(key);
+        if (MoreStrings.isBlank(value)) {
+            return withoutQualifier(lowerKey);
+        }
+
+        String[] qualifiers = qualifiers();
+        if (qualifiers == null) {
+            return new PackageUrl(type, namespace(), name(), version(), new String[] { lowerKey, value }, subpath());
+        }
+        int index = QualifierMap.indexOf(qualifiers, 0, qualifiers.length / 2, lowerKey);
+        String[] result;
+        if (index >= 0) {
+            if (value.equals(qualifiers[index * 2 + 1])) {
+                return this;
+            }
+            result = qualifiers.clone();
+        }
+        else {
+            index = -(index + 1);
+            result = new String[qualifiers.length + 2];
+            System.arraycopy(qualifiers, 0, result, 0, index * 2);
+            System.arraycopy(qualifiers, index * 2, result, index * 2 + 2, qualifiers.length - index * 2);
+            result[index * 2] = lowerKey;
+        }
+        result[index * 2 + 1] = value;
+        return new PackageUrl(type, namespace(), name(), version(), result, subpath());
+    }
+
+    /**
+     * Return package-url without the qualifier with given key, if any; sharing the other components with this one.
+     */
+    public PackageUrl withoutQualifier(final String key) {
+        requireNonNull(key);
+        String[] qualifiers = qualifiers();
+        if (qualifiers == null) {
+            return this;
+        }
+        int index = QualifierMap.indexOf(qualifiers, 0, qualifiers.length / 2, MoreStrings.lowerCase(key));
+        if (index < 0) {
+            return this;
+        }
+        if (qualifiers.length == 2) {
+            return withoutQualifiers();
+        }
+        String[] result = new String[qualifiers.length - 2];
+        System.arraycopy(qualifiers, 0, result, 0, index * 2);
+        System.arraycopy(qualifiers, index * 2 + 2, result, index * 2, result.length - index * 2);
+        return new PackageUrl(type, namespace(), name(), version(), result, subpath());
+    }
+
+    /**
+     * Return package-url without qualifiers; sharing the other components with this one.
+     */
+    public PackageUrl withoutQualifiers() {
+        if (qualifiers() == null) {
+            return this;
+        }
+        return new PackageUrl(type, namespace(), name(), version(), null, subpath());
+    }
+
+    /**
+     * Return package-url with given subpath segments; sharing the other components with this one.
+     *
+     * Only the subpath is validated.
+     */
+    public PackageUrl withSubpath(final List<String> subpath) {
+        requireNonNull(subpath);
+        PackageUrlValidator.validateSubpath(subpath);
+        return new PackageUrl(type, namespace(), name(), version(), qualifiers(), subpath.toArray(new String[0]));
+    }
+
+    /**
+     * Return package-url with subpath parsed from given value; sharing the other components with this one.
+     *
+     * @see PackageUrlBuilder#subpath(String)
+     */
+    public PackageUrl withSubpath(final String subpath) {
+        requireNonNull(subpath);
+        // only null for a null value
+        return withSubpath(requireNonNull(PackageUrlParser.parseSubpath(subpath)));
+    }
+
+    /**
+     * Return package-url without a subpath; sharing the other components with this one.
+     */
+    public PackageUrl withoutSubpath() {
+        if (subpath() == null) {
+            return this;
+        }
+        return new PackageUrl(type, namespace(), name(), version(), qualifiers(), null);
+    }
+
     /**
      * Convert to a URI.
      *
+     * Parses the cached {@link RenderFlavor#SCHEME} rendering; as {@link URI} cannot be created without parsing, and
+     * its component constructors would quote the already encoded components again.
+     *
      * @since 1.1.0
      */
     public URI toUri() {
-        return URI.create(toString());
+        return URI.create(toString(RenderFlavor.SCHEME));
     }
 
     /**
@@ -188,12 +610,114 @@ public final class PackageUrl
 
     /**
      * Convert to canonical string representation with given rendering flavor.
+     *
+     * Rendered once per flavor and cached; from the rendering with the other flavor, if there is one.
      */
     public String toString(final RenderFlavor flavor) {
         requireNonNull(flavor);
 
-        StringBuilder buff = new StringBuilder();
+        String result = flavor == RenderFlavor.SCHEME ? schemeString : schemelessString;
+        if (result == null) {
+            result = render(flavor);
+            if (flavor == RenderFlavor.SCHEME) {
+                schemeString = result;
+            }
+            else {
+                schemelessString = result;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Append canonical string representation with given rendering flavor to given appendable.
+     *
+     * Unless already {@link #toString(RenderFlavor) rendered} with either flavor, each component is encoded straight
+     * into the appendable without creating a string representation.
+     *
+     * @return the appendable
+     */
+    public <A extends Appendable> A renderTo(final A out, final RenderFlavor flavor) throws IOException {
+        requireNonNull(out);
+        requireNonNull(flavor);
+
+        String rendered = flavor == RenderFlavor.SCHEME ? schemeString : schemelessString;
+        if (rendered != null) {
+            out.append(rendered);
+            return out;
+        }
+        String other = flavor == RenderFlavor.SCHEME ? schemelessString : schemeString;
+        if (other != null) {
+            // the flavors only differ up to the end of the type
+            String lowerType = MoreStrings.lowerCase(type);
+            int prefix = lowerType.length() + 1;
+            if (flavor == RenderFlavor.SCHEME) {
+                out.append(SCHEME).append(':').append(lowerType).append('/');
+            }
+            else {
+                out.append(lowerType).append(':');
+                prefix += SCHEME.length() + 1;
+            }
+            out.append(other, prefix, other.length());
+            return out;
+        }
+        return render(out, flavor);
+    }
+
+    /**
+     * Write canonical string representation with given rendering flavor to given buffer; as {@code UTF-8}, which is
+     * the same as ASCII as everything else is percent-encoded.
+     *
+     * @return the buffer
+     * @throws BufferOverflowException if the buffer has too little room; in which case its position is unchanged
+     * @see #renderTo(Appendable, RenderFlavor)
+     */
+    public ByteBuffer writeTo(final ByteBuffer buffer, final RenderFlavor flavor) {
+        requireNonNull(buffer);
+        int position = buffer.position();
+        try {
+            renderTo(AsciiAppendable.of(buffer), flavor);
+        }
+        catch (BufferOverflowException e) {
+            buffer.position(position);
+            throw e;
+        }
+        catch (IOException e) {
+            // ByteBuffer does not throw
+            throw new AssertionError(e);
+        }
+        return buffer;
+    }
 
+    /**
+     * Write canonical string representation with given rendering flavor to given stream; as {@code UTF-8}, which is
+     * the same as ASCII as everything else is percent-encoded.
+     *
+     * Bytes are written one at a time; so the stream should be buffered.
+     *
+     * @see #renderTo(Appendable, RenderFlavor)
+     */
+    public void writeTo(final OutputStream out, final RenderFlavor flavor) throws IOException {
+        renderTo(AsciiAppendable.of(requireNonNull(out)), flavor);
+    }
+
+    /**
+     * Render canonical string representation with given rendering flavor.
+     */
+    private String render(final RenderFlavor flavor) {
+        try {
+            return renderTo(new StringBuilder(), flavor).toString();
+        }
+        catch (IOException e) {
+            // StringBuilder does not throw
+            throw new AssertionError(e);
+        }
+    }
+
+    /**
+     * Render canonical string representation with given rendering flavor to buffer.
+     */
+    private <A extends Appendable> A render(final A buff, final RenderFlavor flavor) throws IOException {
         if (flavor == RenderFlavor.SCHEME) {
             buff.append(SCHEME).append(':');
         }
@@ -207,54 +731,135 @@ public final class PackageUrl
             buff.append(':');
         }
 
-        if (namespace != null && !namespace.isEmpty()) {
-            renderSegments(buff, namespace, true);
+        String[] namespace = namespace();
+        if (namespace != null && namespace.length != 0) {
+            renderSegments(buff, namespace);
             buff.append('/');
         }
 
-        buff.append(encodeName(name));
+        encodeName(buff, name());
+
+        return renderTail(buff);
+    }
 
+    /**
+     * Render version, qualifiers and subpath to buffer.
+     */
+    private <A extends Appendable> A renderTail(final A buff) throws IOException {
+        String version = version();
         if (version != null) {
-            buff.append('@').append(encodeVersion(version));
+            encodeVersion(buff.append('@'), version);
         }
 
-        if (qualifiers != null && !qualifiers.isEmpty()) {
+        String[] qualifiers = qualifiers();
+        if (qualifiers != null && qualifiers.length != 0) {
             buff.append('?');
 
-            String separator = "";
-            for (Entry<String, String> entry : qualifiers.entrySet()) {
-                buff.append(separator).append(entry.getKey()).append('=').append(encodeQualifierValue(entry.getValue()));
-                separator = "&";
+            for (int i = 0; i < qualifiers.length; i += 2) {
+                if (i != 0) {
+                    buff.append('&');
+                }
+                buff.append(qualifiers[i]).append('=');
+                encodeQualifierValue(buff, qualifiers[i + 1]);
             }
         }
 
-        if (subpath != null && !subpath.isEmpty()) {
+        String[] subpath = subpath();
+        if (subpath != null && subpath.length != 0) {
             buff.append('#');
-            renderSegments(buff, subpath, true);
+            renderSegments(buff, subpath);
         }
 
-        return buff.toString();
+        return buff;
     }
 
     /**
-     * Render segments to buffer.
+     * Package-url with the type, namespace and name of this one, which has no other components, and given remaining
+     * components.
+     *
+     * Rendered by appending the remaining components to the rendering of this one.
      */
-    private static StringBuilder renderSegments(final StringBuilder buff,
-                                                final List<String> segments,
-                                                final boolean encode)
+    PackageUrl extend(@Nullable final String version,
+                      @Nullable final String[] qualifiers,
+                      @Nullable final String[] subpath)
     {
-        Iterator<String> iter = segments.iterator();
-        while (iter.hasNext()) {
-            String segment = iter.next();
-            if (encode) {
-                segment = encodeSegment(segment);
-            }
-            buff.append(segment);
-            if (iter.hasNext()) {
+        PackageUrl result = new PackageUrl(type, namespace(), name(), version, qualifiers, subpath);
+        try {
+            result.schemeString = result.renderTail(new StringBuilder(toString(RenderFlavor.SCHEME))).toString();
+        }
+        catch (IOException e) {
+            // StringBuilder does not throw
+            throw new AssertionError(e);
+        }
+        return result;
+    }
+
+    /**
+     * Render encoded segments to buffer.
+     */
+    private static void renderSegments(final Appendable buff, final String[] segments) throws IOException {
+        for (int i = 0; i < segments.length; i++) {
+            if (i != 0) {
                 buff.append('/');
             }
+            encodeSegment(buff, segments[i]);
+        }
+    }
+
+    /**
+     * Write components with codec.
+     */
+    void encode(final PackageUrlCodec codec, final DataOutput out) throws IOException {
+        codec.write(type, namespace(), name(), version(), qualifiers(), subpath(), out);
+    }
+
+    /**
+     * Append components to table.
+     *
+     * @return the row appended
+     */
+    int appendTo(final PackageUrlTable table) {
+        return table.add(type, namespace(), name(), version(), qualifiers(), subpath());
+    }
+
+    /**
+     * Serialize as the components written by {@link PackageUrlCodec}; rather than the fields.
+     */
+    private Object writeReplace() {
+        return new SerializationProxy(this);
+    }
+
+    private void readObject(final ObjectInputStream in) throws InvalidObjectException {
+        throw new InvalidObjectException("Serialization proxy required");
+    }
+
+    /**
+     * Serialized form of {@link PackageUrl}.
+     */
+    private static final class SerializationProxy
+            implements Serializable
+    {
+        private static final long serialVersionUID = 1L;
+
+        private transient PackageUrl purl;
+
+        SerializationProxy(final PackageUrl purl) {
+            this.purl = purl;
+        }
+
+        private void writeObject(final ObjectOutputStream out) throws IOException {
+            out.defaultWriteObject();
+            new PackageUrlCodec().write(purl, out);
+        }
+
+        private void readObject(final ObjectInputStream in) throws IOException, ClassNotFoundException {
+            in.defaultReadObject();
+            purl = new PackageUrlCodec().read(in);
+        }
+
+        private Object readResolve() {
+            return purl;
         }
-        return buff;
     }
 
     /**
@@ -275,6 +880,72 @@ public final class PackageUrl
         return new PackageUrlParser();
     }
 
+    /**
+     * Comparator of package-urls by their {@link #compareTo(PackageUrl) natural order}.
+     */
+    public static Comparator<PackageUrl> comparator() {
+        return Comparator.naturalOrder();
+    }
+
+    /**
+     * Comparator of package-urls by type, namespace and name, then by version in the
+     * {@link VersionScheme#of(String) versioning scheme of their type}, with no version first; and otherwise by their
+     * {@link #compareTo(PackageUrl) natural order}.
+     *
+     * Versions are parsed the first time they are compared, and the key kept by the package-url; so sorting parses each
+     * version once.
+     */
+    public static Comparator<PackageUrl> versionComparator() {
+        return (a, b) -> {
+            int result = a.compareVersion(b);
+            return result != 0 ? result : a.compareTo(b);
+        };
+    }
+
+    /**
+     * Compare by package, then by version in its versioning scheme; with no version first.  Versions are only parsed
+     * for package-urls of the same package.
+     */
+    private int compareVersion(final PackageUrl that) {
+        int result = comparePackage(that);
+        if (result != 0) {
+            return result;
+        }
+        boolean versioned = version() != null;
+        boolean thatVersioned = that.version() != null;
+        if (!versioned || !thatVersioned) {
+            return Boolean.compare(versioned, thatVersioned);
+        }
+        return VersionScheme.compare(versionKey(VersionScheme.of(type)), that.versionKey(VersionScheme.of(that.type)));
+    }
+
+    /**
+     * Given package-urls sorted by {@link #versionComparator()}; with only the first of each version of each package,
+     * so of versions equal in their versioning scheme, eg. Maven's {@code 1.0} and {@code 1.0.0}, or of package-urls
+     * differing only by qualifiers or subpath, one is kept.
+     *
+     * Each version is parsed once, up front; and compared by the first bytes of its key, unless those are equal.
+     *
+     * @return modifiable list
+     */
+    public static List<PackageUrl> sortedByVersion(final Collection<PackageUrl> purls) {
+        PackageUrl[] array = purls.toArray(new PackageUrl[0]);
+        VersionEntry[] entries = new VersionEntry[array.length];
+        for (int i = 0; i < array.length; i++) {
+            entries[i] = new VersionEntry(requireNonNull(array[i]));
+        }
+        Arrays.sort(entries);
+        List<PackageUrl> result = new ArrayList<>(entries.length);
+        VersionEntry last = null;
+        for (VersionEntry entry : entries) {
+            if (last == null || entry.compareVersion(last) != 0) {
+                result.add(entry.purl);
+                last = entry;
+            }
+        }
+        return result;
+    }
+
     /**
      * Helper to create a builder.
      */
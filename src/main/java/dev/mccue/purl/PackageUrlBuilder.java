@@ -1,12 +1,13 @@
 package dev.mccue.purl;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
-import java.util.SortedMap;
-import java.util.TreeMap;
+
+import org.jspecify.annotations.Nullable;
 
 import static java.util.Objects.requireNonNull;
 import static dev.mccue.purl.PackageUrlParser.parseNamespace;
@@ -135,6 +136,39 @@ public final class PackageUrlBuilder
         return subpath(parseSubpath(subpath));
     }
 
+    /**
+     * Clear all components, so the builder can be reused for another package-url.
+     *
+     * Whether {@link #typeSpecificTransformations(boolean) type specific transformations} are enabled is kept.
+     */
+    public PackageUrlBuilder reset() {
+        this.type = null;
+        this.namespace = null;
+        this.name = null;
+        this.version = null;
+        if (qualifiers != null) {
+            // always owned by the builder; so keep it for the next package-url
+            qualifiers.clear();
+        }
+        this.subpath = null;
+        return this;
+    }
+
+    /**
+     * Build a template for package-urls with the type, namespace and name of this builder.
+     *
+     * They are validated, transformed and encoded once; so building from the template only handles the version,
+     * qualifiers and subpath.
+     */
+    public PackageUrlTemplate template() {
+        return new PackageUrlTemplate(new PackageUrlBuilder()
+                .typeSpecificTransformations(typeSpecificTransformations)
+                .type(type)
+                .namespace(namespace)
+                .name(name)
+                .build());
+    }
+
     /**
      * Build {@link PackageUrl}.
      *
@@ -152,6 +186,14 @@ public final class PackageUrlBuilder
      * @since 1.0.1
      */
     PackageUrl buildAndValidate(final boolean validate) {
+        return buildAndValidate(validate, null);
+    }
+
+    /**
+     * Build and optionally validate; sharing the namespace and name of recently parsed package-urls of the same
+     * package, if given.
+     */
+    PackageUrl buildAndValidate(final boolean validate, @Nullable final RecentPackages packages) {
         if (validate) {
             validateType(type);
             validateNamespace(namespace);
@@ -165,39 +207,85 @@ public final class PackageUrlBuilder
         // FIXME: various type-specific transformation required by specification; very problematic
         // FIXME: https://github.com/package-url/purl-spec/issues/38
 
-        List<String> correctedNamespace = namespace;
+        String[] correctedNamespace = namespace != null ? namespace.toArray(new String[0]) : null;
         String correctedName = name;
         if (typeSpecificTransformations) {
-            switch (type) {
-                case "github":
-                case "bitbucket":
-                    correctedNamespace = MoreStrings.lowerCase(namespace);
-                    correctedName = MoreStrings.lowerCase(name);
-                    break;
-
-                case "pypi":
-                    correctedName = name.replace('_', '-');
-                    correctedName = MoreStrings.lowerCase(correctedName);
-                    break;
-            }
+            transformNamespace(type, correctedNamespace);
+            correctedName = transformName(type, name);
+        }
+        if (packages != null) {
+            RecentPackages.Entry shared = packages.share(correctedNamespace, correctedName);
+            correctedNamespace = shared.namespace;
+            correctedName = shared.name;
         }
 
-        SortedMap<String, String> correctedQualifiers = null;
-        if (qualifiers != null) {
-            correctedQualifiers = new TreeMap<>();
-            for (Entry<String, String> entry : qualifiers.entrySet()) {
-                String key = MoreStrings.lowerCase(entry.getKey());
-                String value = entry.getValue();
-                if (MoreStrings.isBlank(value)) {
-                    continue;
+        return new PackageUrl(type, correctedNamespace, correctedName, version, sortQualifiers(qualifiers),
+                subpath != null ? subpath.toArray(new String[0]) : null);
+    }
+
+    /**
+     * Make the type specific changes to given namespace segments; in place.
+     */
+    static void transformNamespace(final String type, @Nullable final String[] namespace) {
+        switch (type) {
+            case "github":
+            case "bitbucket":
+                if (namespace != null) {
+                    for (int i = 0; i < namespace.length; i++) {
+                        namespace[i] = MoreStrings.lowerCase(namespace[i]);
+                    }
                 }
-                correctedQualifiers.put(key, value);
+                break;
+        }
+    }
+
+    /**
+     * Make the type specific changes to given name.
+     */
+    static String transformName(final String type, final String name) {
+        switch (type) {
+            case "github":
+            case "bitbucket":
+                return MoreStrings.lowerCase(name);
+
+            case "pypi":
+                return MoreStrings.lowerCase(name.replace('_', '-'));
+
+            default:
+                return name;
+        }
+    }
+
+    /**
+     * Qualifiers as alternating keys and values sorted by key; with keys lower-cased and blank values dropped, or
+     * {@code null} if none are left.
+     */
+    @Nullable
+    static String[] sortQualifiers(@Nullable final Map<String, String> qualifiers) {
+        if (qualifiers == null || qualifiers.isEmpty()) {
+            return null;
+        }
+
+        String[] result = new String[qualifiers.size() * 2];
+        int size = 0;
+        for (Entry<String, String> entry : qualifiers.entrySet()) {
+            String value = entry.getValue();
+            if (MoreStrings.isBlank(value)) {
+                continue;
             }
-            if (correctedQualifiers.isEmpty()) {
-                correctedQualifiers = null;
+            String key = MoreStrings.lowerCase(entry.getKey());
+            int index = QualifierMap.indexOf(result, 0, size, key);
+            if (index < 0) {
+                index = -(index + 1);
+                System.arraycopy(result, index * 2, result, index * 2 + 2, (size - index) * 2);
+                result[index * 2] = key;
+                size++;
             }
+            result[index * 2 + 1] = value;
         }
-
-        return new PackageUrl(type, correctedNamespace, correctedName, version, correctedQualifiers, subpath);
+        if (size == 0) {
+            return null;
+        }
+        return size * 2 == result.length ? result : Arrays.copyOf(result, size * 2);
     }
 }
\ No newline at end of file
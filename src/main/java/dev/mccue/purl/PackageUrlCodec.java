@@ -0,0 +1,258 @@
+package dev.mccue.purl;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.io.StreamCorruptedException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.jspecify.annotations.Nullable;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Compact binary encoding of {@link PackageUrl}s; as used by {@link java.io.Serializable serialization}.
+ *
+ * Each package-url is written as a byte of flags for the optional components, followed by each present component:
+ * strings as their {@code UTF-8} length and bytes, and lists of segments or qualifiers as their size and strings;
+ * lengths and sizes are written as variable-length integers, 7 bits to a byte.
+ *
+ * If created with a dictionary size then repeated types, namespace segments and qualifier keys are written as references
+ * to the first time they were written; which requires package-urls to be read by a codec with the same dictionary size,
+ * in the order they were written.  The dictionaries of written and read package-urls are separate, so one codec can be
+ * used for both directions of a connection; but is not safe for use by concurrent threads.
+ *
+ * Package-urls read are trusted to be package-urls that were written; only checked to be well-formed.
+ */
+public final class PackageUrlCodec
+{
+    private static final int NAMESPACE = 1;
+
+    private static final int VERSION = 1 << 1;
+
+    private static final int QUALIFIERS = 1 << 2;
+
+    private static final int SUBPATH = 1 << 3;
+
+    private final int dictionarySize;
+
+    /**
+     * Codes of strings written; reference {@code n} is written as {@code n + 1}, and a literal as {@code 0}.
+     */
+    @Nullable
+    private final Map<String, Integer> written;
+
+    @Nullable
+    private final List<String> read;
+
+    /**
+     * Create codec without a dictionary.
+     */
+    public PackageUrlCodec() {
+        this(0);
+    }
+
+    /**
+     * Create codec remembering up to given number of types, namespace segments and qualifier keys in each direction.
+     */
+    public PackageUrlCodec(final int dictionarySize) {
+        if (dictionarySize < 0) {
+            throw new IllegalArgumentException("Invalid dictionary size: " + dictionarySize);
+        }
+        this.dictionarySize = dictionarySize;
+        this.written = dictionarySize > 0 ? new HashMap<>() : null;
+        this.read = dictionarySize > 0 ? new ArrayList<>() : null;
+    }
+
+    /**
+     * Write package-url to given output.
+     */
+    public void write(final PackageUrl purl, final DataOutput out) throws IOException {
+        requireNonNull(purl);
+        requireNonNull(out);
+        purl.encode(this, out);
+    }
+
+    /**
+     * Read package-url from given input.
+     *
+     * @throws java.io.StreamCorruptedException if the input is not a written package-url
+     */
+    public PackageUrl read(final DataInput in) throws IOException {
+        requireNonNull(in);
+
+        int flags = in.readUnsignedByte();
+        if ((flags & ~(NAMESPACE | VERSION | QUALIFIERS | SUBPATH)) != 0) {
+            throw new StreamCorruptedException("Invalid flags: " + flags);
+        }
+        String type = readDictionaryString(in);
+        String[] namespace = null;
+        if ((flags & NAMESPACE) != 0) {
+            int size = readLength(in);
+            List<String> segments = new ArrayList<>(Math.min(size, 16));
+            for (int i = 0; i < size; i++) {
+                segments.add(readDictionaryString(in));
+            }
+            namespace = segments.toArray(new String[0]);
+        }
+        String name = readString(in);
+        String version = (flags & VERSION) != 0 ? readString(in) : null;
+        String[] qualifiers = (flags & QUALIFIERS) != 0 ? readQualifiers(in) : null;
+        String[] subpath = (flags & SUBPATH) != 0 ? readStrings(in, readLength(in)) : null;
+        return new PackageUrl(type, namespace, name, version, qualifiers, subpath);
+    }
+
+    /**
+     * Write components of package-url.
+     */
+    void write(final String type,
+               @Nullable final String[] namespace,
+               final String name,
+               @Nullable final String version,
+               @Nullable final String[] qualifiers,
+               @Nullable final String[] subpath,
+               final DataOutput out)
+            throws IOException
+    {
+        out.writeByte((namespace != null ? NAMESPACE : 0) |
+                      (version != null ? VERSION : 0) |
+                      (qualifiers != null ? QUALIFIERS : 0) |
+                      (subpath != null ? SUBPATH : 0));
+        writeDictionaryString(type, out);
+        if (namespace != null) {
+            writeLength(namespace.length, out);
+            for (String segment : namespace) {
+                writeDictionaryString(segment, out);
+            }
+        }
+        writeString(name, out);
+        if (version != null) {
+            writeString(version, out);
+        }
+        if (qualifiers != null) {
+            writeLength(qualifiers.length / 2, out);
+            for (int i = 0; i < qualifiers.length; i += 2) {
+                writeDictionaryString(qualifiers[i], out);
+                writeString(qualifiers[i + 1], out);
+            }
+        }
+        if (subpath != null) {
+            writeLength(subpath.length, out);
+            for (String segment : subpath) {
+                writeString(segment, out);
+            }
+        }
+    }
+
+    private void writeDictionaryString(final String value, final DataOutput out) throws IOException {
+        if (written == null) {
+            writeString(value, out);
+            return;
+        }
+        Integer code = written.get(value);
+        if (code != null) {
+            writeLength(code, out);
+            return;
+        }
+        out.writeByte(0);
+        writeString(value, out);
+        if (written.size() < dictionarySize) {
+            written.put(value, written.size() + 1);
+        }
+    }
+
+    private String readDictionaryString(final DataInput in) throws IOException {
+        if (read == null) {
+            return readString(in);
+        }
+        int code = readLength(in);
+        if (code == 0) {
+            String value = readString(in);
+            if (read.size() < dictionarySize) {
+                read.add(value);
+            }
+            return value;
+        }
+        if (code > read.size()) {
+            throw new StreamCorruptedException("Invalid dictionary reference: " + code);
+        }
+        return read.get(code - 1);
+    }
+
+    private static void writeString(final String value, final DataOutput out) throws IOException {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        writeLength(bytes.length, out);
+        out.write(bytes);
+    }
+
+    private static String readString(final DataInput in) throws IOException {
+        int length = readLength(in);
+        // grown as read; so a corrupt length fails on reaching the end of input rather than allocating it up front
+        byte[] bytes = new byte[Math.min(length, 8192)];
+        in.readFully(bytes);
+        while (bytes.length < length) {
+            int read = bytes.length;
+            bytes = Arrays.copyOf(bytes, (int) Math.min(length, read * 2L));
+            in.readFully(bytes, read, bytes.length - read);
+        }
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static String[] readStrings(final DataInput in, final int size) throws IOException {
+        List<String> result = new ArrayList<>(Math.min(size, 16));
+        for (int i = 0; i < size; i++) {
+            result.add(readString(in));
+        }
+        return result.toArray(new String[0]);
+    }
+
+    private String[] readQualifiers(final DataInput in) throws IOException {
+        int size = readLength(in);
+        if (size == 0 || size > Integer.MAX_VALUE / 2) {
+            throw new StreamCorruptedException("Invalid qualifiers size: " + size);
+        }
+        List<String> entries = new ArrayList<>(Math.min(size * 2, 16));
+        for (int i = 0; i < size; i++) {
+            entries.add(readDictionaryString(in));
+            entries.add(readString(in));
+        }
+        String[] result = entries.toArray(new String[0]);
+        for (int i = 2; i < result.length; i += 2) {
+            if (result[i - 2].compareTo(result[i]) >= 0) {
+                throw new StreamCorruptedException("Qualifiers not sorted: " + result[i - 2] + ", " + result[i]);
+            }
+        }
+        return result;
+    }
+
+    private static void writeLength(final int value, final DataOutput out) throws IOException {
+        int remaining = value;
+        while ((remaining & ~0x7F) != 0) {
+            out.writeByte((remaining & 0x7F) | 0x80);
+            remaining >>>= 7;
+        }
+        out.writeByte(remaining);
+    }
+
+    private static int readLength(final DataInput in) throws IOException {
+        int result = 0;
+        for (int shift = 0; shift < 28; shift += 7) {
+            int b = in.readUnsignedByte();
+            result |= (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return result;
+            }
+        }
+        // the last byte holds the top 3 bits of a non-negative int
+        int b = in.readUnsignedByte();
+        if (b > 0x07) {
+            throw new StreamCorruptedException("Invalid length");
+        }
+        return result | b << 28;
+    }
+}
@@ -0,0 +1,757 @@
+package dev.mccue.purl;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.StreamCorruptedException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import org.jspecify.annotations.Nullable;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Sorted set of package-urls in a file; {@link #write(Path, Stream) written} once, and {@link #open(Path) opened} by
+ * mapping the file into memory rather than reading it.
+ *
+ * Package-urls are held as their {@link PackageUrl#toString() canonical form}, sorted by its {@code UTF-8} bytes, in
+ * blocks of {@value #BLOCK_SIZE}: the first in full, and each other as the length of the prefix it shares with the one
+ * before and the rest of its bytes.  An index of the offsets of the blocks follows them; so lookups binary search the
+ * first package-url of each block, then scan one block.
+ *
+ * Opening only maps the file, so takes about as long however large it is; pages are read as queries touch them, and
+ * shared by processes which open the same file through the page cache.  The mapping lasts until the dictionary is
+ * garbage collected.  Safe for use by concurrent threads.
+ *
+ * Files are trusted to have been written by {@link #write(Path, Stream)}; only their header is checked.
+ */
+public final class PackageUrlDictionary
+{
+    private static final int MAGIC = 0x7075726C;
+
+    private static final int FORMAT = 1;
+
+    /**
+     * Magic, format, block size, segment shift, size and block count.
+     */
+    private static final int HEADER_SIZE = 4 + 4 + 4 + 4 + 8 + 4;
+
+    /**
+     * Offset of the index; the last bytes of the file.
+     */
+    private static final int TRAILER_SIZE = 8;
+
+    private static final int BLOCK_SIZE = 32;
+
+    /**
+     * Log of the size of the segments the file is mapped in; blocks are padded so none crosses a segment.
+     */
+    private static final int SEGMENT_SHIFT = 30;
+
+    /**
+     * Bytes of canonical forms sorted in memory at a time when writing.
+     */
+    private static final long RUN_SIZE = 64 << 20;
+
+    private final long size;
+
+    private final int blockSize;
+
+    private final int blockCount;
+
+    private final int segmentShift;
+
+    private final ByteBuffer[] segments;
+
+    /**
+     * Offset of each block.
+     */
+    private final ByteBuffer index;
+
+    private PackageUrlDictionary(final long size,
+                                 final int blockSize,
+                                 final int blockCount,
+                                 final int segmentShift,
+                                 final ByteBuffer[] segments,
+                                 final ByteBuffer index)
+    {
+        this.size = size;
+        this.blockSize = blockSize;
+        this.blockCount = blockCount;
+        this.segmentShift = segmentShift;
+        this.segments = segments;
+        this.index = index;
+    }
+
+    /**
+     * Write dictionary of given package-urls to given file; replacing it if it exists.
+     *
+     * Canonical forms are sorted in runs of about 64 MiB; if there is more than one, each is written to a temporary file
+     * beside the dictionary, and they are merged as the dictionary is written.  So memory use does not grow with the
+     * number of package-urls, other than by the offsets of the blocks; but the temporary files take about as much disk
+     * space as the canonical forms.  Duplicates are written once.
+     */
+    public static void write(final Path path, final Stream<PackageUrl> purls) throws IOException {
+        write(path, purls, SEGMENT_SHIFT, RUN_SIZE);
+    }
+
+    static void write(final Path path, final Stream<PackageUrl> purls, final int segmentShift, final long runSize)
+            throws IOException
+    {
+        requireNonNull(path);
+        List<Path> runs = new ArrayList<>();
+        try {
+            List<byte[]> run = new ArrayList<>();
+            long runBytes = 0;
+            Iterator<PackageUrl> iterator = purls.iterator();
+            while (iterator.hasNext()) {
+                byte[] value = iterator.next().toString().getBytes(StandardCharsets.UTF_8);
+                run.add(value);
+                runBytes += value.length;
+                if (runBytes >= runSize) {
+                    runs.add(spill(path, sort(run)));
+                    run.clear();
+                    runBytes = 0;
+                }
+            }
+            if (runs.isEmpty()) {
+                // all fit in memory
+                try (Writer writer = new Writer(path, segmentShift)) {
+                    for (byte[] value : sort(run)) {
+                        writer.add(value);
+                    }
+                    writer.finish();
+                }
+                return;
+            }
+            if (!run.isEmpty()) {
+                runs.add(spill(path, sort(run)));
+                run.clear();
+            }
+            merge(path, runs, segmentShift);
+        }
+        finally {
+            for (Path run : runs) {
+                Files.deleteIfExists(run);
+            }
+        }
+    }
+
+    /**
+     * Write dictionary of given package-urls to given file, replacing it if it exists; without sorting them, as they
+     * are already in the order of the {@code UTF-8} bytes of their canonical forms, as {@link #stream()} returns them.
+     *
+     * Duplicates are written once.
+     *
+     * @throws IllegalArgumentException if the package-urls are not in order
+     */
+    public static void writeSorted(final Path path, final Stream<PackageUrl> purls) throws IOException {
+        writeSorted(path, purls, SEGMENT_SHIFT);
+    }
+
+    static void writeSorted(final Path path, final Stream<PackageUrl> purls, final int segmentShift)
+            throws IOException
+    {
+        requireNonNull(path);
+        try (Writer writer = new Writer(path, segmentShift)) {
+            Iterator<PackageUrl> iterator = purls.iterator();
+            while (iterator.hasNext()) {
+                writer.add(iterator.next().toString().getBytes(StandardCharsets.UTF_8));
+            }
+            writer.finish();
+        }
+    }
+
+    /**
+     * Given values sorted, without duplicates.
+     */
+    private static byte[][] sort(final List<byte[]> run) {
+        byte[][] values = run.toArray(new byte[0][]);
+        Arrays.parallelSort(values, Arrays::compareUnsigned);
+        int count = 0;
+        for (int i = 0; i < values.length; i++) {
+            if (count == 0 || !Arrays.equals(values[count - 1], values[i])) {
+                values[count++] = values[i];
+            }
+        }
+        return Arrays.copyOf(values, count);
+    }
+
+    /**
+     * Write sorted run of values to a new temporary file beside the dictionary; as their count, then the length and
+     * bytes of each.
+     */
+    private static Path spill(final Path path, final byte[][] values) throws IOException {
+        Path parent = path.toAbsolutePath().getParent();
+        Path run = Files.createTempFile(parent, path.getFileName() + ".", ".run");
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(run), 65536))) {
+            out.writeInt(values.length);
+            for (byte[] value : values) {
+                out.writeInt(value.length);
+                out.write(value);
+            }
+        }
+        return run;
+    }
+
+    /**
+     * Write dictionary of the values of given sorted runs; merging them.
+     */
+    private static void merge(final Path path, final List<Path> runs, final int segmentShift) throws IOException {
+        PriorityQueue<Run> queue = new PriorityQueue<>(runs.size(), (a, b) -> Arrays.compareUnsigned(a.value, b.value));
+        List<Run> open = new ArrayList<>(runs.size());
+        try (Writer writer = new Writer(path, segmentShift)) {
+            try {
+                for (Path file : runs) {
+                    Run run = new Run(file);
+                    open.add(run);
+                    if (run.next()) {
+                        queue.add(run);
+                    }
+                }
+                while (!queue.isEmpty()) {
+                    Run run = queue.poll();
+                    writer.add(run.value);
+                    if (run.next()) {
+                        queue.add(run);
+                    }
+                }
+            }
+            finally {
+                for (Run run : open) {
+                    run.close();
+                }
+            }
+            writer.finish();
+        }
+    }
+
+    /**
+     * Open dictionary written to given file.
+     *
+     * @throws StreamCorruptedException if the file is not a dictionary
+     */
+    public static PackageUrlDictionary open(final Path path) throws IOException {
+        try (FileChannel file = FileChannel.open(path, StandardOpenOption.READ)) {
+            long length = file.size();
+            if (length < HEADER_SIZE + TRAILER_SIZE) {
+                throw new StreamCorruptedException("Invalid dictionary: " + path);
+            }
+            ByteBuffer header = file.map(FileChannel.MapMode.READ_ONLY, 0, HEADER_SIZE);
+            if (header.getInt() != MAGIC || header.getInt() != FORMAT) {
+                throw new StreamCorruptedException("Invalid dictionary: " + path);
+            }
+            int blockSize = header.getInt();
+            int segmentShift = header.getInt();
+            long size = header.getLong();
+            int blockCount = header.getInt();
+            long indexOffset = file.map(FileChannel.MapMode.READ_ONLY, length - TRAILER_SIZE, TRAILER_SIZE).getLong();
+            if (blockSize <= 0 || segmentShift <= 0 || segmentShift > 30 || size < 0 || blockCount < 0 ||
+                    blockCount > Integer.MAX_VALUE / 8 || indexOffset + blockCount * 8L + TRAILER_SIZE != length)
+            {
+                throw new StreamCorruptedException("Invalid dictionary: " + path);
+            }
+
+            long segmentSize = 1L << segmentShift;
+            ByteBuffer[] segments = new ByteBuffer[(int) ((indexOffset + segmentSize - 1) >>> segmentShift)];
+            for (int i = 0; i < segments.length; i++) {
+                long offset = (long) i << segmentShift;
+                segments[i] = file.map(FileChannel.MapMode.READ_ONLY, offset, Math.min(segmentSize, indexOffset - offset));
+            }
+            ByteBuffer index = file.map(FileChannel.MapMode.READ_ONLY, indexOffset, blockCount * 8L);
+            return new PackageUrlDictionary(size, blockSize, blockCount, segmentShift, segments, index);
+        }
+    }
+
+    /**
+     * Number of package-urls.
+     */
+    public long size() {
+        return size;
+    }
+
+    /**
+     * Whether the dictionary has a package-url equal to given package-url.
+     */
+    public boolean contains(final PackageUrl purl) {
+        return contains(purl.toString());
+    }
+
+    /**
+     * Whether the dictionary has a package-url with given canonical form.
+     */
+    public boolean contains(final String value) {
+        byte[] key = value.getBytes(StandardCharsets.UTF_8);
+        if (blockCount == 0) {
+            return false;
+        }
+        Cursor cursor = new Cursor(block(key));
+        while (cursor.next()) {
+            int cmp = cursor.compareTo(key);
+            if (cmp >= 0) {
+                return cmp == 0;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Canonical forms of package-urls with given type, namespace and name; whatever their version, qualifiers and
+     * subpath.
+     *
+     * @return ordered stream, read from the file as consumed
+     */
+    public Stream<String> find(final String type, @Nullable final List<String> namespace, final String name) {
+        String prefix = prefix(type, namespace) + PercentEncoding.encodeName(
+                PackageUrlBuilder.transformName(MoreStrings.lowerCase(type), requireNonNull(name)));
+        int length = prefix.length();
+        // the prefix is followed by a version, qualifiers or subpath; not by more of a longer name
+        return startingWith(prefix).filter(value -> value.length() == length ||
+                                                    value.charAt(length) == '@' ||
+                                                    value.charAt(length) == '?' ||
+                                                    value.charAt(length) == '#');
+    }
+
+    /**
+     * Canonical forms of package-urls with given type, under given namespace prefix.
+     *
+     * @return ordered stream, read from the file as consumed
+     */
+    public Stream<String> stream(final String type, @Nullable final List<String> prefix) {
+        return startingWith(prefix(type, prefix));
+    }
+
+    /**
+     * Canonical forms starting with given value; eg. {@code pkg:maven/org.apache.}.
+     *
+     * @return ordered stream, read from the file as consumed
+     */
+    public Stream<String> startingWith(final String prefix) {
+        byte[] key = prefix.getBytes(StandardCharsets.UTF_8);
+        return stream(key, null, key);
+    }
+
+    /**
+     * Canonical forms from given value, inclusive, to given value, exclusive; as ordered by their {@code UTF-8} bytes.
+     *
+     * @return ordered stream, read from the file as consumed
+     */
+    public Stream<String> range(final String from, final String to) {
+        return stream(from.getBytes(StandardCharsets.UTF_8), to.getBytes(StandardCharsets.UTF_8), null);
+    }
+
+    /**
+     * Every canonical form; in order.
+     */
+    public Stream<String> stream() {
+        return stream(null, null, null);
+    }
+
+    /**
+     * Rendering of type and namespace; as the start of the canonical forms of package-urls with them.
+     */
+    private static String prefix(final String type, @Nullable final List<String> namespace) {
+        String lowerCaseType = MoreStrings.lowerCase(requireNonNull(type));
+        StringBuilder buff = new StringBuilder().append(PackageUrl.SCHEME).append(':').append(lowerCaseType).append('/');
+        if (namespace != null) {
+            String[] segments = namespace.toArray(new String[0]);
+            PackageUrlBuilder.transformNamespace(lowerCaseType, segments);
+            for (String segment : segments) {
+                buff.append(PercentEncoding.encodeSegment(segment)).append('/');
+            }
+        }
+        return buff.toString();
+    }
+
+    /**
+     * Stream of canonical forms from given key, inclusive, until one is not less than given key, or does not start with
+     * given prefix.
+     */
+    private Stream<String> stream(@Nullable final byte[] from, @Nullable final byte[] to, @Nullable final byte[] prefix) {
+        if (blockCount == 0) {
+            return Stream.empty();
+        }
+        Cursor cursor = new Cursor(from != null ? block(from) : 0);
+        Spliterator<String> entries = new Spliterators.AbstractSpliterator<>(
+                Long.MAX_VALUE, Spliterator.ORDERED | Spliterator.DISTINCT | Spliterator.NONNULL)
+        {
+            private boolean started;
+
+            private boolean done;
+
+            @Override
+            public boolean tryAdvance(final Consumer<? super String> action) {
+                if (done || !cursor.next()) {
+                    done = true;
+                    return false;
+                }
+                if (!started && from != null) {
+                    while (cursor.compareTo(from) < 0) {
+                        if (!cursor.next()) {
+                            done = true;
+                            return false;
+                        }
+                    }
+                }
+                started = true;
+                if (to != null && cursor.compareTo(to) >= 0 || prefix != null && !cursor.startsWith(prefix)) {
+                    done = true;
+                    return false;
+                }
+                action.accept(cursor.value());
+                return true;
+            }
+        };
+        return StreamSupport.stream(entries, false);
+    }
+
+    /**
+     * Last block whose first canonical form is not greater than given key; or the first block if there is none.
+     */
+    private int block(final byte[] key) {
+        Cursor cursor = new Cursor(0);
+        int low = 0;
+        int high = blockCount - 1;
+        while (low < high) {
+            int middle = (low + high + 1) >>> 1;
+            cursor.seek(middle);
+            cursor.next();
+            if (cursor.compareTo(key) <= 0) {
+                low = middle;
+            }
+            else {
+                high = middle - 1;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Position in the blocks; with the canonical form it is at.
+     */
+    private final class Cursor
+    {
+        private int block;
+
+        /**
+         * Number of canonical forms of the block read.
+         */
+        private int entry;
+
+        private ByteBuffer segment;
+
+        /**
+         * Offset in the segment of the next canonical form.
+         */
+        private int offset;
+
+        private byte[] value = new byte[128];
+
+        private int length;
+
+        Cursor(final int block) {
+            seek(block);
+        }
+
+        void seek(final int block) {
+            long position = index.getLong(block * 8);
+            this.block = block;
+            this.entry = 0;
+            this.segment = segments[(int) (position >>> segmentShift)];
+            this.offset = (int) (position & ((1L << segmentShift) - 1));
+        }
+
+        /**
+         * Move to the next canonical form.
+         *
+         * @return whether there is one
+         */
+        boolean next() {
+            if (entry == Math.min(blockSize, size - (long) block * blockSize)) {
+                if (block + 1 == blockCount) {
+                    return false;
+                }
+                seek(block + 1);
+            }
+            int shared = entry == 0 ? 0 : readLength();
+            int suffix = readLength();
+            if (value.length < shared + suffix) {
+                value = Arrays.copyOf(value, Math.max(shared + suffix, value.length * 2));
+            }
+            segment.get(offset, value, shared, suffix);
+            offset += suffix;
+            length = shared + suffix;
+            entry++;
+            return true;
+        }
+
+        private int readLength() {
+            int result = 0;
+            for (int shift = 0; ; shift += 7) {
+                int b = segment.get(offset++);
+                result |= (b & 0x7F) << shift;
+                if ((b & 0x80) == 0) {
+                    return result;
+                }
+            }
+        }
+
+        int compareTo(final byte[] key) {
+            return Arrays.compareUnsigned(value, 0, length, key, 0, key.length);
+        }
+
+        boolean startsWith(final byte[] prefix) {
+            return length >= prefix.length && Arrays.equals(value, 0, prefix.length, prefix, 0, prefix.length);
+        }
+
+        String value() {
+            return new String(value, 0, length, StandardCharsets.UTF_8);
+        }
+    }
+
+    /**
+     * Writer of a dictionary file; of values added in order, which are written in blocks as each fills.
+     *
+     * The header is written last, once the number of values is known.
+     */
+    private static final class Writer
+            implements Closeable
+    {
+        private final FileChannel file;
+
+        private final DataOutputStream out;
+
+        private final int segmentShift;
+
+        private final long segmentSize;
+
+        private final Block block = new Block();
+
+        /**
+         * Value last added; {@code null} if none.
+         */
+        @Nullable
+        private byte[] previous;
+
+        private long count;
+
+        /**
+         * Number of values in the current block.
+         */
+        private int entries;
+
+        private int blockCount;
+
+        /**
+         * Offset of each block written.
+         */
+        private long[] offsets = new long[1024];
+
+        private long position = HEADER_SIZE;
+
+        Writer(final Path path, final int segmentShift) throws IOException {
+            this.file = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                    StandardOpenOption.WRITE);
+            this.out = new DataOutputStream(new BufferedOutputStream(Channels.newOutputStream(file), 65536));
+            this.segmentShift = segmentShift;
+            this.segmentSize = 1L << segmentShift;
+            out.write(new byte[HEADER_SIZE]);
+        }
+
+        /**
+         * Add value; ignored if equal to the previous one.
+         *
+         * @throws IllegalArgumentException if less than the previous one
+         */
+        void add(final byte[] value) throws IOException {
+            int shared = 0;
+            if (previous != null) {
+                int cmp = Arrays.compareUnsigned(previous, value);
+                if (cmp == 0) {
+                    return;
+                }
+                if (cmp > 0) {
+                    throw new IllegalArgumentException("Package-urls not in order: " +
+                            new String(value, StandardCharsets.UTF_8) + " after " +
+                            new String(previous, StandardCharsets.UTF_8));
+                }
+                shared = Arrays.mismatch(previous, value);
+            }
+            if (entries == BLOCK_SIZE) {
+                writeBlock();
+            }
+            if (entries == 0) {
+                block.writeLength(value.length);
+                block.write(value, 0, value.length);
+            }
+            else {
+                block.writeLength(shared);
+                block.writeLength(value.length - shared);
+                block.write(value, shared, value.length - shared);
+            }
+            previous = value;
+            entries++;
+            count++;
+        }
+
+        private void writeBlock() throws IOException {
+            if (entries == 0) {
+                return;
+            }
+            if (block.size() > segmentSize) {
+                throw new IllegalArgumentException("Package-urls too long for a block: " + block.size());
+            }
+            if (blockCount == Integer.MAX_VALUE / 8) {
+                throw new IllegalArgumentException("Too many package-urls: " + count);
+            }
+            long used = position & (segmentSize - 1);
+            if (used + block.size() > segmentSize) {
+                for (long i = used; i < segmentSize; i++) {
+                    out.write(0);
+                }
+                position += segmentSize - used;
+            }
+            if (blockCount == offsets.length) {
+                offsets = Arrays.copyOf(offsets, blockCount * 2);
+            }
+            offsets[blockCount++] = position;
+            out.write(block.bytes(), 0, block.size());
+            position += block.size();
+            block.reset();
+            entries = 0;
+        }
+
+        /**
+         * Write the last block, the index and the header.
+         */
+        void finish() throws IOException {
+            writeBlock();
+            for (int i = 0; i < blockCount; i++) {
+                out.writeLong(offsets[i]);
+            }
+            out.writeLong(position);
+            out.flush();
+
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+            header.putInt(MAGIC);
+            header.putInt(FORMAT);
+            header.putInt(BLOCK_SIZE);
+            header.putInt(segmentShift);
+            header.putLong(count);
+            header.putInt(blockCount);
+            header.flip();
+            long offset = 0;
+            while (header.hasRemaining()) {
+                offset += file.write(header, offset);
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            out.close();
+        }
+    }
+
+    /**
+     * Reader of a run {@link #spill(Path, byte[][]) spilled} to a temporary file; with the value it is at.
+     */
+    private static final class Run
+            implements Closeable
+    {
+        private final DataInputStream in;
+
+        private int remaining;
+
+        private byte[] value = new byte[0];
+
+        Run(final Path path) throws IOException {
+            this.in = new DataInputStream(new BufferedInputStream(Files.newInputStream(path), 65536));
+            this.remaining = in.readInt();
+        }
+
+        /**
+         * Move to the next value.
+         *
+         * @return whether there is one
+         */
+        boolean next() throws IOException {
+            if (remaining == 0) {
+                return false;
+            }
+            value = new byte[in.readInt()];
+            in.readFully(value);
+            remaining--;
+            return true;
+        }
+
+        @Override
+        public void close() throws IOException {
+            in.close();
+        }
+    }
+
+    /**
+     * Growable buffer of the encoding of one block.
+     */
+    private static final class Block
+    {
+        private byte[] bytes = new byte[4096];
+
+        private int size;
+
+        void reset() {
+            size = 0;
+        }
+
+        void writeLength(final int value) {
+            int remaining = value;
+            while ((remaining & ~0x7F) != 0) {
+                write((remaining & 0x7F) | 0x80);
+                remaining >>>= 7;
+            }
+            write(remaining);
+        }
+
+        private void write(final int value) {
+            if (size == bytes.length) {
+                bytes = Arrays.copyOf(bytes, size * 2);
+            }
+            bytes[size++] = (byte) value;
+        }
+
+        void write(final byte[] value, final int offset, final int length) {
+            if (bytes.length - size < length) {
+                bytes = Arrays.copyOf(bytes, Math.max(size + length, bytes.length * 2));
+            }
+            System.arraycopy(value, offset, bytes, size, length);
+            size += length;
+        }
+
+        byte[] bytes() {
+            return bytes;
+        }
+
+        int size() {
+            return size;
+        }
+    }
+}
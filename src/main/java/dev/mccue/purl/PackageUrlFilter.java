@@ -0,0 +1,269 @@
+package dev.mccue.purl;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.io.StreamCorruptedException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Collection;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Probabilistic set of package-urls; which never misses a package-url it was created from, but may report others as
+ * contained, at about the false positive rate it was created for.
+ *
+ * A split block Bloom filter, as used by Parquet: each package-url sets one bit in each of the eight 32-bit words of one
+ * 256-bit block, chosen by a 64-bit hash of its {@link PackageUrl#toString() canonical form}; so a lookup reads one
+ * block.  A {@link #versionless(Collection, double) versionless} filter hashes the canonical form only as far as the
+ * name; so checks whether some version of the package might be contained.
+ *
+ * Strings are checked without parsing them if they are already in canonical form, which checking them needs only a
+ * scan of; otherwise they are parsed.  Strings which are not package-urls are never contained, unless they are only
+ * invalid in ways a {@link PackageUrlParser#lazy(boolean) lazy} parse does not check.
+ *
+ * Immutable, so safe for use by concurrent threads.
+ */
+public final class PackageUrlFilter
+{
+    private static final int MAGIC = 0x70666C74;
+
+    private static final int FORMAT = 1;
+
+    private static final int[] SALTS = {
+            0x47B6137B, 0x44974D91, 0x8824AD5B, 0xA2B7289D, 0x705495C7, 0x2DF1424B, 0x9EFC4947, 0x5C6BFB31,
+    };
+
+    private static final int BLOCK_WORDS = SALTS.length;
+
+    private static final PackageUrlParser PARSER = new PackageUrlParser();
+
+    private static final long PRIME_1 = 0x9E3779B185EBCA87L;
+
+    private static final long PRIME_2 = 0xC2B2AE3D27D4EB4FL;
+
+    private static final long PRIME_3 = 0x165667B19E3779F9L;
+
+    private static final long PRIME_4 = 0x85EBCA77C2B2AE63L;
+
+    private static final long PRIME_5 = 0x27D4EB2F165667C5L;
+
+    private final boolean versionless;
+
+    /**
+     * Blocks of {@value #BLOCK_WORDS} words.
+     */
+    private final int[] words;
+
+    private PackageUrlFilter(final boolean versionless, final int[] words) {
+        this.versionless = versionless;
+        this.words = words;
+    }
+
+    /**
+     * Create filter of given package-urls.
+     *
+     * @param falsePositiveRate rate of other package-urls reported as contained; eg. {@code 0.01}
+     */
+    public static PackageUrlFilter of(final Collection<PackageUrl> purls, final double falsePositiveRate) {
+        return create(purls, falsePositiveRate, false);
+    }
+
+    /**
+     * Create filter of the types, namespaces and names of given package-urls; whatever their version, qualifiers and
+     * subpath.
+     *
+     * @param falsePositiveRate rate of other packages reported as contained; eg. {@code 0.01}
+     */
+    public static PackageUrlFilter versionless(final Collection<PackageUrl> purls, final double falsePositiveRate) {
+        return create(purls, falsePositiveRate, true);
+    }
+
+    private static PackageUrlFilter create(final Collection<PackageUrl> purls,
+                                           final double falsePositiveRate,
+                                           final boolean versionless)
+    {
+        if (!(falsePositiveRate > 0 && falsePositiveRate < 1)) {
+            throw new IllegalArgumentException("Invalid false positive rate: " + falsePositiveRate);
+        }
+        long blocks = Math.max(1, (long) Math.ceil(Math.max(purls.size(), 1) / keysPerBlock(falsePositiveRate)));
+        if (blocks > Integer.MAX_VALUE / BLOCK_WORDS) {
+            throw new IllegalArgumentException("Too many package-urls for false positive rate: " + purls.size());
+        }
+        PackageUrlFilter result = new PackageUrlFilter(versionless, new int[(int) blocks * BLOCK_WORDS]);
+        for (PackageUrl purl : purls) {
+            result.add(result.hash(purl));
+        }
+        return result;
+    }
+
+    /**
+     * Most package-urls per block, on average, for which the false positive rate is at most given rate; with the number
+     * in each block Poisson distributed about it.
+     */
+    private static double keysPerBlock(final double falsePositiveRate) {
+        double low = 0;
+        double high = BLOCK_WORDS * Integer.SIZE;
+        for (int i = 0; i < 32; i++) {
+            double middle = (low + high) / 2;
+            if (falsePositiveRate(middle) <= falsePositiveRate) {
+                low = middle;
+            }
+            else {
+                high = middle;
+            }
+        }
+        return Math.max(low, 1e-3);
+    }
+
+    /**
+     * False positive rate with given average number of package-urls per block.
+     */
+    private static double falsePositiveRate(final double keysPerBlock) {
+        double result = 0;
+        // probability of a block of k package-urls, from k = 0
+        double probability = Math.exp(-keysPerBlock);
+        for (int k = 0; k < keysPerBlock + 20 * Math.sqrt(keysPerBlock) + 20; k++) {
+            double set = 1 - Math.pow(1 - 1.0 / Integer.SIZE, k);
+            result += probability * Math.pow(set, BLOCK_WORDS);
+            probability *= keysPerBlock / (k + 1);
+        }
+        return result;
+    }
+
+    /**
+     * Whether filter was created by {@link #versionless(Collection, double)}.
+     */
+    public boolean isVersionless() {
+        return versionless;
+    }
+
+    /**
+     * Whether given package-url might be contained; or if versionless, some package-url of its package.
+     */
+    public boolean mightContain(final PackageUrl purl) {
+        return mightContain(hash(purl));
+    }
+
+    /**
+     * Whether the package-url of given value might be contained; {@code false} if it is not a package-url.
+     */
+    public boolean mightContain(final CharSequence value) {
+        PackageUrlScanner scanner = new PackageUrlScanner();
+        if (PARSER.isCanonical(requireNonNull(value), scanner)) {
+            return mightContain(hash(value, 0, versionless ? scanner.nameEnd : value.length()));
+        }
+        PackageUrlParseResult result = PARSER.tryParse(value);
+        return result.isSuccess() && mightContain(result.getPackageUrl());
+    }
+
+    /**
+     * Whether the package-url of given range of {@code UTF-8} bytes might be contained; {@code false} if it is not a
+     * package-url.
+     */
+    public boolean mightContain(final byte[] value, final int offset, final int length) {
+        return mightContain(AsciiCharSequence.of(ByteBuffer.wrap(value, offset, length)));
+    }
+
+    private void add(final long hash) {
+        int block = block(hash);
+        int key = (int) hash;
+        for (int i = 0; i < BLOCK_WORDS; i++) {
+            words[block + i] |= 1 << ((key * SALTS[i]) >>> 27);
+        }
+    }
+
+    private boolean mightContain(final long hash) {
+        int block = block(hash);
+        int key = (int) hash;
+        for (int i = 0; i < BLOCK_WORDS; i++) {
+            if ((words[block + i] & (1 << ((key * SALTS[i]) >>> 27))) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Index of the first word of the block of given hash; by the high half of the hash, as the key is the low half.
+     */
+    private int block(final long hash) {
+        return (int) (((hash >>> 32) * (words.length / BLOCK_WORDS)) >>> 32) * BLOCK_WORDS;
+    }
+
+    private long hash(final PackageUrl purl) {
+        String value = purl.toString();
+        if (!versionless) {
+            return hash(value, 0, value.length());
+        }
+        PackageUrlScanner scanner = new PackageUrlScanner();
+        scanner.scan(value);
+        return hash(value, 0, scanner.nameEnd);
+    }
+
+    /**
+     * Hash of range of value; as {@code XXH64} hashes 64-bit lanes, but of four characters each.
+     */
+    private static long hash(final CharSequence value, final int start, final int end) {
+        long result = PRIME_5 + (end - start) * 2L;
+        int i = start;
+        for (; i + 4 <= end; i += 4) {
+            long lane = value.charAt(i)
+                        | (long) value.charAt(i + 1) << 16
+                        | (long) value.charAt(i + 2) << 32
+                        | (long) value.charAt(i + 3) << 48;
+            result ^= Long.rotateLeft(lane * PRIME_2, 31) * PRIME_1;
+            result = Long.rotateLeft(result, 27) * PRIME_1 + PRIME_4;
+        }
+        for (; i < end; i++) {
+            result ^= value.charAt(i) * PRIME_5;
+            result = Long.rotateLeft(result, 11) * PRIME_1;
+        }
+        result ^= result >>> 33;
+        result *= PRIME_2;
+        result ^= result >>> 29;
+        result *= PRIME_3;
+        result ^= result >>> 32;
+        return result;
+    }
+
+    /**
+     * Write filter to given output; to be {@link #read(DataInput) read} back, eg. by another process.
+     */
+    public void write(final DataOutput out) throws IOException {
+        out.writeInt(MAGIC);
+        out.writeInt(FORMAT);
+        out.writeBoolean(versionless);
+        out.writeInt(words.length / BLOCK_WORDS);
+        for (int word : words) {
+            out.writeInt(word);
+        }
+    }
+
+    /**
+     * Read filter written by {@link #write(DataOutput)} from given input.
+     *
+     * @throws StreamCorruptedException if the input is not a written filter
+     */
+    public static PackageUrlFilter read(final DataInput in) throws IOException {
+        if (in.readInt() != MAGIC || in.readInt() != FORMAT) {
+            throw new StreamCorruptedException("Invalid filter");
+        }
+        boolean versionless = in.readBoolean();
+        int blocks = in.readInt();
+        if (blocks <= 0 || blocks > Integer.MAX_VALUE / BLOCK_WORDS) {
+            throw new StreamCorruptedException("Invalid filter size: " + blocks);
+        }
+        // grown as read; so a corrupt size fails on reaching the end of input rather than allocating it up front
+        int size = blocks * BLOCK_WORDS;
+        int[] words = new int[Math.min(size, 65536)];
+        for (int i = 0; i < size; i++) {
+            if (i == words.length) {
+                words = Arrays.copyOf(words, (int) Math.min(size, words.length * 2L));
+            }
+            words[i] = in.readInt();
+        }
+        return new PackageUrlFilter(versionless, words);
+    }
+}
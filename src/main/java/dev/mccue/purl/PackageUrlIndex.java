@@ -0,0 +1,249 @@
+package dev.mccue.purl;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Stream;
+
+import org.jspecify.annotations.Nullable;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Index of {@link PackageUrl}s by type, namespace and name; finding every version of a package, or what is under a
+ * namespace, without scanning.
+ *
+ * Package-urls are held in a trie of types, then namespace segments, then names; each node holding its segment once for
+ * everything under it, and each name holding its package-urls in their {@link PackageUrl#compareTo natural order}.
+ * Components are matched exactly as returned by the getters of {@link PackageUrl}.
+ *
+ * Safe for use by concurrent threads.  Lookups never lock, and see each update of a package entirely or not at all.
+ * Updates lock one of a fixed number of stripes, chosen by type and first namespace segment (or name if there is no
+ * namespace); so updates of unrelated packages rarely contend.
+ */
+public final class PackageUrlIndex
+{
+    private static final int STRIPES = 64;
+
+    private static final PackageUrl[] NONE = new PackageUrl[0];
+
+    private final ConcurrentHashMap<String, Node> types = new ConcurrentHashMap<>();
+
+    private final Object[] locks = new Object[STRIPES];
+
+    private final LongAdder size = new LongAdder();
+
+    /**
+     * Create empty index.
+     */
+    public PackageUrlIndex() {
+        for (int i = 0; i < locks.length; i++) {
+            locks[i] = new Object();
+        }
+    }
+
+    /**
+     * Add package-url; unless an equal package-url was already added.
+     *
+     * @return whether the package-url was added
+     */
+    public boolean add(final PackageUrl purl) {
+        requireNonNull(purl);
+        String[] namespace = purl.namespace();
+        String name = purl.getName();
+        synchronized (lock(purl.getType(), namespace, name)) {
+            Node node = types.computeIfAbsent(purl.getType(), type -> new Node());
+            if (namespace != null) {
+                for (String segment : namespace) {
+                    node = node.children.computeIfAbsent(segment, s -> new Node());
+                }
+            }
+            PackageUrl[] purls = node.names.get(name);
+            if (purls == null) {
+                node.names.put(name, new PackageUrl[] {purl});
+            }
+            else {
+                int index = Arrays.binarySearch(purls, purl);
+                if (index >= 0) {
+                    return false;
+                }
+                index = -index - 1;
+                PackageUrl[] result = new PackageUrl[purls.length + 1];
+                System.arraycopy(purls, 0, result, 0, index);
+                result[index] = purl;
+                System.arraycopy(purls, index, result, index + 1, purls.length - index);
+                node.names.put(name, result);
+            }
+        }
+        size.increment();
+        return true;
+    }
+
+    /**
+     * Remove package-url equal to given package-url; and any namespaces left empty.
+     *
+     * @return whether the package-url was removed
+     */
+    public boolean remove(final PackageUrl purl) {
+        requireNonNull(purl);
+        String[] namespace = purl.namespace();
+        String name = purl.getName();
+        synchronized (lock(purl.getType(), namespace, name)) {
+            Node[] path = new Node[namespace != null ? namespace.length + 1 : 1];
+            path[0] = types.get(purl.getType());
+            for (int i = 1; i < path.length && path[i - 1] != null; i++) {
+                path[i] = path[i - 1].children.get(namespace[i - 1]);
+            }
+            Node node = path[path.length - 1];
+            PackageUrl[] purls = node != null ? node.names.get(name) : null;
+            int index = purls != null ? Arrays.binarySearch(purls, purl) : -1;
+            if (index < 0) {
+                return false;
+            }
+            if (purls.length > 1) {
+                PackageUrl[] result = new PackageUrl[purls.length - 1];
+                System.arraycopy(purls, 0, result, 0, index);
+                System.arraycopy(purls, index + 1, result, index, result.length - index);
+                node.names.put(name, result);
+            }
+            else {
+                node.names.remove(name);
+                // types are kept, as their nodes are shared by every stripe
+                for (int i = path.length - 1; i > 0 && path[i].isEmpty(); i--) {
+                    path[i - 1].children.remove(namespace[i - 1]);
+                }
+            }
+        }
+        size.decrement();
+        return true;
+    }
+
+    /**
+     * Whether a package-url equal to given package-url was added.
+     */
+    public boolean contains(final PackageUrl purl) {
+        return Arrays.binarySearch(purls(purl.getType(), purl.namespace(), purl.getName()), purl) >= 0;
+    }
+
+    /**
+     * Package-urls with the same type, namespace and name as given package-url; whatever their version, qualifiers and
+     * subpath.
+     *
+     * @return unmodifiable snapshot, in natural order
+     */
+    public List<PackageUrl> find(final PackageUrl purl) {
+        return view(purls(purl.getType(), purl.namespace(), purl.getName()));
+    }
+
+    /**
+     * Package-urls with given type, namespace and name.
+     *
+     * @return unmodifiable snapshot, in natural order
+     */
+    public List<PackageUrl> find(final String type, @Nullable final List<String> namespace, final String name) {
+        requireNonNull(name);
+        Node node = node(type, namespace);
+        return view(node != null ? node.names.get(name) : null);
+    }
+
+    /**
+     * Names of packages with given type and namespace.
+     *
+     * @return unmodifiable view
+     */
+    public Set<String> names(final String type, @Nullable final List<String> namespace) {
+        Node node = node(type, namespace);
+        return node != null ? Collections.unmodifiableSet(node.names.keySet()) : Collections.emptySet();
+    }
+
+    /**
+     * Namespace segments following given namespace prefix, of packages with given type.
+     *
+     * @return unmodifiable view
+     */
+    public Set<String> namespaces(final String type, @Nullable final List<String> prefix) {
+        Node node = node(type, prefix);
+        return node != null ? Collections.unmodifiableSet(node.children.keySet()) : Collections.emptySet();
+    }
+
+    /**
+     * Types of package-urls added.
+     *
+     * @return unmodifiable view; which keeps types once added, even after every package-url of the type is removed
+     */
+    public Set<String> types() {
+        return Collections.unmodifiableSet(types.keySet());
+    }
+
+    /**
+     * Package-urls with given type, under given namespace prefix; in no particular order.
+     */
+    public Stream<PackageUrl> stream(final String type, @Nullable final List<String> prefix) {
+        Node node = node(type, prefix);
+        return node != null ? node.stream() : Stream.empty();
+    }
+
+    /**
+     * Every package-url; in no particular order.
+     */
+    public Stream<PackageUrl> stream() {
+        return types.values().stream().flatMap(Node::stream);
+    }
+
+    /**
+     * Number of package-urls; approximate while updated concurrently.
+     */
+    public long size() {
+        return size.sum();
+    }
+
+    private Object lock(final String type, @Nullable final String[] namespace, final String name) {
+        int h = type.hashCode() * 31 + (namespace != null && namespace.length > 0 ? namespace[0] : name).hashCode();
+        return locks[(h ^ (h >>> 16)) & (locks.length - 1)];
+    }
+
+    @Nullable
+    private Node node(final String type, @Nullable final List<String> namespace) {
+        Node node = types.get(requireNonNull(type));
+        if (namespace != null) {
+            for (int i = 0; i < namespace.size() && node != null; i++) {
+                node = node.children.get(namespace.get(i));
+            }
+        }
+        return node;
+    }
+
+    private PackageUrl[] purls(final String type, @Nullable final String[] namespace, final String name) {
+        Node node = node(type, namespace != null ? new SegmentList(namespace) : null);
+        PackageUrl[] purls = node != null ? node.names.get(name) : null;
+        return purls != null ? purls : NONE;
+    }
+
+    private static List<PackageUrl> view(@Nullable final PackageUrl[] purls) {
+        return purls != null ? Collections.unmodifiableList(Arrays.asList(purls)) : Collections.emptyList();
+    }
+
+    /**
+     * Namespace, or the root of a type.
+     *
+     * Arrays of package-urls are never modified once published; updates replace them.
+     */
+    private static final class Node
+    {
+        private final ConcurrentHashMap<String, Node> children = new ConcurrentHashMap<>(4);
+
+        private final ConcurrentHashMap<String, PackageUrl[]> names = new ConcurrentHashMap<>(4);
+
+        boolean isEmpty() {
+            return children.isEmpty() && names.isEmpty();
+        }
+
+        Stream<PackageUrl> stream() {
+            return Stream.concat(names.values().stream().flatMap(Arrays::stream),
+                                 children.values().stream().flatMap(Node::stream));
+        }
+    }
+}
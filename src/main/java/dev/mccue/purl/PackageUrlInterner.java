@@ -0,0 +1,91 @@
+package dev.mccue.purl;
+
+import java.util.function.Function;
+
+import org.jspecify.annotations.Nullable;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Pool of shared {@link PackageUrl} instances.
+ *
+ * Equal package-urls interned through the same interner resolve to a single shared instance, and values parsed
+ * through a {@link PackageUrlParser#interner(PackageUrlInterner) parser using the interner} resolve to that instance
+ * without being parsed again.
+ *
+ * Package-urls and raw values are each retained up to a maximum size, evicting the least recently used first.
+ * Safe for use by concurrent threads.
+ */
+public final class PackageUrlInterner
+{
+    private final BoundedCache<PackageUrl, PackageUrl> instances;
+
+    private final BoundedCache<String, PackageUrl> values;
+
+    /**
+     * Create an interner retaining up to given number of package-urls and raw values.
+     */
+    public PackageUrlInterner(final int maximumSize) {
+        this.instances = new BoundedCache<>(maximumSize);
+        this.values = new BoundedCache<>(maximumSize);
+    }
+
+    /**
+     * Return the shared instance equal to given package-url; which becomes the shared instance if there is none.
+     */
+    public PackageUrl intern(final PackageUrl purl) {
+        requireNonNull(purl);
+        PackageUrl existing = instances.get(purl);
+        if (existing != null) {
+            return existing;
+        }
+        return instances.putIfAbsent(purl, purl);
+    }
+
+    /**
+     * Return the shared instance for raw value; only parsing it if the value has not been seen before.
+     *
+     * Values the parser returns {@code null} for are not remembered.
+     */
+    @Nullable
+    PackageUrl intern(final String value, final Function<String, @Nullable PackageUrl> parser) {
+        PackageUrl existing = values.get(value);
+        if (existing != null) {
+            return existing;
+        }
+        PackageUrl parsed = parser.apply(value);
+        if (parsed == null) {
+            return null;
+        }
+        return values.putIfAbsent(value, intern(parsed));
+    }
+
+    /**
+     * Number of lookups resolved to an existing shared instance.
+     */
+    public long hitCount() {
+        return values.hitCount() + instances.hitCount();
+    }
+
+    /**
+     * Number of lookups which added a new shared instance.
+     */
+    public long missCount() {
+        return instances.missCount();
+    }
+
+    /**
+     * Approximate number of shared instances retained.
+     */
+    public int size() {
+        return instances.size();
+    }
+
+    /**
+     * Discard all retained instances and values; counts are not reset.
+     */
+    public void clear() {
+        values.clear();
+        instances.clear();
+    }
+}
@@ -0,0 +1,36 @@
+package dev.mccue.purl;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Result of parsing one line of newline-delimited package-urls.
+ *
+ * @see PackageUrlParser#parseAll(java.nio.file.Path)
+ */
+public final class PackageUrlLine
+{
+    private final long lineNumber;
+
+    private final PackageUrlParseResult result;
+
+    PackageUrlLine(final long lineNumber, final PackageUrlParseResult result) {
+        this.lineNumber = lineNumber;
+        this.result = requireNonNull(result);
+    }
+
+    /**
+     * Line number; starting from {@code 1}.
+     */
+    public long getLineNumber() {
+        return lineNumber;
+    }
+
+    public PackageUrlParseResult getResult() {
+        return result;
+    }
+
+    @Override
+    public String toString() {
+        return lineNumber + ": " + result;
+    }
+}
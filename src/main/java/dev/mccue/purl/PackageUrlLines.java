@@ -0,0 +1,490 @@
+package dev.mccue.purl;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import org.jspecify.annotations.Nullable;
+
+/**
+ * Lazily parses newline-delimited package-urls.
+ *
+ * Lines end with {@code \n}, {@code \r} or {@code \r\n}, as with {@link BufferedReader#readLine()}, and empty lines are
+ * skipped; though still counted.
+ */
+final class PackageUrlLines
+{
+    private PackageUrlLines() {
+        // empty
+    }
+
+    /**
+     * Size of buffer read into from a channel; grown as needed to hold a complete line.
+     */
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    /**
+     * Size of window mapped from a file; grown as needed to hold a complete line.
+     */
+    static final int WINDOW_SIZE = 64 * 1024 * 1024;
+
+    /**
+     * Size of file range which is not split for parallel streams.
+     */
+    static final int MINIMUM_SPLIT_SIZE = BUFFER_SIZE;
+
+    static Stream<PackageUrlLine> stream(final PackageUrlParser parser, final Reader reader) {
+        return stream(new CharLines(parser, reader instanceof BufferedReader
+                ? (BufferedReader) reader
+                : new BufferedReader(reader)));
+    }
+
+    static Stream<PackageUrlLine> stream(final PackageUrlParser parser, final ReadableByteChannel channel) {
+        return stream(new ByteLines(parser, channel, null, 0, 0, 0, WINDOW_SIZE));
+    }
+
+    /**
+     * Stream lines of file; mapping a window of it into memory at a time.
+     *
+     * If the stream is parallel then the file is split into ranges of whole lines, which are parsed concurrently.
+     *
+     * @param windowSize initial size of window; {@link #WINDOW_SIZE} other than in tests
+     * @param minimumSplitSize ranges smaller than this are not split; {@link #MINIMUM_SPLIT_SIZE} other than in tests
+     */
+    static Stream<PackageUrlLine> stream(final PackageUrlParser parser,
+                                         final FileChannel file,
+                                         final boolean parallel,
+                                         final boolean ordered,
+                                         final int windowSize,
+                                         final long minimumSplitSize)
+            throws IOException
+    {
+        return StreamSupport.stream(
+                new FileSpliterator(parser, file, 0, file.size(), 0, ordered, windowSize, minimumSplitSize), parallel);
+    }
+
+    private static Stream<PackageUrlLine> stream(final Iterator<PackageUrlLine> lines) {
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(lines,
+                Spliterator.ORDERED | Spliterator.NONNULL), false);
+    }
+
+    /**
+     * Iterator which computes each element on demand.
+     */
+    private abstract static class LineIterator
+            implements Iterator<PackageUrlLine>
+    {
+        @Nullable
+        private PackageUrlLine next;
+
+        /**
+         * Next line; or {@code null} at the end of input.
+         */
+        @Nullable
+        abstract PackageUrlLine advance() throws IOException;
+
+        @Override
+        public boolean hasNext() {
+            if (next == null) {
+                try {
+                    next = advance();
+                }
+                catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }
+            return next != null;
+        }
+
+        @Override
+        public PackageUrlLine next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            PackageUrlLine result = next;
+            next = null;
+            return result;
+        }
+    }
+
+    /**
+     * Lines of characters.
+     */
+    private static final class CharLines
+            extends LineIterator
+    {
+        private final PackageUrlParser parser;
+
+        private final BufferedReader reader;
+
+        private long lineNumber;
+
+        CharLines(final PackageUrlParser parser, final BufferedReader reader) {
+            this.parser = parser;
+            this.reader = reader;
+        }
+
+        @Override
+        @Nullable
+        PackageUrlLine advance() throws IOException {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (!line.isEmpty()) {
+                    return new PackageUrlLine(lineNumber, parser.tryParse(line));
+                }
+            }
+            return null;
+        }
+    }
+
+    /**
+     * Lines of {@code UTF-8} bytes; either read from a channel or mapped from a range of a file.
+     *
+     * Lines are parsed directly from the buffer, see {@link AsciiCharSequence}.
+     */
+    private static final class ByteLines
+            extends LineIterator
+    {
+        private final PackageUrlParser parser;
+
+        @Nullable
+        private final ReadableByteChannel channel;
+
+        @Nullable
+        private final FileChannel file;
+
+        /**
+         * Unconsumed bytes are those between position and limit.
+         */
+        private ByteBuffer buffer;
+
+        /**
+         * Offset into file of the start of the mapped buffer.
+         */
+        private long offset;
+
+        /**
+         * Offset into file of the end of the range.
+         */
+        private final long rangeEnd;
+
+        private int window;
+
+        private boolean eof;
+
+        private long lineNumber;
+
+        ByteLines(final PackageUrlParser parser,
+                  @Nullable final ReadableByteChannel channel,
+                  @Nullable final FileChannel file,
+                  final long offset,
+                  final long end,
+                  final long lineNumber,
+                  final int window)
+        {
+            this.parser = parser;
+            this.channel = channel;
+            this.file = file;
+            this.offset = offset;
+            this.rangeEnd = end;
+            this.lineNumber = lineNumber;
+            this.window = window;
+            this.buffer = file != null ? ByteBuffer.allocate(0) : ByteBuffer.allocate(BUFFER_SIZE).flip();
+        }
+
+        @Override
+        @Nullable
+        PackageUrlLine advance() throws IOException {
+            while (true) {
+                int start = buffer.position();
+                int limit = buffer.limit();
+                int end = start;
+                while (end < limit && buffer.get(end) != '\n' && buffer.get(end) != '\r') {
+                    end++;
+                }
+
+                // a line, or the "\n" of a "\r\n", may continue past the buffer
+                if (!eof && (end == limit || (end + 1 == limit && buffer.get(end) == '\r'))) {
+                    refill();
+                    continue;
+                }
+                if (start == limit) {
+                    return null;
+                }
+
+                int next = end;
+                if (end < limit) {
+                    next++;
+                    if (buffer.get(end) == '\r' && next < limit && buffer.get(next) == '\n') {
+                        next++;
+                    }
+                }
+                buffer.position(next);
+                lineNumber++;
+                if (end > start) {
+                    return new PackageUrlLine(lineNumber, parser.tryParse(AsciiCharSequence.of(buffer, start, end)));
+                }
+            }
+        }
+
+        private void refill() throws IOException {
+            if (file != null) {
+                map(file);
+            }
+            else {
+                read(channel);
+            }
+        }
+
+        /**
+         * Map the window of file starting from the first unconsumed byte.
+         */
+        private void map(final FileChannel file) throws IOException {
+            if (buffer.position() == 0 && buffer.limit() == window) {
+                // no line ends within a whole window
+                window = (int) Math.min(window * 2L, Integer.MAX_VALUE);
+            }
+            offset += buffer.position();
+            long size = Math.min(window, rangeEnd - offset);
+            buffer = file.map(FileChannel.MapMode.READ_ONLY, offset, size);
+            eof = offset + size == rangeEnd;
+        }
+
+        /**
+         * Read from channel after the unconsumed bytes.
+         */
+        private void read(final ReadableByteChannel channel) throws IOException {
+            buffer.compact();
+            if (!buffer.hasRemaining()) {
+                buffer = ByteBuffer.allocate(buffer.capacity() * 2).put(buffer.flip());
+            }
+            int count;
+            do {
+                count = channel.read(buffer);
+            } while (count == 0);
+            eof = count == -1;
+            buffer.flip();
+        }
+    }
+
+    /**
+     * Splits a range of a file into ranges of whole lines, see {@link #trySplit()}.
+     */
+    private static final class FileSpliterator
+            implements Spliterator<PackageUrlLine>
+    {
+        private final PackageUrlParser parser;
+
+        private final FileChannel file;
+
+        private long start;
+
+        private final long end;
+
+        /**
+         * Number of lines before the range.
+         */
+        private long lineNumber;
+
+        private final boolean ordered;
+
+        private final int windowSize;
+
+        private final long minimumSplitSize;
+
+        /**
+         * Lines of the range; once traversal begins the range is no longer split.
+         */
+        @Nullable
+        private ByteLines lines;
+
+        FileSpliterator(final PackageUrlParser parser,
+                        final FileChannel file,
+                        final long start,
+                        final long end,
+                        final long lineNumber,
+                        final boolean ordered,
+                        final int windowSize,
+                        final long minimumSplitSize)
+        {
+            this.parser = parser;
+            this.file = file;
+            this.start = start;
+            this.end = end;
+            this.lineNumber = lineNumber;
+            this.ordered = ordered;
+            this.windowSize = windowSize;
+            this.minimumSplitSize = minimumSplitSize;
+        }
+
+        private ByteLines lines() {
+            ByteLines result = lines;
+            if (result == null) {
+                result = new ByteLines(parser, null, file, start, end, lineNumber, windowSize);
+                lines = result;
+            }
+            return result;
+        }
+
+        @Override
+        public boolean tryAdvance(final Consumer<? super PackageUrlLine> action) {
+            ByteLines lines = lines();
+            if (!lines.hasNext()) {
+                return false;
+            }
+            action.accept(lines.next());
+            return true;
+        }
+
+        @Override
+        public void forEachRemaining(final Consumer<? super PackageUrlLine> action) {
+            lines().forEachRemaining(action);
+        }
+
+        /**
+         * Split off the first half of the range; ending after the first line terminator from the middle.
+         *
+         * Line numbers of the remaining half are offset by counting the lines of the first half.
+         */
+        @Override
+        @Nullable
+        public Spliterator<PackageUrlLine> trySplit() {
+            if (lines != null || end - start < minimumSplitSize) {
+                return null;
+            }
+            try {
+                long split = lineEnd(start + (end - start) / 2);
+                if (split >= end) {
+                    return null;
+                }
+                Spliterator<PackageUrlLine> prefix =
+                        new FileSpliterator(parser, file, start, split, lineNumber, ordered, windowSize,
+                                minimumSplitSize);
+                lineNumber += countLines(file, start, split, windowSize);
+                start = split;
+                return prefix;
+            }
+            catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        /**
+         * Offset after the first line terminator at or after given offset; or the end of the range if there is none.
+         */
+        private long lineEnd(final long offset) throws IOException {
+            ByteBuffer buffer = ByteBuffer.allocate(8 * 1024);
+            long position = offset;
+            boolean cr = false;
+            while (position < end) {
+                buffer.clear().limit((int) Math.min(buffer.capacity(), end - position));
+                int count = file.read(buffer, position);
+                if (count < 0) {
+                    break;
+                }
+                for (int i = 0; i < count; i++) {
+                    byte b = buffer.get(i);
+                    if (cr) {
+                        return b == '\n' ? position + i + 1 : position + i;
+                    }
+                    if (b == '\n') {
+                        return position + i + 1;
+                    }
+                    cr = b == '\r';
+                }
+                position += count;
+            }
+            return end;
+        }
+
+        @Override
+        public long estimateSize() {
+            return end - start;
+        }
+
+        @Override
+        public int characteristics() {
+            return (ordered ? ORDERED : 0) | NONNULL;
+        }
+    }
+
+    /**
+     * Number of line terminators in given range of file; which must not end between a {@code \r} and {@code \n}.
+     */
+    private static long countLines(final FileChannel file, final long start, final long end, final int windowSize)
+            throws IOException
+    {
+        long count = 0;
+        boolean cr = false;
+        for (long offset = start; offset < end; offset += windowSize) {
+            long size = Math.min(windowSize, end - offset);
+            ByteBuffer window = file.map(FileChannel.MapMode.READ_ONLY, offset, size);
+            count += countLines(window);
+            if (cr && window.get(0) == '\n') {
+                // "\r\n" straddling windows was counted in both
+                count--;
+            }
+            cr = window.get((int) size - 1) == '\r';
+        }
+        return count;
+    }
+
+    /**
+     * Number of line terminators in buffer.
+     *
+     * Counts a word of bytes at a time; only checking byte by byte if there are any {@code \r}.
+     */
+    private static long countLines(final ByteBuffer buffer) {
+        int limit = buffer.limit();
+        long lf = 0;
+        long cr = 0;
+        int i = 0;
+        for (; i + Long.BYTES <= limit; i += Long.BYTES) {
+            long word = buffer.getLong(i);
+            lf += countBytes(word, 0x0A0A0A0A0A0A0A0AL);
+            cr += countBytes(word, 0x0D0D0D0D0D0D0D0DL);
+        }
+        for (; i < limit; i++) {
+            byte b = buffer.get(i);
+            if (b == '\n') {
+                lf++;
+            }
+            else if (b == '\r') {
+                cr++;
+            }
+        }
+        if (cr == 0) {
+            return lf;
+        }
+
+        // "\r\n" is counted as a single line terminator
+        long crlf = 0;
+        for (i = 1; i < limit; i++) {
+            if (buffer.get(i) == '\n' && buffer.get(i - 1) == '\r') {
+                crlf++;
+            }
+        }
+        return lf + cr - crlf;
+    }
+
+    /**
+     * Number of bytes of word equal to given byte repeated in each byte of pattern.
+     */
+    private static int countBytes(final long word, final long pattern) {
+        long x = word ^ pattern;
+        long t = ((x & 0x7F7F7F7F7F7F7F7FL) + 0x7F7F7F7F7F7F7F7FL) | x | 0x7F7F7F7F7F7F7F7FL;
+        return Long.bitCount(~t);
+    }
+}
@@ -0,0 +1,227 @@
+package dev.mccue.purl;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.jspecify.annotations.Nullable;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Set of {@link PackageUrlPattern}s compiled to match package-urls against all of them at once.
+ *
+ * Patterns are held in a trie by type, namespace segments and name; with the wildcards of each level as further edges.
+ * Matching walks the trie along the package-url, so takes time by the length of the package-url and the wildcards on
+ * its path, rather than by the number of patterns; only the patterns of the names reached have their version,
+ * qualifiers and subpath checked.
+ *
+ * Immutable, so safe for use by concurrent threads.
+ */
+public final class PackageUrlMatcher
+{
+    private static final int[] NONE = new int[0];
+
+    private static final String[] NO_SEGMENTS = new String[0];
+
+    private final PackageUrlPattern[] patterns;
+
+    /**
+     * Roots by lower case type.
+     */
+    private final Map<String, Node> types = new HashMap<>();
+
+    /**
+     * Root of patterns of any type.
+     */
+    private final Node anyType = new Node(false);
+
+    private PackageUrlMatcher(final PackageUrlPattern[] patterns) {
+        this.patterns = patterns;
+        for (int i = 0; i < patterns.length; i++) {
+            PackageUrlPattern pattern = patterns[i];
+            Node node = pattern.type() != null ? types.computeIfAbsent(pattern.type(), it -> new Node(false)) : anyType;
+            for (PackageUrlPattern.Segment segment : pattern.namespace()) {
+                node = node.child(segment);
+            }
+            if (pattern.name() != null) {
+                node.names.merge(pattern.name(), new int[] {i}, PackageUrlMatcher::concat);
+            }
+            else {
+                node.anyName = concat(node.anyName, new int[] {i});
+            }
+        }
+    }
+
+    /**
+     * Compile given patterns.
+     */
+    public static PackageUrlMatcher compile(final Collection<PackageUrlPattern> patterns) {
+        PackageUrlPattern[] array = patterns.toArray(new PackageUrlPattern[0]);
+        for (PackageUrlPattern pattern : array) {
+            requireNonNull(pattern);
+        }
+        return new PackageUrlMatcher(array);
+    }
+
+    /**
+     * Patterns which match given package-url.
+     *
+     * @return unmodifiable list; in the order the patterns were compiled in
+     */
+    public List<PackageUrlPattern> match(final PackageUrl purl) {
+        String name = purl.getName();
+        // by index, so iterated in the order compiled in; as the nodes reached are in no order
+        BitSet matched = new BitSet();
+        for (Node node : walk(purl)) {
+            collect(node.names.getOrDefault(name, NONE), purl, matched);
+            collect(node.anyName, purl, matched);
+        }
+        if (matched.isEmpty()) {
+            return List.of();
+        }
+        List<PackageUrlPattern> result = new ArrayList<>(matched.cardinality());
+        for (int i = matched.nextSetBit(0); i >= 0; i = matched.nextSetBit(i + 1)) {
+            result.add(patterns[i]);
+        }
+        return Collections.unmodifiableList(result);
+    }
+
+    private void collect(final int[] candidates, final PackageUrl purl, final BitSet matched) {
+        for (int candidate : candidates) {
+            if (patterns[candidate].matchesRest(purl)) {
+                matched.set(candidate);
+            }
+        }
+    }
+
+    /**
+     * Whether any pattern matches given package-url.
+     */
+    public boolean matches(final PackageUrl purl) {
+        String name = purl.getName();
+        for (Node node : walk(purl)) {
+            if (matchesAny(node.names.getOrDefault(name, NONE), purl) || matchesAny(node.anyName, purl)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private boolean matchesAny(final int[] candidates, final PackageUrl purl) {
+        for (int candidate : candidates) {
+            if (patterns[candidate].matchesRest(purl)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Number of patterns.
+     */
+    public int size() {
+        return patterns.length;
+    }
+
+    /**
+     * Nodes reached by the type and namespace of given package-url; each once.
+     */
+    private List<Node> walk(final PackageUrl purl) {
+        List<Node> nodes = new ArrayList<>(4);
+        add(nodes, types.get(MoreStrings.lowerCase(purl.getType())));
+        add(nodes, anyType);
+        String[] segments = purl.namespace();
+        for (String segment : segments != null ? segments : NO_SEGMENTS) {
+            if (nodes.isEmpty()) {
+                break;
+            }
+            List<Node> next = new ArrayList<>(nodes.size() + 2);
+            for (Node node : nodes) {
+                add(next, node.children.get(segment));
+                add(next, node.any);
+                if (node.loop) {
+                    add(next, node);
+                }
+            }
+            nodes = next;
+        }
+        return nodes;
+    }
+
+    /**
+     * Add node, and the node after a {@code **} from it, since that also matches no segments.
+     */
+    private static void add(final List<Node> nodes, @Nullable final Node node) {
+        if (node == null) {
+            return;
+        }
+        for (Node added : nodes) {
+            if (added == node) {
+                return;
+            }
+        }
+        nodes.add(node);
+        add(nodes, node.anySegments);
+    }
+
+    private static int[] concat(final int[] a, final int[] b) {
+        int[] result = Arrays.copyOf(a, a.length + b.length);
+        System.arraycopy(b, 0, result, a.length, b.length);
+        return result;
+    }
+
+    /**
+     * Patterns by the rest of their namespace and name; after the type and namespace segments on the path to the node.
+     */
+    private static final class Node
+    {
+        /**
+         * Whether the node is reached by {@code **}; so also by any segments after reaching it.
+         */
+        private final boolean loop;
+
+        private final Map<String, Node> children = new HashMap<>();
+
+        @Nullable
+        private Node any;
+
+        @Nullable
+        private Node anySegments;
+
+        /**
+         * Indexes of the patterns with no more namespace segments; by name.
+         */
+        private final Map<String, int[]> names = new HashMap<>();
+
+        /**
+         * Indexes of the patterns with no more namespace segments, and any name.
+         */
+        private int[] anyName = NONE;
+
+        Node(final boolean loop) {
+            this.loop = loop;
+        }
+
+        Node child(final PackageUrlPattern.Segment segment) {
+            if (segment == PackageUrlPattern.Segment.ANY) {
+                if (any == null) {
+                    any = new Node(false);
+                }
+                return any;
+            }
+            if (segment == PackageUrlPattern.Segment.ANY_SEGMENTS) {
+                if (anySegments == null) {
+                    anySegments = new Node(true);
+                }
+                return anySegments;
+            }
+            return children.computeIfAbsent(segment.value, it -> new Node(false));
+        }
+    }
+}
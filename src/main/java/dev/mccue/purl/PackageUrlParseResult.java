@@ -0,0 +1,177 @@
+package dev.mccue.purl;
+
+import org.jspecify.annotations.Nullable;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Result of {@link PackageUrlParser#tryParse(String) parsing} a value; either the {@link PackageUrl} or why the value
+ * is not a valid package-url.
+ *
+ * Failures describe the error without creating an exception; one is only created if {@link #toException() asked} for.
+ */
+public final class PackageUrlParseResult
+{
+    /**
+     * Value which failed to parse.
+     */
+    @Nullable
+    private final String value;
+
+    @Nullable
+    private final PackageUrl purl;
+
+    @Nullable
+    private final ParseErrorKind errorKind;
+
+    @Nullable
+    private final String component;
+
+    private final int offset;
+
+    /**
+     * Value of the failed component, if exceptions report it in place of the whole value.
+     */
+    @Nullable
+    private final String componentValue;
+
+    /**
+     * Illegal segment content, for {@link ParseErrorKind#ILLEGAL_SEGMENT_CONTENT}.
+     */
+    @Nullable
+    private final String content;
+
+    private PackageUrlParseResult(@Nullable final String value,
+                                  @Nullable final PackageUrl purl,
+                                  @Nullable final ParseErrorKind errorKind,
+                                  @Nullable final String component,
+                                  final int offset,
+                                  @Nullable final String componentValue,
+                                  @Nullable final String content)
+    {
+        this.value = value;
+        this.purl = purl;
+        this.errorKind = errorKind;
+        this.component = component;
+        this.offset = offset;
+        this.componentValue = componentValue;
+        this.content = content;
+    }
+
+    static PackageUrlParseResult success(final PackageUrl purl) {
+        return new PackageUrlParseResult(null, requireNonNull(purl), null, null, -1, null, null);
+    }
+
+    static PackageUrlParseResult failure(final String value,
+                                         final ParseErrorKind errorKind,
+                                         final String component,
+                                         final int offset,
+                                         @Nullable final String componentValue,
+                                         @Nullable final String content)
+    {
+        return new PackageUrlParseResult(requireNonNull(value), null, requireNonNull(errorKind), requireNonNull(component),
+                offset, componentValue, content);
+    }
+
+    /**
+     * The value which failed to parse, which {@link #getOffset()} is an offset into; or {@code null} if parsing
+     * succeeded, as successful results do not keep the value.
+     */
+    @Nullable
+    public String getValue() {
+        return value;
+    }
+
+    public boolean isSuccess() {
+        return purl != null;
+    }
+
+    /**
+     * The parsed package-url; or {@code null} if parsing failed.
+     */
+    @Nullable
+    public PackageUrl getPackageUrl() {
+        return purl;
+    }
+
+    /**
+     * Why parsing failed; or {@code null} if it succeeded.
+     */
+    @Nullable
+    public ParseErrorKind getErrorKind() {
+        return errorKind;
+    }
+
+    /**
+     * Name of the component which failed to parse (ie. {@code type}, {@code namespace}, {@code name}, {@code version},
+     * {@code qualifiers} or {@code subpath}); or {@code null} if parsing succeeded.
+     */
+    @Nullable
+    public String getComponent() {
+        return component;
+    }
+
+    /**
+     * Offset into the value at which parsing failed; or {@code -1} if it succeeded.
+     */
+    public int getOffset() {
+        return offset;
+    }
+
+    /**
+     * Return the parsed package-url; or throw {@link #toException()} if parsing failed.
+     */
+    public PackageUrl orElseThrow() {
+        if (purl != null) {
+            return purl;
+        }
+        throw toException();
+    }
+
+    /**
+     * The exception {@link PackageUrlParser#parse(String)} throws for this failure.
+     *
+     * @throws IllegalStateException if parsing succeeded
+     */
+    public RuntimeException toException() {
+        return exception(true);
+    }
+
+    /**
+     * New exception for this failure; with a stack trace if enabled.
+     *
+     * Not kept, as failures are shared by the {@link PackageUrlParser#cache(int) cache}; so each thrower has its own
+     * stack trace, and suppressed exceptions and causes added by one are not seen by others.
+     */
+    RuntimeException exception(final boolean writableStackTrace) {
+        if (errorKind == null) {
+            throw new IllegalStateException("Parsed successfully: " + purl);
+        }
+        String message = componentValue != null ? componentValue : requireNonNull(value);
+        switch (errorKind) {
+            case EMPTY_SEGMENT:
+                return new EmptySegmentException(message, writableStackTrace);
+
+            case ILLEGAL_SEGMENT_CONTENT:
+                return new IllegalSegmentContentException(requireNonNull(content), message, writableStackTrace);
+
+            case ILLEGAL_ESCAPE:
+                return PercentEncoding.illegalEscape(message, writableStackTrace);
+
+            default:
+                return new InvalidException(message, writableStackTrace);
+        }
+    }
+
+    @Override
+    public String toString() {
+        if (purl != null) {
+            return "PackageUrlParseResult{purl=" + purl + '}';
+        }
+        return "PackageUrlParseResult{value='" + value + '\'' +
+               ", errorKind=" + errorKind +
+               ", component='" + component + '\'' +
+               ", offset=" + offset +
+               '}';
+    }
+}
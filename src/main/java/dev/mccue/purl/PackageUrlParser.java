@@ -1,11 +1,20 @@
 package dev.mccue.purl;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
 import java.util.ArrayList;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
+import java.util.stream.Stream;
 
 import org.jspecify.annotations.Nullable;
 
@@ -40,28 +49,34 @@ public final class PackageUrlParser
 
     static final String SUBPATH_SEGMENT = "[^/]+";
 
-    static final Pattern PURL_SCHEME_PATTERN = Pattern.compile(String.format(
-            "%s:(/)*(?<type>%s)/" +
-            "((?<namespace>%s)/)?" +
-            "(?<name>%s)" +
-            "(@(?<version>%s))?" +
-            "(\\?(?<qualifiers>%s))?" +
-            "(#(?<subpath>%s))?",
-            PackageUrl.SCHEME, TYPE, NAMESPACE, NAME, VERSION, QUALIFIERS, SUBPATH
-    ));
-
-    static final Pattern PURL_SCHEMELESS_PATTERN = Pattern.compile(String.format(
-            "(?<type>%s):(//)?" +
-            "((?<namespace>%s)/)?" +
-            "(?<name>%s)" +
-            "(@(?<version>%s))?" +
-            "(\\?(?<qualifiers>%s))?" +
-            "(#(?<subpath>%s))?",
-            TYPE, NAMESPACE, NAME, VERSION, QUALIFIERS, SUBPATH
-    ));
+    /**
+     * Types of the specification; parsed package-urls of these types share one instance of the type, which saves memory
+     * and lets comparisons of types short-circuit on identity.
+     */
+    private static final String[] KNOWN_TYPES = {
+            "maven", "npm", "pypi", "golang", "github", "nuget", "gem", "cargo", "composer", "deb", "rpm", "apk",
+            "docker", "oci", "generic", "conda", "conan", "cocoapods", "swift", "hex", "pub", "cran", "hackage",
+            "bitbucket", "alpm", "bitnami", "cpan", "huggingface", "luarocks", "mlflow", "qpkg", "swid",
+    };
 
     private boolean typeSpecificTransformations = true;
 
+    private boolean stackTraces = true;
+
+    private boolean lazy;
+
+    @Nullable
+    private PackageUrlInterner interner;
+
+    @Nullable
+    private RecentPackages packages;
+
+    /**
+     * Parsed values; either the {@link PackageUrl} or the exception thrown parsing it.
+     */
+    @Nullable
+    private BoundedCache<String, Object> cache;
+
     /**
      * If enabled then the builder will make the changes defined in the Package URL spec to the namespace and name for specific types.
      *
@@ -71,6 +86,100 @@ public final class PackageUrlParser
      */
     public PackageUrlParser typeSpecificTransformations(boolean enable) {
         this.typeSpecificTransformations = enable;
+        if (cache != null) {
+            cache.clear();
+        }
+        return this;
+    }
+
+    /**
+     * If set then parsed package-urls are shared through the given interner; and values it has seen before are not parsed
+     * again.
+     *
+     * The interner remembers raw values, so should only be shared by parsers with the same configuration.
+     */
+    public PackageUrlParser interner(@Nullable final PackageUrlInterner interner) {
+        this.interner = interner;
+        return this;
+    }
+
+    /**
+     * If positive then up to given number of parsed values are remembered, evicting the least recently used first, and
+     * parsing a remembered value again returns the same result without re-parsing.
+     *
+     * Values which failed to parse are remembered too; parsing them again throws a new exception for the same failure,
+     * without re-parsing.
+     *
+     * Disabled (zero) by default.
+     */
+    public PackageUrlParser cache(final int maximumSize) {
+        if (maximumSize < 0) {
+            throw new IllegalArgumentException("Invalid maximum size: " + maximumSize);
+        }
+        this.cache = maximumSize > 0 ? new BoundedCache<>(maximumSize) : null;
+        return this;
+    }
+
+    /**
+     * Number of parsed values found in the {@link #cache(int) cache}.
+     */
+    public long cacheHitCount() {
+        return cache != null ? cache.hitCount() : 0;
+    }
+
+    /**
+     * Number of parsed values not found in the {@link #cache(int) cache}.
+     */
+    public long cacheMissCount() {
+        return cache != null ? cache.missCount() : 0;
+    }
+
+    /**
+     * Approximate number of parsed values in the {@link #cache(int) cache}.
+     */
+    public int cacheSize() {
+        return cache != null ? cache.size() : 0;
+    }
+
+    /**
+     * If disabled then exceptions thrown by {@link #parse(String)}, including those for illegal escapes, are created
+     * without a stack trace, which is considerably cheaper when many values are invalid.
+     *
+     * By default this is enabled.
+     */
+    public PackageUrlParser stackTraces(final boolean enable) {
+        this.stackTraces = enable;
+        return this;
+    }
+
+    /**
+     * If enabled then the components of parsed package-urls are only decoded when first asked for; and a value which is
+     * already in canonical form is kept as the {@link RenderFlavor#SCHEME} rendering, so it can be compared and hashed
+     * without decoding it.
+     *
+     * Values are still validated when parsed, so exactly the same values fail to parse; and lazily parsed package-urls
+     * are indistinguishable from others.  Worthwhile when most parsed package-urls are only partly read, or only
+     * compared.
+     *
+     * By default this is disabled.
+     */
+    public PackageUrlParser lazy(final boolean enable) {
+        this.lazy = enable;
+        return this;
+    }
+
+    /**
+     * If enabled then parsed package-urls of the same package as one of the last thousand or so parsed by this parser
+     * share its namespace and name; which saves memory when parsing many versions of the same packages, and lets
+     * {@link PackageUrl#compareTo(PackageUrl) comparisons} of them short-circuit on identity.
+     *
+     * Costs hashing the namespace and name of each parsed package-url, which pays off for sorting, or holding many
+     * package-urls in memory.  Lazily parsed package-urls share them once they decode them.
+     *
+     * By default this is disabled.
+     */
+    public PackageUrlParser sharePackages(final boolean enable) {
+        this.packages = enable ? new RecentPackages() : null;
         return this;
     }
 
@@ -80,30 +189,526 @@ public final class PackageUrlParser
      * Value format: {@code type:namespace/name@version?qualifiers#subpath}
      */
     public PackageUrl parse(final String value) {
+        return parse((CharSequence) value);
+    }
+
+    /**
+     * Parse package-url from given characters.
+     *
+     * Only {@link String} values are looked up in or added to the {@link #cache(int) cache}, and the
+     * {@link #interner(PackageUrlInterner) interner} only shares the parsed instances; so other characters are never
+     * copied to a {@link String} as a whole.
+     *
+     * @see #parse(String)
+     */
+    public PackageUrl parse(final CharSequence value) {
         requireNonNull(value);
 
-        Pattern pattern;
-        if (value.startsWith(PackageUrl.SCHEME + ":")) {
-            pattern = PURL_SCHEME_PATTERN;
+        Object result = parseCached(value);
+        if (result instanceof PackageUrl) {
+            return (PackageUrl) result;
+        }
+        throw ((PackageUrlParseResult) result).exception(stackTraces);
+    }
+
+    /**
+     * Parse package-url from given range of characters.
+     *
+     * @see #parse(CharSequence)
+     */
+    public PackageUrl parse(final char[] value, final int offset, final int length) {
+        return parse(CharBuffer.wrap(value, offset, length));
+    }
+
+    /**
+     * Parse package-url from given range of {@code UTF-8} bytes.
+     *
+     * @see #parse(CharSequence)
+     */
+    public PackageUrl parse(final byte[] value, final int offset, final int length) {
+        return parse(ByteBuffer.wrap(value, offset, length));
+    }
+
+    /**
+     * Parse package-url from the remaining {@code UTF-8} bytes of given buffer; without changing its position.
+     *
+     * @see #parse(CharSequence)
+     */
+    public PackageUrl parse(final ByteBuffer value) {
+        return parse(AsciiCharSequence.of(value));
+    }
+
+    /**
+     * Parse package-url from given value; reporting an invalid value in the result rather than throwing.
+     *
+     * @see #parse(String)
+     */
+    public PackageUrlParseResult tryParse(final String value) {
+        return tryParse((CharSequence) value);
+    }
+
+    /**
+     * Parse package-url from given characters; reporting invalid characters in the result rather than throwing.
+     *
+     * @see #parse(CharSequence)
+     */
+    public PackageUrlParseResult tryParse(final CharSequence value) {
+        requireNonNull(value);
+
+        Object result = parseCached(value);
+        if (result instanceof PackageUrl) {
+            return PackageUrlParseResult.success((PackageUrl) result);
+        }
+        return (PackageUrlParseResult) result;
+    }
+
+    /**
+     * Parse package-url from given range of characters; reporting invalid characters in the result rather than throwing.
+     *
+     * @see #parse(char[], int, int)
+     */
+    public PackageUrlParseResult tryParse(final char[] value, final int offset, final int length) {
+        return tryParse(CharBuffer.wrap(value, offset, length));
+    }
+
+    /**
+     * Parse package-url from given range of {@code UTF-8} bytes; reporting invalid bytes in the result rather than
+     * throwing.
+     *
+     * @see #parse(byte[], int, int)
+     */
+    public PackageUrlParseResult tryParse(final byte[] value, final int offset, final int length) {
+        return tryParse(ByteBuffer.wrap(value, offset, length));
+    }
+
+    /**
+     * Parse package-url from the remaining {@code UTF-8} bytes of given buffer; reporting invalid bytes in the result
+     * rather than throwing.
+     *
+     * @see #parse(ByteBuffer)
+     */
+    public PackageUrlParseResult tryParse(final ByteBuffer value) {
+        return tryParse(AsciiCharSequence.of(value));
+    }
+
+    /**
+     * Lazily parse newline-delimited package-urls from given reader.
+     *
+     * Lines end with {@code \n}, {@code \r} or {@code \r\n}; empty lines are skipped.  Invalid lines are reported in
+     * their {@link PackageUrlLine#getResult() result} rather than ending the stream.  The reader is not closed.
+     *
+     * @throws java.io.UncheckedIOException from stream operations if reading fails
+     */
+    public Stream<PackageUrlLine> parseAll(final Reader reader) {
+        return PackageUrlLines.stream(this, requireNonNull(reader));
+    }
+
+    /**
+     * Lazily parse newline-delimited package-urls from given {@code UTF-8} input; parsing each line directly from the
+     * read buffer.  The input is not closed.
+     *
+     * @see #parseAll(Reader)
+     */
+    public Stream<PackageUrlLine> parseAll(final InputStream input) {
+        return PackageUrlLines.stream(this, Channels.newChannel(requireNonNull(input)));
+    }
+
+    /**
+     * Lazily parse newline-delimited package-urls from given {@code UTF-8} file; mapping a window of it into memory at
+     * a time, so memory use does not grow with the size of the file.  Closing the stream closes the file.
+     *
+     * If made {@link Stream#parallel() parallel} the file is split into ranges of whole lines, as with
+     * {@link #parseAllParallel(Path, boolean)}.
+     *
+     * @see #parseAll(Reader)
+     */
+    public Stream<PackageUrlLine> parseAll(final Path path) throws IOException {
+        return parseAll(path, false, true);
+    }
+
+    /**
+     * Parse newline-delimited package-urls from given {@code UTF-8} file in parallel.
+     *
+     * The file is split into ranges of whole lines which are parsed concurrently; lines keep their line numbers.  The
+     * stream runs in the {@link java.util.concurrent.ForkJoinPool#commonPool() common pool}, or in the pool its
+     * terminal operation is invoked from; eg. {@code pool.submit(() -> stream.forEach(action)).join()}.
+     *
+     * If {@code ordered} then lines are encountered in the order of the file, otherwise the stream is
+     * {@link Stream#unordered() unordered}; which is cheaper for order-sensitive operations such as
+     * {@link Stream#collect collect} or {@link Stream#limit(long) limit}.
+     *
+     * @see #parseAll(Path)
+     */
+    public Stream<PackageUrlLine> parseAllParallel(final Path path, final boolean ordered) throws IOException {
+        return parseAll(path, true, ordered);
+    }
+
+    private Stream<PackageUrlLine> parseAll(final Path path, final boolean parallel, final boolean ordered)
+            throws IOException
+    {
+        return parseAll(path, parallel, ordered, PackageUrlLines.WINDOW_SIZE, PackageUrlLines.MINIMUM_SPLIT_SIZE);
+    }
+
+    /**
+     * As {@link #parseAll(Path, boolean, boolean)}, mapping windows of given size and splitting ranges of given
+     * minimum size; which tests lower so that lines straddle windows and small files are split.
+     */
+    Stream<PackageUrlLine> parseAll(final Path path,
+                                    final boolean parallel,
+                                    final boolean ordered,
+                                    final int windowSize,
+                                    final long minimumSplitSize)
+            throws IOException
+    {
+        FileChannel file = FileChannel.open(path, StandardOpenOption.READ);
+        try {
+            return PackageUrlLines.stream(this, file, parallel, ordered, windowSize, minimumSplitSize).onClose(() -> {
+                try {
+                    file.close();
+                }
+                catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        }
+        catch (IOException | RuntimeException e) {
+            file.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Parse value; through the {@link #cache(int) cache} if any.
+     *
+     * @return the {@link PackageUrl} or a failed {@link PackageUrlParseResult}
+     */
+    private Object parseCached(final CharSequence value) {
+        BoundedCache<String, Object> cache = this.cache;
+        if (cache == null || !(value instanceof String)) {
+            return parseShared(value);
+        }
+
+        Object result = cache.get((String) value);
+        if (result == null) {
+            result = cache.putIfAbsent((String) value, parseShared(value));
+        }
+        return result;
+    }
+
+    /**
+     * Parse value; through the {@link #interner(PackageUrlInterner) interner} if any.
+     *
+     * @return the {@link PackageUrl} or a failed {@link PackageUrlParseResult}
+     */
+    private Object parseShared(final CharSequence value) {
+        PackageUrlScanner scanner = new PackageUrlScanner();
+        PackageUrl purl;
+        if (interner == null) {
+            purl = doParse(value, scanner);
+        }
+        else if (value instanceof String) {
+            purl = interner.intern((String) value, it -> doParse(it, scanner));
         }
         else {
-            pattern = PURL_SCHEMELESS_PATTERN;
+            purl = doParse(value, scanner);
+            if (purl != null) {
+                purl = interner.intern(purl);
+            }
+        }
+        return purl != null ? purl : scanner.failure(value);
+    }
+
+    /**
+     * Parse value; or return {@code null} with the failure recorded by the scanner.
+     */
+    @Nullable
+    private PackageUrl doParse(final CharSequence value, final PackageUrlScanner scanner) {
+        if (!scanner.scan(value)) {
+            return null;
+        }
+
+        String type = parseType(value, scanner.typeStart, scanner.typeEnd);
+        if (lazy && isDecodable(value, scanner)) {
+            String source = value.toString();
+            LazyComponents components = new LazyComponents(source, type, typeSpecificTransformations, packages, scanner);
+            return new PackageUrl(type, components, isCanonical(source, type, scanner) ? source : null);
+        }
+
+        List<String> namespace = null;
+        if (scanner.namespaceStart != -1) {
+            namespace = parseSegments(value, scanner.namespaceStart, scanner.namespaceEnd, "namespace", scanner);
+            if (scanner.errorKind != null) {
+                return null;
+            }
+        }
+
+        String name = decode(value, scanner.nameStart, scanner.nameEnd, "name", scanner);
+        if (name == null) {
+            return null;
         }
 
-        Matcher m = pattern.matcher(value);
-        if (m.matches()) {
-            return new PackageUrlBuilder()
-                    .typeSpecificTransformations(typeSpecificTransformations)
-                    .type(parseType(m.group("type")))
-                    .namespace(parseNamespace(m.group("namespace")))
-                    .name(parseName(m.group("name")))
-                    .version(parseVersion(m.group("version")))
-                    .qualifiers(parseQualifiers(m.group("qualifiers")))
-                    .subpath(parseSubpath(m.group("subpath")))
-                    .buildAndValidate(false);
+        String version = null;
+        if (scanner.versionStart != -1) {
+            version = decode(value, scanner.versionStart, scanner.versionEnd, "version", scanner);
+            if (version == null) {
+                return null;
+            }
         }
 
-        throw new InvalidException(value);
+        Map<String, String> qualifiers = null;
+        if (scanner.qualifiersStart != -1) {
+            qualifiers = parseQualifiers(value, scanner.qualifiersStart, scanner.qualifiersEnd, scanner);
+            if (scanner.errorKind != null) {
+                return null;
+            }
+        }
+
+        List<String> subpath = null;
+        if (scanner.subpathStart != -1) {
+            subpath = parseSegments(value, scanner.subpathStart, scanner.subpathEnd, "subpath", scanner, ".", "..");
+            if (scanner.errorKind != null) {
+                return null;
+            }
+        }
+
+        return new PackageUrlBuilder()
+                .typeSpecificTransformations(typeSpecificTransformations)
+                .type(type)
+                .namespace(namespace)
+                .name(name)
+                .version(version)
+                .qualifiers(qualifiers)
+                .subpath(subpath)
+                .buildAndValidate(false, packages);
+    }
+
+    /**
+     * Scan value, and check it is exactly the canonical {@link RenderFlavor#SCHEME} rendering of the package-url it
+     * parses to; so its components can be used as located by the scanner, without parsing it.
+     *
+     * Conservative, as {@link #isCanonical(CharSequence, String, PackageUrlScanner)}.
+     */
+    boolean isCanonical(final CharSequence value, final PackageUrlScanner scanner) {
+        return scanner.scan(value)
+               && isDecodable(value, scanner)
+               && isCanonical(value, parseType(value, scanner.typeStart, scanner.typeEnd), scanner);
+    }
+
+    /**
+     * Check the components located by scanner decode without failure; ie. that {@link #doParse} would not fail.
+     */
+    private static boolean isDecodable(final CharSequence value, final PackageUrlScanner scanner) {
+        if (scanner.namespaceStart != -1
+                && !isDecodableSegments(value, scanner.namespaceStart, scanner.namespaceEnd, false)) {
+            return false;
+        }
+        if (PercentEncoding.malformedEscape(value, scanner.nameStart, scanner.nameEnd) != -1) {
+            return false;
+        }
+        if (scanner.versionStart != -1
+                && PercentEncoding.malformedEscape(value, scanner.versionStart, scanner.versionEnd) != -1) {
+            return false;
+        }
+        if (scanner.qualifiersStart != -1) {
+            int start = scanner.qualifiersStart;
+            while (start < scanner.qualifiersEnd) {
+                int separator = MoreStrings.indexOf(value, '&', start, scanner.qualifiersEnd);
+                if (separator == -1) {
+                    separator = scanner.qualifiersEnd;
+                }
+                int equals = MoreStrings.indexOf(value, '=', start, separator);
+                if (PercentEncoding.malformedEscape(value, equals + 1, separator) != -1) {
+                    return false;
+                }
+                start = separator + 1;
+            }
+        }
+        return scanner.subpathStart == -1
+               || isDecodableSegments(value, scanner.subpathStart, scanner.subpathEnd, true);
+    }
+
+    /**
+     * Check range of value decodes to segments without failure; ie. that {@link #parseSegments} would not fail.
+     */
+    private static boolean isDecodableSegments(final CharSequence value,
+                                               int start,
+                                               int end,
+                                               final boolean subpath)
+    {
+        if (end > start && value.charAt(start) == '/') {
+            start++;
+        }
+        if (end > start && value.charAt(end - 1) == '/') {
+            end--;
+        }
+        if (start == end) {
+            return false;
+        }
+        while (end > start && value.charAt(end - 1) == '/') {
+            end--;
+        }
+
+        while (start < end) {
+            int slash = MoreStrings.indexOf(value, '/', start, end);
+            if (slash == -1) {
+                slash = end;
+            }
+            if (slash == start
+                    || PercentEncoding.malformedEscape(value, start, slash) != -1
+                    || PercentEncoding.containsEscaped(value, start, slash, '/')
+                    || (subpath && isDotSegment(value, start, slash))) {
+                return false;
+            }
+            start = slash + 1;
+        }
+        return true;
+    }
+
+    /**
+     * Check range of value, which has no malformed escapes, decodes to {@code .} or {@code ..}.
+     */
+    private static boolean isDotSegment(final CharSequence value, final int start, final int end) {
+        int dots = 0;
+        for (int i = start; i < end; i++) {
+            char c = value.charAt(i);
+            if (c == '%' && PercentEncoding.escapedByte(value, i, end) == '.') {
+                i += 2;
+            }
+            else if (c != '.') {
+                return false;
+            }
+            dots++;
+        }
+        return dots <= 2;
+    }
+
+    /**
+     * Check the value scanned, which is decodable, is exactly the canonical {@link RenderFlavor#SCHEME} rendering of
+     * the package-url it parses to.
+     *
+     * Conservative; values with escaped non-ASCII characters are never recognised.
+     */
+    private boolean isCanonical(final CharSequence value, final String type, final PackageUrlScanner scanner) {
+        // "pkg:type/" without further slashes; with a lower-case type
+        if (scanner.typeStart != PackageUrl.SCHEME.length() + 1
+                || hasUpperCase(value, scanner.typeStart, scanner.typeEnd)) {
+            return false;
+        }
+
+        boolean lowerCaseNamespace = false;
+        boolean lowerCaseName = false;
+        if (typeSpecificTransformations) {
+            switch (type) {
+                case "github":
+                case "bitbucket":
+                    lowerCaseNamespace = true;
+                    lowerCaseName = true;
+                    break;
+
+                case "pypi":
+                    if (MoreStrings.indexOf(value, '_', scanner.nameStart, scanner.nameEnd) != -1) {
+                        return false;
+                    }
+                    lowerCaseName = true;
+                    break;
+            }
+        }
+
+        if (scanner.namespaceStart != -1
+                && !isCanonicalSegments(value, scanner.namespaceStart, scanner.namespaceEnd, lowerCaseNamespace)) {
+            return false;
+        }
+        if (!PercentEncoding.isEncoded(value, scanner.nameStart, scanner.nameEnd, true, lowerCaseName)) {
+            return false;
+        }
+        if (scanner.versionStart != -1
+                && !PercentEncoding.isEncoded(value, scanner.versionStart, scanner.versionEnd, false, false)) {
+            return false;
+        }
+        if (scanner.qualifiersStart != -1
+                && !isCanonicalQualifiers(value, scanner.qualifiersStart, scanner.qualifiersEnd)) {
+            return false;
+        }
+        return scanner.subpathStart == -1
+               || isCanonicalSegments(value, scanner.subpathStart, scanner.subpathEnd, false);
+    }
+
+    /**
+     * Check range of value is exactly the rendering of the segments it parses to.
+     */
+    private static boolean isCanonicalSegments(final CharSequence value,
+                                               final int start,
+                                               final int end,
+                                               final boolean lowerCase)
+    {
+        if (value.charAt(start) == '/' || value.charAt(end - 1) == '/') {
+            return false;
+        }
+        for (int i = start + 1; i < end; i++) {
+            if (value.charAt(i) == '/' && value.charAt(i - 1) == '/') {
+                return false;
+            }
+        }
+        return PercentEncoding.isEncoded(value, start, end, false, lowerCase);
+    }
+
+    /**
+     * Check range of value is exactly the rendering of the qualifiers it parses to; ie. with lower-case keys in order,
+     * and no blank values.
+     */
+    private static boolean isCanonicalQualifiers(final CharSequence value, int start, final int end) {
+        int previousStart = -1;
+        int previousEnd = -1;
+        while (start < end) {
+            int separator = MoreStrings.indexOf(value, '&', start, end);
+            if (separator == -1) {
+                separator = end;
+            }
+            int equals = MoreStrings.indexOf(value, '=', start, separator);
+            if (hasUpperCase(value, start, equals)) {
+                return false;
+            }
+            if (previousStart != -1 && MoreStrings.compare(value, previousStart, previousEnd, start, equals) >= 0) {
+                return false;
+            }
+            if (equals + 1 == separator
+                    || !PercentEncoding.isEncoded(value, equals + 1, separator, false, false)
+                    || PercentEncoding.isBlankEncoded(value, equals + 1, separator)) {
+                return false;
+            }
+            previousStart = start;
+            previousEnd = equals;
+            start = separator + 1;
+        }
+        return true;
+    }
+
+    private static boolean hasUpperCase(final CharSequence value, final int start, final int end) {
+        for (int i = start; i < end; i++) {
+            char c = value.charAt(i);
+            if (c >= 'A' && c <= 'Z') {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Decode range of value; or return {@code null} with the failure recorded by the scanner.
+     */
+    @Nullable
+    private static String decode(final CharSequence value,
+                                 final int start,
+                                 final int end,
+                                 final String component,
+                                 final PackageUrlScanner scanner)
+    {
+        String decoded = PercentEncoding.tryDecode(value, start, end);
+        if (decoded == null) {
+            scanner.fail(ParseErrorKind.ILLEGAL_ESCAPE, component, PercentEncoding.malformedEscape(value, start, end),
+                    MoreStrings.substring(value, start, end), null);
+        }
+        return decoded;
     }
 
     /**
@@ -113,12 +718,37 @@ public final class PackageUrlParser
         return MoreStrings.lowerCase(value);
     }
 
+    /**
+     * Parse {@link PackageUrl#type} from given range of value; sharing the instance of a {@link #KNOWN_TYPES known type}.
+     */
+    private static String parseType(final CharSequence value, final int start, final int end) {
+        for (String known : KNOWN_TYPES) {
+            if (known.length() == end - start && isType(value, start, known)) {
+                return known;
+            }
+        }
+        return parseType(MoreStrings.substring(value, start, end));
+    }
+
+    /**
+     * Whether value at given start is given lower case type, ignoring case; type characters only differ from their lower
+     * case by bit {@code 0x20}.
+     */
+    private static boolean isType(final CharSequence value, final int start, final String type) {
+        for (int i = 0; i < type.length(); i++) {
+            if ((value.charAt(start + i) | 0x20) != type.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
     /**
      * Parse {@link PackageUrl#namespace} segments.
      */
     @Nullable
     static List<String> parseNamespace(@Nullable final String value) {
-        return parseSegments(value);
+        return parseSegments(value, "namespace");
     }
 
     /**
@@ -160,58 +790,127 @@ public final class PackageUrlParser
         return result.isEmpty() ? null : result;
     }
 
+    /**
+     * Parse {@link PackageUrl#qualifiers} map from range of value already validated by {@link PackageUrlScanner}; or
+     * return {@code null} with the failure recorded by the scanner.
+     */
+    @Nullable
+    static Map<String, String> parseQualifiers(final CharSequence value,
+                                                       int start,
+                                                       final int end,
+                                                       final PackageUrlScanner scanner)
+    {
+        Map<String, String> result = new LinkedHashMap<>();
+        while (start < end) {
+            int separator = MoreStrings.indexOf(value, '&', start, end);
+            if (separator == -1) {
+                separator = end;
+            }
+            int equals = MoreStrings.indexOf(value, '=', start, separator);
+            String v = decode(value, equals + 1, separator, "qualifiers", scanner);
+            if (v == null) {
+                return null;
+            }
+            result.put(MoreStrings.substring(value, start, equals), v);
+            start = separator + 1;
+        }
+
+        return result.isEmpty() ? null : result;
+    }
+
     /**
      * Parse {@link PackageUrl#subpath} segments.
      */
     @Nullable
     static List<String> parseSubpath(@Nullable final String value) {
-        return parseSegments(value, ".", "..");
+        return parseSegments(value, "subpath", ".", "..");
     }
 
     /**
      * Parse segments from value.
      */
     @Nullable
-    static List<String> parseSegments(@Nullable final String value, final String... invalids) {
+    private static List<String> parseSegments(@Nullable final String value,
+                                              final String component,
+                                              final String... invalids)
+    {
         if (value == null) {
             return null;
         }
 
-        String[] parts = stripSlashes(value).split("/");
+        PackageUrlScanner scanner = new PackageUrlScanner();
+        List<String> result = parseSegments(value, 0, value.length(), component, scanner, invalids);
+        if (scanner.errorKind != null) {
+            throw scanner.failure(value).toException();
+        }
+        return result;
+    }
+
+    /**
+     * Parse segments from range of value; or return {@code null} with the failure recorded by the scanner.
+     *
+     * A single leading and trailing {@code /} is ignored, as are any further trailing {@code /}s.
+     */
+    @Nullable
+    static List<String> parseSegments(final CharSequence value,
+                                              int start,
+                                              int end,
+                                              final String component,
+                                              final PackageUrlScanner scanner,
+                                              final String... invalids)
+    {
+        final int componentStart = start;
+        final int componentEnd = end;
+        if (end > start && value.charAt(start) == '/') {
+            start++;
+        }
+        if (end > start && value.charAt(end - 1) == '/') {
+            end--;
+        }
+        if (start == end) {
+            scanner.fail(ParseErrorKind.EMPTY_SEGMENT, component, start,
+                    MoreStrings.substring(value, componentStart, componentEnd), null);
+            return null;
+        }
+        while (end > start && value.charAt(end - 1) == '/') {
+            end--;
+        }
+
         List<String> result = new ArrayList<>();
-        for (String part : parts) {
-            if (part.isEmpty()) {
-                throw new EmptySegmentException(value);
+        while (start < end) {
+            int slash = MoreStrings.indexOf(value, '/', start, end);
+            if (slash == -1) {
+                slash = end;
+            }
+            if (slash == start) {
+                scanner.fail(ParseErrorKind.EMPTY_SEGMENT, component, start,
+                        MoreStrings.substring(value, componentStart, componentEnd), null);
+                return null;
+            }
+            String part = decode(value, start, slash, component, scanner);
+            if (part == null) {
+                return null;
             }
-            part = PercentEncoding.decode(part);
 
             // decoded segment must not contain a segment separator
-            if (part.contains("/")) {
-                throw new IllegalSegmentContentException("/", value);
+            if (part.indexOf('/') != -1) {
+                scanner.fail(ParseErrorKind.ILLEGAL_SEGMENT_CONTENT, component, start,
+                        MoreStrings.substring(value, componentStart, componentEnd), "/");
+                return null;
             }
 
             // decoded segment must not contain any invalid values
             for (String invalid : invalids) {
                 if (part.equals(invalid)) {
-                    throw new IllegalSegmentContentException(invalid, value);
+                    scanner.fail(ParseErrorKind.ILLEGAL_SEGMENT_CONTENT, component, start,
+                            MoreStrings.substring(value, componentStart, componentEnd), invalid);
+                    return null;
                 }
             }
             result.add(part);
+            start = slash + 1;
         }
 
         return result.isEmpty() ? null : result;
     }
-
-    /**
-     * Strip leading and trailing {@code /} chars from value.
-     */
-    private static String stripSlashes(String value) {
-        if (value.charAt(0) == '/') {
-            value = value.substring(1);
-        }
-        if (value.charAt(value.length() - 1) == '/') {
-            value = value.substring(0, value.length() - 1);
-        }
-        return value;
-    }
 }
@@ -0,0 +1,413 @@
+package dev.mccue.purl;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.jspecify.annotations.Nullable;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Pattern of package-urls; a package-url with wildcards, eg. {@code pkg:npm/@acme/*} or
+ * {@code pkg:maven/org.apache.logging.log4j/log4j-core@>=2.0|<2.17.1?!classifier}.
+ *
+ * Written as a package-url, with components matching as:
+ * <ul>
+ *     <li>type, namespace segments and name: {@code *} matches any one; a namespace segment of {@code **} matches any
+ *     number of segments, including none.  A namespace matches only package-urls with the same number of segments,
+ *     unless it has {@code **}; so {@code pkg:npm/*} does not match scoped packages, but {@code pkg:npm/**}{@code /*}
+ *     matches every package.</li>
+ *     <li>version: if absent, any version or none; {@code *} any version.  A version with any of {@code <>=!|} is a
+ *     range, in the {@link VersionRange vers} syntax and in the versioning scheme of the type, eg.
+ *     {@code @>=1.0|<2.0}; otherwise it matches exactly.</li>
+ *     <li>qualifiers: each {@code key=value} requires the qualifier with that value, {@code key=*} with any value, and
+ *     {@code !key} requires its absence; other qualifiers are ignored.</li>
+ *     <li>subpath: if absent, any subpath or none; otherwise exactly.</li>
+ * </ul>
+ * Literals are percent-decoded, and transformed as the parser transforms the components of their type; so
+ * {@code pkg:pypi/Django_Utils} matches {@code pkg:pypi/django-utils}.
+ *
+ * Immutable, so safe for use by concurrent threads.
+ *
+ * @see PackageUrlMatcher
+ */
+public final class PackageUrlPattern
+{
+    private static final String WILDCARD = "*";
+
+    private static final String ANY_SEGMENTS = "**";
+
+    private final String value;
+
+    /**
+     * Lower case type; {@code null} if any.
+     */
+    @Nullable
+    private final String type;
+
+    /**
+     * Namespace segments, which are {@link Segment#ANY} or {@link Segment#ANY_SEGMENTS} for wildcards; empty if none.
+     */
+    private final Segment[] namespace;
+
+    /**
+     * Name; {@code null} if any.
+     */
+    @Nullable
+    private final String name;
+
+    /**
+     * Whether a version is required; by {@link #version} or {@link #versionRange} if either is set.
+     */
+    private final boolean versioned;
+
+    @Nullable
+    private final String version;
+
+    @Nullable
+    private final VersionRange versionRange;
+
+    /**
+     * Alternating qualifier keys and values; with the {@link #WILDCARD} instance as the value for any value, so a
+     * decoded {@code %2A} is still a literal, and {@code null} for absence.
+     */
+    private final String[] qualifiers;
+
+    @Nullable
+    private final List<String> subpath;
+
+    private PackageUrlPattern(final String value,
+                              @Nullable final String type,
+                              final Segment[] namespace,
+                              @Nullable final String name,
+                              final boolean versioned,
+                              @Nullable final String version,
+                              @Nullable final VersionRange versionRange,
+                              final String[] qualifiers,
+                              @Nullable final List<String> subpath)
+    {
+        this.value = value;
+        this.type = type;
+        this.namespace = namespace;
+        this.name = name;
+        this.versioned = versioned;
+        this.version = version;
+        this.versionRange = versionRange;
+        this.qualifiers = qualifiers;
+        this.subpath = subpath;
+    }
+
+    /**
+     * Parse pattern from given value.
+     *
+     * @throws IllegalArgumentException if the value is not a pattern
+     */
+    public static PackageUrlPattern parse(final String value) {
+        requireNonNull(value);
+        String prefix = PackageUrl.SCHEME + ':';
+        if (!value.startsWith(prefix)) {
+            throw invalid(value, "missing " + prefix + " prefix");
+        }
+        int start = prefix.length();
+        while (start < value.length() && value.charAt(start) == '/') {
+            start++;
+        }
+        int end = value.length();
+
+        List<String> subpath = null;
+        int hash = value.indexOf('#', start);
+        if (hash != -1) {
+            subpath = new ArrayList<>();
+            for (String segment : value.substring(hash + 1).split("/")) {
+                if (!segment.isEmpty()) {
+                    subpath.add(decode(value, segment));
+                }
+            }
+            end = hash;
+        }
+
+        String[] qualifiers = new String[0];
+        int question = value.lastIndexOf('?', end - 1);
+        if (question >= start) {
+            qualifiers = qualifiers(value, value.substring(question + 1, end));
+            end = question;
+        }
+
+        int slash = value.indexOf('/', start);
+        if (slash == -1 || slash >= end) {
+            throw invalid(value, "missing name");
+        }
+        String rawType = value.substring(start, slash);
+        String type = null;
+        if (!rawType.equals(WILDCARD)) {
+            type = MoreStrings.lowerCase(rawType);
+            try {
+                PackageUrlValidator.validateType(type);
+            }
+            catch (InvalidException e) {
+                throw invalid(value, "illegal type");
+            }
+        }
+
+        while (end > slash + 1 && value.charAt(end - 1) == '/') {
+            end--;
+        }
+        int nameStart = value.lastIndexOf('/', end - 1) + 1;
+        String rawVersion = null;
+        int at = value.indexOf('@', nameStart);
+        if (at != -1 && at < end) {
+            rawVersion = value.substring(at + 1, end);
+            end = at;
+        }
+        if (nameStart == end) {
+            throw invalid(value, "missing name");
+        }
+
+        String name = value.substring(nameStart, end);
+        name = name.equals(WILDCARD) ? null : transformName(type, decode(value, name));
+
+        List<Segment> namespace = new ArrayList<>();
+        for (String segment : value.substring(slash + 1, nameStart).split("/")) {
+            if (segment.equals(WILDCARD)) {
+                namespace.add(Segment.ANY);
+            }
+            else if (segment.equals(ANY_SEGMENTS)) {
+                namespace.add(Segment.ANY_SEGMENTS);
+            }
+            else if (!segment.isEmpty()) {
+                namespace.add(new Segment(transformSegment(type, decode(value, segment))));
+            }
+        }
+
+        String version = null;
+        VersionRange versionRange = null;
+        if (rawVersion != null) {
+            if (rawVersion.isEmpty()) {
+                throw invalid(value, "missing version");
+            }
+            if (isRange(rawVersion)) {
+                try {
+                    versionRange = VersionRange.parse("vers:" + (type != null ? type : "generic") + '/' + rawVersion);
+                }
+                catch (IllegalArgumentException e) {
+                    throw invalid(value, "illegal version range");
+                }
+            }
+            else if (!rawVersion.equals(WILDCARD)) {
+                version = decode(value, rawVersion);
+            }
+        }
+
+        return new PackageUrlPattern(value, type, namespace.toArray(new Segment[0]), name, rawVersion != null, version,
+                versionRange, qualifiers, subpath);
+    }
+
+    private static IllegalArgumentException invalid(final String value, final String reason) {
+        return new IllegalArgumentException("Invalid package-url pattern: " + reason + ": " + value);
+    }
+
+    private static String decode(final String value, final String component) {
+        String result = PercentEncoding.tryDecode(component, 0, component.length());
+        if (result == null) {
+            throw invalid(value, "illegal escape");
+        }
+        return result;
+    }
+
+    private static String transformName(@Nullable final String type, final String name) {
+        return type != null ? PackageUrlBuilder.transformName(type, name) : name;
+    }
+
+    private static String transformSegment(@Nullable final String type, final String segment) {
+        String[] result = {segment};
+        if (type != null) {
+            PackageUrlBuilder.transformNamespace(type, result);
+        }
+        return result[0];
+    }
+
+    private static boolean isRange(final String version) {
+        for (int i = 0; i < version.length(); i++) {
+            switch (version.charAt(i)) {
+                case '<':
+                case '>':
+                case '=':
+                case '!':
+                case '|':
+                    return true;
+                default:
+                    break;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Parse qualifier rules; as alternating keys and values.
+     */
+    private static String[] qualifiers(final String value, final String rules) {
+        List<String> result = new ArrayList<>();
+        for (String rule : rules.split("&")) {
+            if (rule.isEmpty()) {
+                continue;
+            }
+            if (rule.charAt(0) == '!') {
+                result.add(qualifierKey(value, rule.substring(1)));
+                result.add(null);
+                continue;
+            }
+            int equals = rule.indexOf('=');
+            if (equals == -1 || equals == rule.length() - 1) {
+                throw invalid(value, "missing qualifier value");
+            }
+            result.add(qualifierKey(value, rule.substring(0, equals)));
+            String qualifierValue = rule.substring(equals + 1);
+            result.add(qualifierValue.equals(WILDCARD) ? WILDCARD : decode(value, qualifierValue));
+        }
+        Set<String> keys = new HashSet<>();
+        for (int i = 0; i < result.size(); i += 2) {
+            if (!keys.add(result.get(i))) {
+                throw invalid(value, "duplicate qualifier: " + result.get(i));
+            }
+        }
+        return result.toArray(new String[0]);
+    }
+
+    private static String qualifierKey(final String value, final String key) {
+        if (key.isEmpty()) {
+            throw invalid(value, "missing qualifier key");
+        }
+        return MoreStrings.lowerCase(key);
+    }
+
+    /**
+     * Whether given package-url matches the pattern.
+     */
+    public boolean matches(final PackageUrl purl) {
+        if (type != null && !type.equals(MoreStrings.lowerCase(purl.getType()))) {
+            return false;
+        }
+        if (name != null && !name.equals(purl.getName())) {
+            return false;
+        }
+        String[] segments = purl.namespace();
+        if (!matchesNamespace(segments != null ? segments : new String[0], 0, 0)) {
+            return false;
+        }
+        return matchesRest(purl);
+    }
+
+    private boolean matchesNamespace(final String[] segments, final int from, final int patternFrom) {
+        int i = from;
+        for (int j = patternFrom; j < namespace.length; j++) {
+            Segment segment = namespace[j];
+            if (segment == Segment.ANY_SEGMENTS) {
+                for (int k = i; k <= segments.length; k++) {
+                    if (matchesNamespace(segments, k, j + 1)) {
+                        return true;
+                    }
+                }
+                return false;
+            }
+            if (i == segments.length || segment != Segment.ANY && !segment.value.equals(segments[i])) {
+                return false;
+            }
+            i++;
+        }
+        return i == segments.length;
+    }
+
+    /**
+     * Whether the version, qualifiers and subpath of given package-url match; whatever its type, namespace and name.
+     */
+    boolean matchesRest(final PackageUrl purl) {
+        if (versioned) {
+            String purlVersion = purl.getVersion();
+            if (purlVersion == null
+                    || version != null && !version.equals(purlVersion)
+                    || versionRange != null && !versionRange.matches(purl))
+            {
+                return false;
+            }
+        }
+        if (qualifiers.length != 0) {
+            Map<String, String> purlQualifiers = purl.getQualifiers();
+            for (int i = 0; i < qualifiers.length; i += 2) {
+                String purlValue = purlQualifiers != null ? purlQualifiers.get(qualifiers[i]) : null;
+                String rule = qualifiers[i + 1];
+                boolean matched = rule == null ? purlValue == null :
+                                  purlValue != null && (rule == WILDCARD || rule.equals(purlValue));
+                if (!matched) {
+                    return false;
+                }
+            }
+        }
+        return subpath == null || subpath.equals(purl.getSubpath() != null ? purl.getSubpath() : List.of());
+    }
+
+    /**
+     * Lower case type; {@code null} if any.
+     */
+    @Nullable
+    String type() {
+        return type;
+    }
+
+    Segment[] namespace() {
+        return namespace;
+    }
+
+    /**
+     * Name; {@code null} if any.
+     */
+    @Nullable
+    String name() {
+        return name;
+    }
+
+    @Override
+    public boolean equals(final Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        return value.equals(((PackageUrlPattern) o).value);
+    }
+
+    @Override
+    public int hashCode() {
+        return value.hashCode();
+    }
+
+    /**
+     * The pattern as parsed.
+     */
+    @Override
+    public String toString() {
+        return value;
+    }
+
+    /**
+     * Namespace segment of a pattern.
+     */
+    static final class Segment
+    {
+        static final Segment ANY = new Segment(WILDCARD);
+
+        static final Segment ANY_SEGMENTS = new Segment(PackageUrlPattern.ANY_SEGMENTS);
+
+        /**
+         * Decoded segment; unless a wildcard.
+         */
+        final String value;
+
+        Segment(final String value) {
+            this.value = value;
+        }
+    }
+}
@@ -0,0 +1,340 @@
+package dev.mccue.purl;
+
+import org.jspecify.annotations.Nullable;
+
+/**
+ * Single pass {@link PackageUrl} scanner.
+ *
+ * Locates the boundaries of each component in one left-to-right pass, accepting exactly the
+ * same inputs the {@code type:namespace/name@version?qualifiers#subpath} grammar described by
+ * the component expressions in {@link PackageUrlParser} does.
+ *
+ * Offsets are half-open {@code [start, end)} ranges into the scanned value; absent components
+ * have a start of {@code -1}.
+ *
+ * Also records why parsing failed; either while scanning or while decoding the located components.
+ */
+final class PackageUrlScanner
+{
+    int typeStart;
+
+    int typeEnd;
+
+    int namespaceStart;
+
+    int namespaceEnd;
+
+    int nameStart;
+
+    int nameEnd;
+
+    int versionStart;
+
+    int versionEnd;
+
+    int qualifiersStart;
+
+    int qualifiersEnd;
+
+    int subpathStart;
+
+    int subpathEnd;
+
+    @Nullable
+    ParseErrorKind errorKind;
+
+    @Nullable
+    String errorComponent;
+
+    int errorOffset;
+
+    @Nullable
+    String errorComponentValue;
+
+    @Nullable
+    String errorContent;
+
+    /**
+     * Scan given value; returning {@code false} if it is not a structurally valid package-url.
+     */
+    boolean scan(final CharSequence value) {
+        errorKind = null;
+        errorComponent = errorComponentValue = errorContent = null;
+        errorOffset = -1;
+        typeStart = typeEnd = -1;
+        namespaceStart = namespaceEnd = -1;
+        nameStart = nameEnd = -1;
+        versionStart = versionEnd = -1;
+        qualifiersStart = qualifiersEnd = -1;
+        subpathStart = subpathEnd = -1;
+
+        final int length = value.length();
+        int i;
+        boolean schemeless;
+
+        //
+        // type; either "pkg:" followed by any number of "/" and "type/" or "type:" followed by an optional "//"
+        //
+
+        if (hasScheme(value)) {
+            schemeless = false;
+            i = PackageUrl.SCHEME.length() + 1;
+            while (i < length && value.charAt(i) == '/') {
+                i++;
+            }
+        }
+        else {
+            schemeless = true;
+            i = 0;
+        }
+
+        typeStart = i;
+        if (i == length || !isAlpha(value.charAt(i))) {
+            return fail("type", i);
+        }
+        i++;
+        while (i < length && isTypeChar(value.charAt(i))) {
+            i++;
+        }
+        typeEnd = i;
+        if (i == length || value.charAt(i) != (schemeless ? ':' : '/')) {
+            return fail("type", i);
+        }
+        i++;
+
+        boolean doubleSlash = false;
+        if (schemeless && i + 1 < length && value.charAt(i) == '/' && value.charAt(i + 1) == '/') {
+            doubleSlash = true;
+            i += 2;
+        }
+
+        //
+        // namespace and name; everything up to the first '@', '?' or '#' with the name following the last '/'
+        //
+
+        final int remainder = i;
+        int lastSlash = -1;
+        char c = 0;
+        while (i < length) {
+            c = value.charAt(i);
+            if (c == '@' || c == '?' || c == '#') {
+                break;
+            }
+            if (c == '/') {
+                lastSlash = i;
+            }
+            i++;
+        }
+        final int p = i;
+
+        if (lastSlash == -1) {
+            nameStart = remainder;
+        }
+        else {
+            if (lastSlash == remainder) {
+                // an empty namespace is only possible by treating the "//" as part of the namespace
+                if (!doubleSlash) {
+                    return fail("namespace", remainder);
+                }
+                namespaceStart = remainder - 2;
+            }
+            else {
+                namespaceStart = remainder;
+            }
+            namespaceEnd = lastSlash;
+            nameStart = lastSlash + 1;
+        }
+        nameEnd = p;
+        if (nameStart == nameEnd) {
+            return fail("name", nameStart);
+        }
+
+        if (p == length) {
+            return true;
+        }
+
+        //
+        // version, qualifiers and subpath; resolved in one pass tracking:
+        //
+        // * the subpath '#'; the first '#' after the last line terminator which is not the last character
+        // * the '&' (if any) closest to that '#' which is not followed by a valid qualifier key
+        // * the first '?' after that '&' which is followed by a valid qualifier key
+        //
+        // The version is the shortest value without line terminators followed by valid qualifiers and/or subpath.
+        //
+
+        final char delimiter = c;
+        final boolean versioned = delimiter == '@';
+        int firstLineTerminator = length;
+        int hash = -1;
+        int hashBadAmpersand = -1;
+        int hashQuery = -1;
+        int badAmpersand = -1;
+        int query = -1;
+        int key = -1;
+
+        for (i = p; i < length; i++) {
+            c = value.charAt(i);
+
+            if (key != -1) {
+                if (isKeyChar(c) && (i > key + 1 || !isDigit(c))) {
+                    continue;
+                }
+                boolean valid = c == '=' && i > key + 1;
+                if (value.charAt(key) == '&') {
+                    if (!valid) {
+                        badAmpersand = key;
+                        query = -1;
+                    }
+                }
+                else if (valid && query == -1) {
+                    query = key;
+                }
+                key = -1;
+            }
+
+            switch (c) {
+                case '\n':
+                case '\r':
+                case '\u0085':
+                case '\u2028':
+                case '\u2029':
+                    if (firstLineTerminator == length) {
+                        firstLineTerminator = i;
+                    }
+                    hash = -1;
+                    break;
+
+                case '#':
+                    // a '#' or '?' directly after '@' would leave the version empty
+                    if (hash == -1 && (!versioned || i != p + 1)) {
+                        hash = i;
+                        hashBadAmpersand = badAmpersand;
+                        hashQuery = query;
+                    }
+                    break;
+
+                case '&':
+                    key = i;
+                    break;
+
+                case '?':
+                    if (!versioned || i != p + 1) {
+                        key = i;
+                    }
+                    break;
+            }
+        }
+
+        if (key != -1 && value.charAt(key) == '&') {
+            badAmpersand = key;
+            query = -1;
+        }
+
+        int end = length;
+        if (hash != -1 && hash < length - 1) {
+            end = hash;
+            badAmpersand = hashBadAmpersand;
+            query = hashQuery;
+            subpathStart = hash + 1;
+            subpathEnd = length;
+        }
+
+        if (versioned) {
+            versionStart = p + 1;
+            if (query != -1) {
+                if (query > firstLineTerminator) {
+                    return fail("version", firstLineTerminator);
+                }
+                versionEnd = query;
+                qualifiersStart = query + 1;
+                qualifiersEnd = end;
+            }
+            else {
+                if (end == versionStart || firstLineTerminator < end) {
+                    return fail("version", end == versionStart ? versionStart : firstLineTerminator);
+                }
+                versionEnd = end;
+            }
+        }
+        else if (delimiter == '?') {
+            if (query != p) {
+                return fail("qualifiers", (badAmpersand != -1 ? badAmpersand : p) + 1);
+            }
+            qualifiersStart = p + 1;
+            qualifiersEnd = end;
+        }
+        else if (p != end) {
+            return fail("subpath", firstLineTerminator < length ? firstLineTerminator : p + 1);
+        }
+
+        return true;
+    }
+
+    /**
+     * Record failure to scan given component at offset.
+     */
+    private boolean fail(final String component, final int offset) {
+        return fail(ParseErrorKind.INVALID, component, offset, null, null);
+    }
+
+    /**
+     * Record failure to parse given component at offset.
+     */
+    boolean fail(final ParseErrorKind kind,
+                 final String component,
+                 final int offset,
+                 @Nullable final String componentValue,
+                 @Nullable final String content)
+    {
+        this.errorKind = kind;
+        this.errorComponent = component;
+        this.errorOffset = offset;
+        this.errorComponentValue = componentValue;
+        this.errorContent = content;
+        return false;
+    }
+
+    /**
+     * Result describing the recorded failure to parse value.
+     */
+    PackageUrlParseResult failure(final CharSequence value) {
+        return PackageUrlParseResult.failure(value.toString(), errorKind, errorComponent, errorOffset, errorComponentValue,
+                errorContent);
+    }
+
+    private static boolean hasScheme(final CharSequence value) {
+        String scheme = PackageUrl.SCHEME;
+        if (value.length() <= scheme.length() || value.charAt(scheme.length()) != ':') {
+            return false;
+        }
+        for (int i = 0; i < scheme.length(); i++) {
+            if (value.charAt(i) != scheme.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isAlpha(final char c) {
+        return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z');
+    }
+
+    private static boolean isDigit(final char c) {
+        return c >= '0' && c <= '9';
+    }
+
+    /**
+     * Characters allowed after the first in {@link PackageUrlParser#TYPE}.
+     */
+    private static boolean isTypeChar(final char c) {
+        return isAlpha(c) || isDigit(c) || c == '.' || c == '+' || c == '-';
+    }
+
+    /**
+     * Characters allowed after the first in {@link PackageUrlParser#QUALIFIER_KEY}.
+     */
+    private static boolean isKeyChar(final char c) {
+        return isAlpha(c) || isDigit(c) || c == '.' || c == '-' || c == '_';
+    }
+}
@@ -0,0 +1,477 @@
+package dev.mccue.purl;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import org.jspecify.annotations.Nullable;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Append-only table of {@link PackageUrl}s; held column-wise, for holding many package-urls in little memory.
+ *
+ * Types, namespaces, names and qualifier keys are held once each, and referenced by rows as {@code int} ids; versions,
+ * qualifier values and subpath segments are held as {@code UTF-8} in one shared array.  A {@code maven} package-url
+ * without qualifiers takes about 21 bytes and the bytes of its version.
+ *
+ * Rows are read either as {@link #view(int) views}, which decode their components from the table whenever asked for,
+ * or {@link #get(int) materialized} as ordinary package-urls.  Reading rows is safe for use by concurrent threads, but
+ * appending is not; neither with other appends nor with reads.
+ */
+public final class PackageUrlTable
+{
+    private static final int VERSION = 1;
+
+    private static final int QUALIFIERS = 1 << 1;
+
+    private static final int SUBPATH = 1 << 2;
+
+    private static final int MAX_CAPACITY = Integer.MAX_VALUE - 8;
+
+    private final Dictionary<String> types = new Dictionary<>();
+
+    /**
+     * Namespace segments; by {@link Arrays#asList(Object[]) list} of them.
+     */
+    private final Dictionary<String[]> namespaces = new Dictionary<>();
+
+    private final Dictionary<String> names = new Dictionary<>();
+
+    private final Dictionary<String> qualifierKeys = new Dictionary<>();
+
+    private int size;
+
+    private int[] typeIds;
+
+    /**
+     * Namespace of each row; {@code -1} if none.
+     */
+    private int[] namespaceIds;
+
+    private int[] nameIds;
+
+    /**
+     * Which of the version, qualifiers and subpath each row has.
+     */
+    private byte[] flags;
+
+    /**
+     * End of each row in {@link #text}; which starts where the previous row ends.
+     */
+    private int[] textEnds;
+
+    /**
+     * End of each row in {@link #lengths}; which starts where the previous row ends.
+     */
+    private int[] lengthEnds;
+
+    /**
+     * Version, qualifier values and subpath segments of each row, in order; as {@code UTF-8}.
+     */
+    private byte[] text;
+
+    private int textSize;
+
+    /**
+     * Qualifiers and subpath of each row, in order; each as its size, followed by the id of the key and length of the
+     * value of each qualifier, or the length of each segment.  Only held for rows which have either.
+     */
+    private int[] lengths;
+
+    private int lengthsSize;
+
+    /**
+     * Create empty table.
+     */
+    public PackageUrlTable() {
+        this(16);
+    }
+
+    /**
+     * Create empty table with room for given number of rows.
+     */
+    public PackageUrlTable(final int initialCapacity) {
+        if (initialCapacity < 0) {
+            throw new IllegalArgumentException("Invalid initial capacity: " + initialCapacity);
+        }
+        this.typeIds = new int[initialCapacity];
+        this.namespaceIds = new int[initialCapacity];
+        this.nameIds = new int[initialCapacity];
+        this.flags = new byte[initialCapacity];
+        this.textEnds = new int[initialCapacity];
+        this.lengthEnds = new int[initialCapacity];
+        // about 8 bytes of text a row; without overflowing for very large tables
+        this.text = new byte[(int) Math.min(MAX_CAPACITY, initialCapacity * 8L)];
+        this.lengths = new int[16];
+    }
+
+    /**
+     * Number of rows.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Append package-url.
+     *
+     * @return its row
+     */
+    public int add(final PackageUrl purl) {
+        return requireNonNull(purl).appendTo(this);
+    }
+
+    /**
+     * Append package-urls; in iteration order.
+     *
+     * @return the row of the first package-url
+     */
+    public int addAll(final Collection<PackageUrl> purls) {
+        int result = size;
+        ensureCapacity(size + purls.size());
+        for (PackageUrl purl : purls) {
+            add(purl);
+        }
+        return result;
+    }
+
+    /**
+     * Append package-urls of the lines of given stream which parsed; in encounter order, eg.
+     * {@code table.addAll(PackageUrl.parser().lazy(true).parseAllParallel(path, true))}.
+     *
+     * Lines are parsed by the stream, in parallel if it is; only appending is sequential.  The stream is not closed.
+     *
+     * @return the number of lines which failed to parse, and were skipped
+     */
+    public long addAll(final Stream<PackageUrlLine> lines) {
+        long[] failed = {0};
+        lines.forEachOrdered(line -> {
+            PackageUrlParseResult result = line.getResult();
+            if (result.isSuccess()) {
+                add(result.getPackageUrl());
+            }
+            else {
+                failed[0]++;
+            }
+        });
+        return failed[0];
+    }
+
+    /**
+     * Append components of package-url.
+     */
+    int add(final String type,
+            @Nullable final String[] namespace,
+            final String name,
+            @Nullable final String version,
+            @Nullable final String[] qualifiers,
+            @Nullable final String[] subpath)
+    {
+        if (size == typeIds.length) {
+            ensureCapacity(size + 1);
+        }
+        int row = size;
+        typeIds[row] = types.id(type, type);
+        namespaceIds[row] = namespace != null ? namespaces.id(Arrays.asList(namespace), namespace) : -1;
+        nameIds[row] = names.id(name, name);
+
+        int rowFlags = 0;
+        if (version != null) {
+            rowFlags |= VERSION;
+            appendText(version);
+        }
+        if (qualifiers != null) {
+            rowFlags |= QUALIFIERS;
+            appendLength(qualifiers.length / 2);
+            for (int i = 0; i < qualifiers.length; i += 2) {
+                appendLength(qualifierKeys.id(qualifiers[i], qualifiers[i]));
+                appendLength(appendText(qualifiers[i + 1]));
+            }
+        }
+        if (subpath != null) {
+            rowFlags |= SUBPATH;
+            appendLength(subpath.length);
+            for (String segment : subpath) {
+                appendLength(appendText(segment));
+            }
+        }
+        flags[row] = (byte) rowFlags;
+        textEnds[row] = textSize;
+        lengthEnds[row] = lengthsSize;
+        // only published once whole
+        size = row + 1;
+        return row;
+    }
+
+    /**
+     * Append value to {@link #text}.
+     *
+     * @return the number of bytes appended
+     */
+    private int appendText(final String value) {
+        int length = value.length();
+        if (text.length - textSize < length) {
+            text = grow(text, textSize + (long) length);
+        }
+        for (int i = 0; i < length; i++) {
+            char c = value.charAt(i);
+            if (c >= 0x80) {
+                // back out the ASCII prefix and encode the whole value
+                byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+                if (text.length - textSize < bytes.length) {
+                    text = grow(text, textSize + (long) bytes.length);
+                }
+                System.arraycopy(bytes, 0, text, textSize, bytes.length);
+                textSize += bytes.length;
+                return bytes.length;
+            }
+            text[textSize + i] = (byte) c;
+        }
+        textSize += length;
+        return length;
+    }
+
+    private void appendLength(final int value) {
+        if (lengthsSize == lengths.length) {
+            lengths = Arrays.copyOf(lengths, capacity(lengths.length, lengthsSize + 1L));
+        }
+        lengths[lengthsSize++] = value;
+    }
+
+    private static byte[] grow(final byte[] array, final long minimum) {
+        return Arrays.copyOf(array, capacity(array.length, minimum));
+    }
+
+    /**
+     * Capacity of an array grown to hold at least given minimum; by half again, to amortize copying.
+     *
+     * @throws IllegalStateException if the minimum is more than an array can hold
+     */
+    private static int capacity(final int capacity, final long minimum) {
+        if (minimum > MAX_CAPACITY) {
+            throw new IllegalStateException("Table full: " + minimum);
+        }
+        return (int) Math.min(MAX_CAPACITY, Math.max(minimum, Math.max(16, capacity + (capacity >> 1))));
+    }
+
+    /**
+     * Make room for given number of rows; without growing again until there are more.
+     */
+    public void ensureCapacity(final int rows) {
+        if (rows <= typeIds.length) {
+            return;
+        }
+        int capacity = capacity(typeIds.length, rows);
+        typeIds = Arrays.copyOf(typeIds, capacity);
+        namespaceIds = Arrays.copyOf(namespaceIds, capacity);
+        nameIds = Arrays.copyOf(nameIds, capacity);
+        flags = Arrays.copyOf(flags, capacity);
+        textEnds = Arrays.copyOf(textEnds, capacity);
+        lengthEnds = Arrays.copyOf(lengthEnds, capacity);
+    }
+
+    /**
+     * Release room held for rows not yet appended.
+     */
+    public void trimToSize() {
+        typeIds = Arrays.copyOf(typeIds, size);
+        namespaceIds = Arrays.copyOf(namespaceIds, size);
+        nameIds = Arrays.copyOf(nameIds, size);
+        flags = Arrays.copyOf(flags, size);
+        textEnds = Arrays.copyOf(textEnds, size);
+        lengthEnds = Arrays.copyOf(lengthEnds, size);
+        text = Arrays.copyOf(text, textSize);
+        lengths = Arrays.copyOf(lengths, lengthsSize);
+    }
+
+    /**
+     * Package-url of given row; materialized, so not keeping the table reachable.
+     *
+     * @throws IndexOutOfBoundsException if there is no such row
+     */
+    public PackageUrl get(final int row) {
+        Row components = new Row(this, checkIndex(row));
+        return new PackageUrl(types.get(typeIds[row]), components.namespace(), components.name(),
+                components.version(), components.qualifiers(), components.subpath());
+    }
+
+    /**
+     * View of given row; which decodes its version, qualifiers and subpath from the table each time they are asked for.
+     *
+     * Cheaper than {@link #get(int)} for reading few components of many rows, eg. to filter them; but keeps the table
+     * reachable.
+     *
+     * @throws IndexOutOfBoundsException if there is no such row
+     */
+    public PackageUrl view(final int row) {
+        return new PackageUrl(types.get(typeIds[checkIndex(row)]), new Row(this, row), null);
+    }
+
+    /**
+     * {@link #view(int) Views} of the rows; in order.
+     */
+    public Stream<PackageUrl> stream() {
+        return IntStream.range(0, size).mapToObj(this::view);
+    }
+
+    private int checkIndex(final int row) {
+        if (row < 0 || row >= size) {
+            throw new IndexOutOfBoundsException("Invalid row: " + row + ", size: " + size);
+        }
+        return row;
+    }
+
+    /**
+     * Components of a row; read from the table.
+     */
+    private static final class Row
+            implements Components
+    {
+        private final PackageUrlTable table;
+
+        private final int row;
+
+        Row(final PackageUrlTable table, final int row) {
+            this.table = table;
+            this.row = row;
+        }
+
+        @Override
+        @Nullable
+        public String[] namespace() {
+            int id = table.namespaceIds[row];
+            return id != -1 ? table.namespaces.get(id) : null;
+        }
+
+        @Override
+        public String name() {
+            return table.names.get(table.nameIds[row]);
+        }
+
+        @Override
+        @Nullable
+        public String version() {
+            if ((table.flags[row] & VERSION) == 0) {
+                return null;
+            }
+            int start = textStart();
+            return text(start, versionEnd(start));
+        }
+
+        @Override
+        @Nullable
+        public String[] qualifiers() {
+            if ((table.flags[row] & QUALIFIERS) == 0) {
+                return null;
+            }
+            int[] lengths = table.lengths;
+            int index = lengthStart();
+            int textIndex = versionEnd(textStart());
+            String[] result = new String[lengths[index++] * 2];
+            for (int i = 0; i < result.length; i += 2) {
+                result[i] = table.qualifierKeys.get(lengths[index++]);
+                int length = lengths[index++];
+                result[i + 1] = text(textIndex, textIndex + length);
+                textIndex += length;
+            }
+            return result;
+        }
+
+        @Override
+        @Nullable
+        public String[] subpath() {
+            if ((table.flags[row] & SUBPATH) == 0) {
+                return null;
+            }
+            int[] lengths = table.lengths;
+            int index = lengthStart();
+            int textIndex = versionEnd(textStart());
+            if ((table.flags[row] & QUALIFIERS) != 0) {
+                int count = lengths[index++];
+                for (int i = 0; i < count; i++) {
+                    textIndex += lengths[index + 1];
+                    index += 2;
+                }
+            }
+            String[] result = new String[lengths[index++]];
+            for (int i = 0; i < result.length; i++) {
+                int length = lengths[index++];
+                result[i] = text(textIndex, textIndex + length);
+                textIndex += length;
+            }
+            return result;
+        }
+
+        private int textStart() {
+            return row > 0 ? table.textEnds[row - 1] : 0;
+        }
+
+        private int lengthStart() {
+            return row > 0 ? table.lengthEnds[row - 1] : 0;
+        }
+
+        /**
+         * End of the version in {@link #text}; the rest of the row is qualifier values and subpath segments.
+         */
+        private int versionEnd(final int start) {
+            int end = table.textEnds[row];
+            if ((table.flags[row] & VERSION) == 0) {
+                return start;
+            }
+            int[] lengths = table.lengths;
+            int index = lengthStart();
+            if ((table.flags[row] & QUALIFIERS) != 0) {
+                int count = lengths[index++];
+                for (int i = 0; i < count; i++) {
+                    end -= lengths[index + 1];
+                    index += 2;
+                }
+            }
+            if ((table.flags[row] & SUBPATH) != 0) {
+                int count = lengths[index++];
+                for (int i = 0; i < count; i++) {
+                    end -= lengths[index++];
+                }
+            }
+            return end;
+        }
+
+        private String text(final int start, final int end) {
+            return new String(table.text, start, end - start, StandardCharsets.UTF_8);
+        }
+    }
+
+    /**
+     * Values by id; in the order first added.
+     */
+    private static final class Dictionary<T>
+    {
+        private final Map<Object, Integer> ids = new HashMap<>();
+
+        private final List<T> values = new ArrayList<>();
+
+        /**
+         * Id of value with given key; added if new.
+         */
+        int id(final Object key, final T value) {
+            Integer result = ids.get(key);
+            if (result == null) {
+                result = values.size();
+                ids.put(key, result);
+                values.add(value);
+            }
+            return result;
+        }
+
+        T get(final int id) {
+            return values.get(id);
+        }
+    }
+}
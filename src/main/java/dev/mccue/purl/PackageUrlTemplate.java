@@ -0,0 +1,71 @@
+package dev.mccue.purl;
+
+import java.util.List;
+import java.util.Map;
+
+import org.jspecify.annotations.Nullable;
+
+import static java.util.Objects.requireNonNull;
+import static dev.mccue.purl.PackageUrlValidator.validateQualifiers;
+import static dev.mccue.purl.PackageUrlValidator.validateSubpath;
+import static dev.mccue.purl.PackageUrlValidator.validateVersion;
+
+/**
+ * Template for package-urls with a fixed type, namespace and name; eg. every version of an artifact.
+ *
+ * The fixed components are validated, transformed and encoded once when the template is created; package-urls built
+ * from the template share them, and only their version, qualifiers and subpath are validated and encoded.  The
+ * {@link RenderFlavor#SCHEME} rendering of each package-url is produced as it is built.
+ *
+ * Safe for use by concurrent threads.
+ *
+ * @see PackageUrlBuilder#template()
+ */
+public final class PackageUrlTemplate
+{
+    /**
+     * Package-url with the fixed components only.
+     */
+    private final PackageUrl prototype;
+
+    PackageUrlTemplate(final PackageUrl prototype) {
+        this.prototype = requireNonNull(prototype);
+        // encode the fixed components up front
+        prototype.toString(RenderFlavor.SCHEME);
+    }
+
+    /**
+     * Package-url with the fixed components only.
+     */
+    public PackageUrl getPrototype() {
+        return prototype;
+    }
+
+    /**
+     * Build package-url with given version.
+     */
+    public PackageUrl build(@Nullable final String version) {
+        return build(version, null, null);
+    }
+
+    /**
+     * Build package-url with given version, qualifiers and subpath.
+     *
+     * @see PackageUrlBuilder#build()
+     */
+    public PackageUrl build(@Nullable final String version,
+                            @Nullable final Map<String, String> qualifiers,
+                            @Nullable final List<String> subpath)
+    {
+        validateVersion(version);
+        validateQualifiers(qualifiers);
+        validateSubpath(subpath);
+        return prototype.extend(version, PackageUrlBuilder.sortQualifiers(qualifiers),
+                subpath != null ? subpath.toArray(new String[0]) : null);
+    }
+
+    @Override
+    public String toString() {
+        return prototype.toString();
+    }
+}
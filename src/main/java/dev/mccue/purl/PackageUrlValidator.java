@@ -2,13 +2,15 @@ package dev.mccue.purl;
 
 import java.util.List;
 import java.util.Map;
-import java.util.regex.Pattern;
 
 import org.jspecify.annotations.Nullable;
 
 /**
  * {@link PackageUrl} validator.
  *
+ * Components are checked against ASCII character tables equivalent to the patterns of {@link PackageUrlParser}; in a
+ * single pass, without allocating.
+ *
  * @since 1.1.0
  */
 final class PackageUrlValidator
@@ -17,22 +19,85 @@ final class PackageUrlValidator
         // empty
     }
 
-    private static final Pattern TYPE_PATTERN = Pattern.compile(PackageUrlParser.TYPE);
+    /**
+     * First character of {@link PackageUrlParser#TYPE}.
+     */
+    private static final boolean[] TYPE_START = table("abcdefghijklmnopqrstuvwxyzABCDEFGHIJKLMNOPQRSTUVWXYZ");
 
-    private static final Pattern NAMESPACE_SEGMENT_PATTERN = Pattern.compile(PackageUrlParser.NAMESPACE_SEGMENT);
+    /**
+     * Remaining characters of {@link PackageUrlParser#TYPE}.
+     */
+    private static final boolean[] TYPE_PART = table("abcdefghijklmnopqrstuvwxyzABCDEFGHIJKLMNOPQRSTUVWXYZ0123456789.+-");
 
-    private static final Pattern NAME_PATTERN = Pattern.compile(PackageUrlParser.NAME);
+    /**
+     * First character of {@link PackageUrlParser#QUALIFIER_KEY}.
+     */
+    private static final boolean[] QUALIFIER_KEY_START = table("abcdefghijklmnopqrstuvwxyzABCDEFGHIJKLMNOPQRSTUVWXYZ.-_");
 
-    private static final Pattern VERSION_PATTERN = Pattern.compile(PackageUrlParser.VERSION);
+    /**
+     * Remaining characters of {@link PackageUrlParser#QUALIFIER_KEY}.
+     */
+    private static final boolean[] QUALIFIER_KEY_PART =
+            table("abcdefghijklmnopqrstuvwxyzABCDEFGHIJKLMNOPQRSTUVWXYZ0123456789.-_");
 
-    private static final Pattern QUALIFIER_KEY_PATTERN = Pattern.compile(PackageUrlParser.QUALIFIER_KEY);
+    private static boolean[] table(final String chars) {
+        boolean[] result = new boolean[128];
+        for (int i = 0; i < chars.length(); i++) {
+            result[chars.charAt(i)] = true;
+        }
+        return result;
+    }
 
-    private static final Pattern QUALIFIER_VALUE_PATTERN = Pattern.compile(PackageUrlParser.QUALIFIER_VALUE);
+    private static boolean contains(final boolean[] table, final char c) {
+        return c < 128 && table[c];
+    }
 
-    private static final Pattern SUBPATH_SEGMENT_PATTERN = Pattern.compile(PackageUrlParser.SUBPATH_SEGMENT);
+    /**
+     * Check value is a non-empty identifier; ie. the first character is in {@code start} and the rest in {@code part}.
+     */
+    private static boolean isIdentifier(final String value, final boolean[] start, final boolean[] part) {
+        int length = value.length();
+        if (length == 0 || !contains(start, value.charAt(0))) {
+            return false;
+        }
+        for (int i = 1; i < length; i++) {
+            if (!contains(part, value.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Check value is a non-empty segment; ie. {@code [^/]+}.
+     */
+    private static boolean isSegment(final String value) {
+        return !value.isEmpty() && value.indexOf('/') == -1;
+    }
+
+    /**
+     * Check value is a non-empty line; ie. {@code .+}, where {@code .} matches anything but a line terminator.
+     */
+    private static boolean isLine(final String value) {
+        int length = value.length();
+        if (length == 0) {
+            return false;
+        }
+        for (int i = 0; i < length; i++) {
+            switch (value.charAt(i)) {
+                case '\n':
+                case '\r':
+                case '\u0085':
+                case '\u2028':
+                case '\u2029':
+                    return false;
+            }
+        }
+        return true;
+    }
 
-    private static void validate(final String type, final Pattern pattern, final String value) {
-        if (!pattern.matcher(value).matches()) {
+    private static void validate(final String type, final boolean valid, final String value) {
+        if (!valid) {
             throw new InvalidException("Invalid " + type + ": " + value);
         }
     }
@@ -44,7 +109,7 @@ final class PackageUrlValidator
         if (value == null) {
             throw new MissingComponentException("type");
         }
-        validate("type", TYPE_PATTERN, value);
+        validate("type", isIdentifier(value, TYPE_START, TYPE_PART), value);
     }
 
     /**
@@ -53,7 +118,7 @@ final class PackageUrlValidator
     static void validateNamespace(@Nullable final List<String> namespace) {
         if (namespace != null) {
             for (String segment : namespace) {
-                validate("namespace.segment", NAMESPACE_SEGMENT_PATTERN, segment);
+                validate("namespace.segment", isSegment(segment), segment);
             }
         }
     }
@@ -66,7 +131,6 @@ final class PackageUrlValidator
             throw new MissingComponentException("name");
         }
         // FIXME: name gets url encoding so not sure there is validation to do here?
-        //validate("name", NAME_PATTERN, value);
     }
 
     /**
@@ -74,7 +138,7 @@ final class PackageUrlValidator
      */
     static void validateVersion(@Nullable final String value) {
         if (value != null) {
-            validate("version", VERSION_PATTERN, value);
+            validate("version", isLine(value), value);
         }
     }
 
@@ -84,20 +148,26 @@ final class PackageUrlValidator
     static void validateQualifiers(@Nullable final Map<String, String> qualifiers) {
         if (qualifiers != null) {
             for (Map.Entry<String, String> entry : qualifiers.entrySet()) {
-                validate("qualifier.key", QUALIFIER_KEY_PATTERN, entry.getKey());
+                validateQualifierKey(entry.getKey());
                 // FIXME: value is precent encoding, so not sure there is validation to do here
-                //validate("qualifier.value", QUALIFIER_VALUE_PATTERN, entry.getValue());
             }
         }
     }
 
+    /**
+     * Validate a {@link PackageUrl#qualifiers} key.
+     */
+    static void validateQualifierKey(final String key) {
+        validate("qualifier.key", isIdentifier(key, QUALIFIER_KEY_START, QUALIFIER_KEY_PART), key);
+    }
+
     /**
      * Validate {@link PackageUrl#subpath} value.
      */
     static void validateSubpath(@Nullable final List<String> subpath) {
         if (subpath != null) {
             for (String segment : subpath) {
-                validate("subpath.segment", SUBPATH_SEGMENT_PATTERN, segment);
+                validate("subpath.segment", isSegment(segment), segment);
             }
         }
     }
@@ -0,0 +1,29 @@
+package dev.mccue.purl;
+
+/**
+ * Why a value could not be parsed as a {@link PackageUrl}.
+ *
+ * @see PackageUrlParseResult
+ */
+public enum ParseErrorKind
+{
+    /**
+     * Value does not have the structure of a package-url; reported as {@link InvalidException}.
+     */
+    INVALID,
+
+    /**
+     * Namespace or subpath has an empty segment; reported as {@link EmptySegmentException}.
+     */
+    EMPTY_SEGMENT,
+
+    /**
+     * Namespace or subpath segment decodes to an illegal value; reported as {@link IllegalSegmentContentException}.
+     */
+    ILLEGAL_SEGMENT_CONTENT,
+
+    /**
+     * Component contains a malformed percent escape; reported as {@link IllegalArgumentException}.
+     */
+    ILLEGAL_ESCAPE
+}
@@ -0,0 +1,160 @@
+package dev.mccue.purl;
+
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * <a href="https://peps.python.org/pep-0440/">PEP 440</a> Python versions; with the alternative spellings it allows.
+ *
+ * Ordered by epoch, release (ignoring trailing zeros), pre-release, post-release, development release and local version;
+ * a development release of a release orders before its pre-releases.
+ */
+final class Pep440VersionScheme
+        extends VersionScheme
+{
+    private static final Pattern VERSION = Pattern.compile(
+            "v?(?:([0-9]+)!)?([0-9]+(?:\\.[0-9]+)*)" +
+            "(?:[-_.]?(alpha|a|beta|b|preview|pre|c|rc)[-_.]?([0-9]+)?)?" +
+            "(?:-([0-9]+)|[-_.]?(post|rev|r)[-_.]?([0-9]+)?)?" +
+            "(?:[-_.]?(dev)[-_.]?([0-9]+)?)?" +
+            "(?:\\+([a-z0-9]+(?:[-_.][a-z0-9]+)*))?",
+            Pattern.CASE_INSENSITIVE);
+
+    private static final int EPOCH = 1;
+
+    private static final int RELEASE = 2;
+
+    private static final int PRE = 3;
+
+    private static final int PRE_NUMBER = 4;
+
+    private static final int IMPLICIT_POST_NUMBER = 5;
+
+    private static final int POST = 6;
+
+    private static final int POST_NUMBER = 7;
+
+    private static final int DEV = 8;
+
+    private static final int DEV_NUMBER = 9;
+
+    private static final int LOCAL = 10;
+
+    private static final int BEFORE = 0x01;
+
+    private static final int PRESENT = 0x02;
+
+    private static final int AFTER = 0x03;
+
+    @Override
+    boolean encode(final String version, final KeyWriter out) {
+        Matcher matcher = VERSION.matcher(version.strip());
+        if (!matcher.matches()) {
+            return false;
+        }
+        String value = matcher.group();
+        number(value, matcher, EPOCH, out);
+
+        // trailing zeros of the release are insignificant
+        int start = matcher.start(RELEASE);
+        int end = start;
+        for (int i = start; i < matcher.end(RELEASE); ) {
+            int next = next(value, i, matcher.end(RELEASE));
+            if (!isZero(value, i, next)) {
+                end = next;
+            }
+            i = next + 1;
+        }
+        for (int i = start; i < end; ) {
+            int next = next(value, i, end);
+            out.write(PRESENT);
+            out.number(value, i, next);
+            i = next + 1;
+        }
+        out.write(BEFORE);
+
+        String pre = matcher.group(PRE);
+        boolean post = matcher.start(IMPLICIT_POST_NUMBER) != -1 || matcher.start(POST) != -1;
+        boolean dev = matcher.start(DEV) != -1;
+        if (pre != null) {
+            out.write(PRESENT);
+            char letter = Character.toLowerCase(pre.charAt(0));
+            out.write(letter == 'a' ? 0 : letter == 'b' ? 1 : 2);
+            number(value, matcher, PRE_NUMBER, out);
+        }
+        else {
+            out.write(!post && dev ? BEFORE : AFTER);
+        }
+        if (post) {
+            out.write(PRESENT);
+            number(value, matcher, matcher.start(IMPLICIT_POST_NUMBER) != -1 ? IMPLICIT_POST_NUMBER : POST_NUMBER, out);
+        }
+        else {
+            out.write(BEFORE);
+        }
+        if (dev) {
+            out.write(PRESENT);
+            number(value, matcher, DEV_NUMBER, out);
+        }
+        else {
+            out.write(AFTER);
+        }
+
+        if (matcher.start(LOCAL) == -1) {
+            out.write(BEFORE);
+            return true;
+        }
+        out.write(PRESENT);
+        int i = matcher.start(LOCAL);
+        while (i < value.length()) {
+            int segment = i;
+            boolean numeric = true;
+            while (i < value.length() && Character.isLetterOrDigit(value.charAt(i))) {
+                numeric &= isDigit(value.charAt(i));
+                i++;
+            }
+            // numeric segments order after alphanumeric ones
+            if (numeric) {
+                out.write(AFTER);
+                out.number(value, segment, i);
+            }
+            else {
+                out.write(PRESENT);
+                out.string(value, segment, i, true);
+            }
+            i++;
+        }
+        out.write(BEFORE);
+        return true;
+    }
+
+    /**
+     * Write number of given group; {@code 0} if absent.
+     */
+    private static void number(final String value, final Matcher matcher, final int group, final KeyWriter out) {
+        int start = matcher.start(group);
+        if (start == -1) {
+            out.number(value, 0, 0);
+        }
+        else {
+            out.number(value, start, matcher.end(group));
+        }
+    }
+
+    /**
+     * End of the release part starting at given index.
+     */
+    private static int next(final String value, final int start, final int end) {
+        int dot = value.indexOf('.', start);
+        return dot != -1 && dot < end ? dot : end;
+    }
+
+    private static boolean isZero(final String value, final int start, final int end) {
+        for (int i = start; i < end; i++) {
+            if (value.charAt(i) != '0') {
+                return false;
+            }
+        }
+        return true;
+    }
+}
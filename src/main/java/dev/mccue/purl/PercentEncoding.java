@@ -1,10 +1,10 @@
 package dev.mccue.purl;
 
-import java.io.UnsupportedEncodingException;
-import java.net.URLDecoder;
-import java.net.URLEncoder;
+import java.io.IOException;
 import java.nio.charset.StandardCharsets;
 
+import org.jspecify.annotations.Nullable;
+
 import static java.util.Objects.requireNonNull;
 
 /**
@@ -16,6 +16,10 @@ import static java.util.Objects.requireNonNull;
  *
  * Specification; via https://en.wikipedia.org/wiki/Percent-encoding; indicates % encoding for space.
  *
+ * Encoding matches {@link java.net.URLEncoder} with {@code UTF-8} followed by replacing {@code +} with {@code %20} and
+ * un-escaping {@code :} and {@code ~}; decoding matches {@link java.net.URLDecoder} with {@code UTF-8}.
+ * Values which need no changes are returned as-is and everything else is written in a single pass.
+ *
  * @since 1.0.0
  */
 final class PercentEncoding
@@ -24,7 +28,7 @@ final class PercentEncoding
         // empty
     }
 
-    private static final String UTF_8 = StandardCharsets.UTF_8.name();
+    private static final char[] HEX = "0123456789ABCDEF".toCharArray();
 
     //
     // Name has some wrinkles and non-clarity about the specification for encoding.  As the {@code /} is used
@@ -33,26 +37,46 @@ final class PercentEncoding
     // Bottom line: we do encode {@code /} when in a name, we do not when not in a name.
     //
 
+    /**
+     * ASCII characters left unencoded in a name.
+     */
+    private static final boolean[] UNENCODED_NAME = new boolean[128];
+
+    /**
+     * ASCII characters left unencoded everywhere else.
+     */
+    private static final boolean[] UNENCODED = new boolean[128];
+
+    static {
+        for (char c = 'a'; c <= 'z'; c++) {
+            UNENCODED_NAME[c] = true;
+        }
+        for (char c = 'A'; c <= 'Z'; c++) {
+            UNENCODED_NAME[c] = true;
+        }
+        for (char c = '0'; c <= '9'; c++) {
+            UNENCODED_NAME[c] = true;
+        }
+        // unreserved by URLEncoder
+        UNENCODED_NAME['.'] = true;
+        UNENCODED_NAME['-'] = true;
+        UNENCODED_NAME['*'] = true;
+        UNENCODED_NAME['_'] = true;
+        // despite the fact that ":" is a reserved character in RFC 3986, we do not encode it for purl.
+        UNENCODED_NAME[':'] = true;
+        // "~" is an unreserved character in RFC 3986.
+        UNENCODED_NAME['~'] = true;
+
+        System.arraycopy(UNENCODED_NAME, 0, UNENCODED, 0, UNENCODED.length);
+        UNENCODED['/'] = true;
+    }
+
     public static String encode(final String value) {
-        String encoded = encodeName(value);
-        encoded = simpleReplace(encoded, "%2F", "/");
-        return encoded;
+        return encode(value, UNENCODED);
     }
 
     public static String encodeName(final String value) {
-        requireNonNull(value);
-        try {
-            String encoded = URLEncoder.encode(value, UTF_8);
-            encoded = simpleReplace(encoded, "+", "%20");
-            // despite the fact that ":" is a reserved character in RFC 3986, we do not encode it for purl.
-            encoded = simpleReplace(encoded, "%3A", ":");
-            // "~" is an unreserved character in RFC 3986.
-            encoded = simpleReplace(encoded, "%7E", "~");
-            return encoded;
-        }
-        catch (UnsupportedEncodingException e) {
-            throw new IllegalArgumentException(e);
-        }
+        return encode(value, UNENCODED_NAME);
     }
 
     public static String encodeVersion(final String value) {
@@ -68,42 +92,363 @@ final class PercentEncoding
         return encode(value);
     }
 
-    public static String decode(final String value) {
+    /**
+     * Append encoded value to buffer.
+     */
+    static <A extends Appendable> A encode(final A buff, final String value) throws IOException {
+        return encode(buff, value, UNENCODED);
+    }
+
+    /**
+     * Append encoded name to buffer.
+     */
+    static <A extends Appendable> A encodeName(final A buff, final String value) throws IOException {
+        return encode(buff, value, UNENCODED_NAME);
+    }
+
+    static <A extends Appendable> A encodeVersion(final A buff, final String value) throws IOException {
+        return encode(buff, value);
+    }
+
+    static <A extends Appendable> A encodeSegment(final A buff, final String value) throws IOException {
+        return encode(buff, value);
+    }
+
+    static <A extends Appendable> A encodeQualifierValue(final A buff, final String value) throws IOException {
+        return encode(buff, value);
+    }
+
+    private static String encode(final String value, final boolean[] unencoded) {
         requireNonNull(value);
+        int start = unencodedLength(value, unencoded);
+        if (start == value.length()) {
+            return value;
+        }
+        StringBuilder buff = new StringBuilder(value.length() + 16);
+        buff.append(value, 0, start);
         try {
-            return URLDecoder.decode(value, UTF_8);
+            return encode(buff, value, start, unencoded).toString();
         }
-        catch (UnsupportedEncodingException e) {
-            throw new RuntimeException(e);
+        catch (IOException e) {
+            // StringBuilder does not throw
+            throw new AssertionError(e);
         }
     }
 
+    private static <A extends Appendable> A encode(final A buff, final String value, final boolean[] unencoded)
+            throws IOException
+    {
+        requireNonNull(value);
+        int start = unencodedLength(value, unencoded);
+        if (start == value.length()) {
+            buff.append(value);
+            return buff;
+        }
+        buff.append(value, 0, start);
+        return encode(buff, value, start, unencoded);
+    }
+
     /**
-     * A simpler version of String.replace() that does not involve regexp's and Patterns.
+     * Length of the prefix of value which does not need encoding.
+     */
+    private static int unencodedLength(final String value, final boolean[] unencoded) {
+        int length = value.length();
+        for (int i = 0; i < length; i++) {
+            char c = value.charAt(i);
+            if (c >= 0x80 || !unencoded[c]) {
+                return i;
+            }
+        }
+        return length;
+    }
+
+    /**
+     * Encode value from start as {@code UTF-8} escapes.
+     */
+    private static <A extends Appendable> A encode(final A buff,
+                                                   final String value,
+                                                   final int start,
+                                                   final boolean[] unencoded)
+            throws IOException
+    {
+        int length = value.length();
+        for (int i = start; i < length; i++) {
+            char c = value.charAt(i);
+            if (c < 0x80) {
+                if (unencoded[c]) {
+                    buff.append(c);
+                }
+                else {
+                    escape(buff, c);
+                }
+            }
+            else if (c < 0x800) {
+                escape(buff, 0xC0 | (c >> 6));
+                escape(buff, 0x80 | (c & 0x3F));
+            }
+            else if (Character.isHighSurrogate(c) && i + 1 < length && Character.isLowSurrogate(value.charAt(i + 1))) {
+                int codePoint = Character.toCodePoint(c, value.charAt(++i));
+                escape(buff, 0xF0 | (codePoint >> 18));
+                escape(buff, 0x80 | ((codePoint >> 12) & 0x3F));
+                escape(buff, 0x80 | ((codePoint >> 6) & 0x3F));
+                escape(buff, 0x80 | (codePoint & 0x3F));
+            }
+            else if (Character.isSurrogate(c)) {
+                // unpaired surrogates are replaced when encoded, as URLEncoder does
+                escape(buff, '?');
+            }
+            else {
+                escape(buff, 0xE0 | (c >> 12));
+                escape(buff, 0x80 | ((c >> 6) & 0x3F));
+                escape(buff, 0x80 | (c & 0x3F));
+            }
+        }
+        return buff;
+    }
+
+    private static void escape(final Appendable buff, final int b) throws IOException {
+        buff.append('%').append(HEX[(b >> 4) & 0xF]).append(HEX[b & 0xF]);
+    }
+
+    public static String decode(final String value) {
+        requireNonNull(value);
+        return decode(value, 0, value.length());
+    }
+
+    /**
+     * Decode given range of value.
      *
-     * Modeled after a similar method in org.codehaus.plexus's StrungUtils.
-     * https://github.com/codehaus-plexus/plexus-utils/blob/master/src/main/java/org/codehaus/plexus/util/StringUtils.java#L848
+     * @throws IllegalArgumentException if the range contains a malformed escape.
+     */
+    static String decode(final CharSequence value, final int start, final int end) {
+        String decoded = tryDecode(value, start, end);
+        if (decoded == null) {
+            throw illegalEscape(MoreStrings.substring(value, start, end), true);
+        }
+        return decoded;
+    }
+
+    static IllegalArgumentException illegalEscape(final String value, final boolean writableStackTrace) {
+        return new IllegalEscapeException("Illegal escape (%) pattern in: " + value, writableStackTrace);
+    }
+
+    /**
+     * Decode given range of value; or {@code null} if it contains a malformed escape.
+     */
+    @Nullable
+    static String tryDecode(final CharSequence value, final int start, final int end) {
+        for (int i = start; i < end; i++) {
+            char c = value.charAt(i);
+            if (c == '%' || c == '+') {
+                StringBuilder buff = new StringBuilder(end - start);
+                return decode(buff, value, start, end) ? buff.toString() : null;
+            }
+        }
+        return MoreStrings.substring(value, start, end);
+    }
+
+    /**
+     * Append decoded range of value to buffer; returning {@code false}, with the buffer unchanged, if the range contains
+     * a malformed escape.
+     */
+    static boolean decode(final StringBuilder buff, final CharSequence value, final int start, final int end) {
+        final int mark = buff.length();
+        byte[] bytes = null;
+        int i = start;
+        while (i < end) {
+            char c = value.charAt(i);
+            if (c == '+') {
+                buff.append(' ');
+                i++;
+            }
+            else if (c != '%') {
+                buff.append(c);
+                i++;
+            }
+            else {
+                // consecutive escapes are decoded together
+                if (bytes == null) {
+                    bytes = new byte[(end - i) / 3];
+                }
+                int count = 0;
+                boolean ascii = true;
+                while (i < end && value.charAt(i) == '%') {
+                    int b = escapedByte(value, i, end);
+                    if (b == -1) {
+                        buff.setLength(mark);
+                        return false;
+                    }
+                    bytes[count++] = (byte) b;
+                    ascii &= b < 0x80;
+                    i += 3;
+                }
+                if (ascii) {
+                    for (int j = 0; j < count; j++) {
+                        buff.append((char) bytes[j]);
+                    }
+                }
+                else {
+                    buff.append(new String(bytes, 0, count, StandardCharsets.UTF_8));
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Index of the first malformed escape in given range of value; or {@code -1} if there is none.
+     */
+    static int malformedEscape(final CharSequence value, final int start, final int end) {
+        for (int i = start; i < end; i++) {
+            if (value.charAt(i) == '%') {
+                if (escapedByte(value, i, end) == -1) {
+                    return i;
+                }
+                i += 2;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Check given range of value, which has no malformed escapes, escapes given ASCII character.
+     */
+    static boolean containsEscaped(final CharSequence value, final int start, final int end, final char c) {
+        for (int i = start; i < end; i++) {
+            if (value.charAt(i) == '%') {
+                if (escapedByte(value, i, end) == c) {
+                    return true;
+                }
+                i += 2;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Check given range of value is exactly the encoding of what it decodes to; optionally as a name, and optionally
+     * without upper-case letters.
      *
-     * @since 1.2.0
+     * Conservative; escaped non-ASCII characters are never recognised.
      */
-    // @VisibleForTesting
-    static String simpleReplace(final String text, final String target, final String replacement) {
-        int start = 0;
-        int index = text.indexOf(target, start);
-        if (index == -1) {
-            return text;
-        }
-
-        StringBuilder stringBuilder = new StringBuilder(text.length());
-        do {
-            stringBuilder
-                    .append(text, start, index)
-                    .append(replacement);
-            start = index + target.length();
-            index = text.indexOf(target, start);
-        } while (index != -1);
-        stringBuilder.append(text, start, text.length());
-
-        return stringBuilder.toString();
+    static boolean isEncoded(final CharSequence value,
+                             final int start,
+                             final int end,
+                             final boolean name,
+                             final boolean lowerCase)
+    {
+        boolean[] unencoded = name ? UNENCODED_NAME : UNENCODED;
+        for (int i = start; i < end; i++) {
+            char c = value.charAt(i);
+            if (c == '%') {
+                if (i + 2 >= end) {
+                    return false;
+                }
+                int hi = upperHexDigit(value.charAt(i + 1));
+                int lo = upperHexDigit(value.charAt(i + 2));
+                if (hi == -1 || lo == -1 || hi >= 8 || unencoded[(hi << 4) | lo]) {
+                    return false;
+                }
+                i += 2;
+            }
+            else if (c >= 0x80 || !unencoded[c] || (lowerCase && c >= 'A' && c <= 'Z')) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Check given range of value, which {@link #isEncoded is encoded}, decodes to a blank value.
+     */
+    static boolean isBlankEncoded(final CharSequence value, final int start, final int end) {
+        for (int i = start; i < end; i += 3) {
+            // unencoded characters are never whitespace
+            if (value.charAt(i) != '%' || escapedByte(value, i, end) > ' ') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Byte escaped by the {@code %} at given index; or {@code -1} if malformed.
+     *
+     * Accepts exactly what {@link java.net.URLDecoder} does; which parses escapes with
+     * {@link Integer#parseInt(String, int)} and so allows non-ASCII digits and a leading sign.
+     */
+    static int escapedByte(final CharSequence value, final int i, final int end) {
+        if (i + 2 >= end) {
+            return -1;
+        }
+        char c1 = value.charAt(i + 1);
+        char c2 = value.charAt(i + 2);
+        int hi = hexDigit(c1);
+        int lo = hexDigit(c2);
+        if (hi != -1 && lo != -1) {
+            return (hi << 4) | lo;
+        }
+        lo = Character.digit(c2, 16);
+        if (lo == -1) {
+            return -1;
+        }
+        if (c1 == '+') {
+            return lo;
+        }
+        if (c1 == '-') {
+            return lo == 0 ? 0 : -1;
+        }
+        hi = Character.digit(c1, 16);
+        return hi == -1 ? -1 : (hi << 4) | lo;
+    }
+
+    private static int upperHexDigit(final char c) {
+        if (c >= '0' && c <= '9') {
+            return c - '0';
+        }
+        if (c >= 'A' && c <= 'F') {
+            return c - 'A' + 10;
+        }
+        return -1;
+    }
+
+    private static int hexDigit(final char c) {
+        if (c >= '0' && c <= '9') {
+            return c - '0';
+        }
+        if (c >= 'a' && c <= 'f') {
+            return c - 'a' + 10;
+        }
+        if (c >= 'A' && c <= 'F') {
+            return c - 'A' + 10;
+        }
+        return -1;
+    }
+
+    /**
+     * {@link IllegalArgumentException} which may be created without a stack trace; as it has no constructor for that.
+     */
+    private static final class IllegalEscapeException
+            extends IllegalArgumentException
+    {
+        private static final long serialVersionUID = 1L;
+
+        /**
+         * Whether the stack trace is filled in; unset while the superclass constructor fills it in, so that is skipped.
+         */
+        private final boolean writableStackTrace;
+
+        IllegalEscapeException(final String message, final boolean writableStackTrace) {
+            super(message);
+            this.writableStackTrace = writableStackTrace;
+            if (writableStackTrace) {
+                fillInStackTrace();
+            }
+        }
+
+        @Override
+        public synchronized Throwable fillInStackTrace() {
+            return writableStackTrace ? super.fillInStackTrace() : this;
+        }
     }
 }
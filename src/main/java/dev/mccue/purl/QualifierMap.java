@@ -0,0 +1,186 @@
+package dev.mccue.purl;
+
+import java.io.Serializable;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.SortedMap;
+
+import org.jspecify.annotations.Nullable;
+
+/**
+ * Unmodifiable {@link SortedMap} view of qualifiers.
+ *
+ * {@link PackageUrl} keeps qualifiers in a single array of alternating keys and values, sorted by key; and only wraps
+ * them when asked for.  Keys are looked up by binary search.
+ *
+ * Sub-map views are bounded by position rather than key; so unlike {@link java.util.TreeMap} they do not reject keys
+ * outside their range.
+ */
+final class QualifierMap
+        extends AbstractMap<String, String>
+        implements SortedMap<String, String>, Serializable
+{
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * Alternating keys and values; sorted by key.
+     */
+    private final String[] entries;
+
+    /**
+     * First entry of view.
+     */
+    private final int from;
+
+    /**
+     * Entry after the last of view.
+     */
+    private final int to;
+
+    QualifierMap(final String[] entries) {
+        this(entries, 0, entries.length / 2);
+    }
+
+    private QualifierMap(final String[] entries, final int from, final int to) {
+        this.entries = entries;
+        this.from = from;
+        this.to = to;
+    }
+
+    /**
+     * Index of entry with given key; or {@code -(insertion point + 1)} if there is none.
+     */
+    private int indexOf(final String key) {
+        return indexOf(entries, from, to, key);
+    }
+
+    /**
+     * Index of entry with given key in given range of alternating keys and values; or
+     * {@code -(insertion point + 1)} if there is none.
+     */
+    static int indexOf(final String[] entries, final int from, final int to, final String key) {
+        int low = from;
+        int high = to - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            int cmp = entries[mid * 2].compareTo(key);
+            if (cmp < 0) {
+                low = mid + 1;
+            }
+            else if (cmp > 0) {
+                high = mid - 1;
+            }
+            else {
+                return mid;
+            }
+        }
+        return -(low + 1);
+    }
+
+    /**
+     * Index of first entry with key at or after given key.
+     */
+    private int lowerBound(final String key) {
+        int index = indexOf(key);
+        return index >= 0 ? index : -(index + 1);
+    }
+
+    @Override
+    public int size() {
+        return to - from;
+    }
+
+    @Override
+    public boolean containsKey(final Object key) {
+        return key instanceof String && indexOf((String) key) >= 0;
+    }
+
+    @Override
+    @Nullable
+    public String get(final Object key) {
+        if (key instanceof String) {
+            int index = indexOf((String) key);
+            if (index >= 0) {
+                return entries[index * 2 + 1];
+            }
+        }
+        return null;
+    }
+
+    @Override
+    @Nullable
+    public Comparator<? super String> comparator() {
+        return null;
+    }
+
+    @Override
+    public SortedMap<String, String> subMap(final String fromKey, final String toKey) {
+        if (fromKey.compareTo(toKey) > 0) {
+            throw new IllegalArgumentException("fromKey > toKey");
+        }
+        return new QualifierMap(entries, lowerBound(fromKey), lowerBound(toKey));
+    }
+
+    @Override
+    public SortedMap<String, String> headMap(final String toKey) {
+        return new QualifierMap(entries, from, lowerBound(toKey));
+    }
+
+    @Override
+    public SortedMap<String, String> tailMap(final String fromKey) {
+        return new QualifierMap(entries, lowerBound(fromKey), to);
+    }
+
+    @Override
+    public String firstKey() {
+        if (from == to) {
+            throw new NoSuchElementException();
+        }
+        return entries[from * 2];
+    }
+
+    @Override
+    public String lastKey() {
+        if (from == to) {
+            throw new NoSuchElementException();
+        }
+        return entries[(to - 1) * 2];
+    }
+
+    @Override
+    public Set<Entry<String, String>> entrySet() {
+        return new AbstractSet<>()
+        {
+            @Override
+            public Iterator<Entry<String, String>> iterator() {
+                return new Iterator<>()
+                {
+                    private int next = from;
+
+                    @Override
+                    public boolean hasNext() {
+                        return next < to;
+                    }
+
+                    @Override
+                    public Entry<String, String> next() {
+                        if (next >= to) {
+                            throw new NoSuchElementException();
+                        }
+                        int index = next++;
+                        return new SimpleImmutableEntry<>(entries[index * 2], entries[index * 2 + 1]);
+                    }
+                };
+            }
+
+            @Override
+            public int size() {
+                return to - from;
+            }
+        };
+    }
+}
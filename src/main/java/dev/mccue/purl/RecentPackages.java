@@ -0,0 +1,57 @@
+package dev.mccue.purl;
+
+import java.util.Arrays;
+
+import org.jspecify.annotations.Nullable;
+
+/**
+ * Namespaces and names of package-urls recently parsed by a parser which {@link PackageUrlParser#sharePackages(boolean)
+ * shares packages}; so its parsed package-urls of the same package share the instances.
+ *
+ * Direct mapped by hash.  Racy, as entries are immutable, so safely published; a lost update only loses some sharing.
+ */
+final class RecentPackages
+{
+    /**
+     * Number of entries; a power of two.
+     */
+    private static final int SIZE = 1024;
+
+    private final Entry[] entries = new Entry[SIZE];
+
+    /**
+     * Namespace and name equal to given ones; the instances of the recently parsed package-url of the same package, if
+     * any, otherwise given ones, which are remembered in its place.
+     *
+     * Arrays are owned by the package-urls sharing them, as for {@link PackageUrl}; so must not be changed after.
+     */
+    Entry share(@Nullable final String[] namespace, final String name) {
+        int hash = 31 * Arrays.hashCode(namespace) + name.hashCode();
+        int index = (hash ^ (hash >>> 16)) & (SIZE - 1);
+        Entry entry = entries[index];
+        if (entry != null && entry.hash == hash && entry.name.equals(name) &&
+                Arrays.equals(entry.namespace, namespace))
+        {
+            return entry;
+        }
+        entry = new Entry(hash, namespace, name);
+        entries[index] = entry;
+        return entry;
+    }
+
+    static final class Entry
+    {
+        private final int hash;
+
+        @Nullable
+        final String[] namespace;
+
+        final String name;
+
+        Entry(final int hash, @Nullable final String[] namespace, final String name) {
+            this.hash = hash;
+            this.namespace = namespace;
+            this.name = name;
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package dev.mccue.purl;
+
+import java.io.Serializable;
+import java.util.AbstractList;
+import java.util.RandomAccess;
+
+/**
+ * Unmodifiable {@link java.util.List} view of namespace or subpath segments.
+ *
+ * {@link PackageUrl} keeps segments in an exact-size array, and only wraps them when asked for.
+ */
+final class SegmentList
+        extends AbstractList<String>
+        implements RandomAccess, Serializable
+{
+    private static final long serialVersionUID = 1L;
+
+    private final String[] segments;
+
+    SegmentList(final String[] segments) {
+        this.segments = segments;
+    }
+
+    @Override
+    public String get(final int index) {
+        return segments[index];
+    }
+
+    @Override
+    public int size() {
+        return segments.length;
+    }
+}
@@ -0,0 +1,88 @@
+package dev.mccue.purl;
+
+/**
+ * <a href="https://semver.org">Semantic versions</a>; {@code major.minor.patch}, with optional pre-release identifiers
+ * and build metadata, and an optional {@code v} prefix.
+ *
+ * Build metadata is ignored, and a pre-release orders before its release; pre-release identifiers are compared
+ * numerically if they are numbers, and before identifiers which are not.
+ */
+final class SemverVersionScheme
+        extends VersionScheme
+{
+    private static final int PRE_RELEASE = 0x01;
+
+    private static final int RELEASE = 0x02;
+
+    private static final int END = 0x01;
+
+    private static final int NUMBER = 0x02;
+
+    private static final int TEXT = 0x03;
+
+    @Override
+    boolean encode(final String version, final KeyWriter out) {
+        int length = version.length();
+        int i = !version.isEmpty() && (version.charAt(0) == 'v' || version.charAt(0) == 'V') ? 1 : 0;
+        for (int part = 0; part < 3; part++) {
+            if (part > 0) {
+                if (i == length || version.charAt(i) != '.') {
+                    return false;
+                }
+                i++;
+            }
+            int start = i;
+            while (i < length && isDigit(version.charAt(i))) {
+                i++;
+            }
+            if (i == start) {
+                return false;
+            }
+            out.number(version, start, i);
+        }
+        if (i < length && version.charAt(i) == '-') {
+            out.write(PRE_RELEASE);
+            do {
+                int start = ++i;
+                boolean numeric = true;
+                while (i < length && isIdentifier(version.charAt(i))) {
+                    numeric &= isDigit(version.charAt(i));
+                    i++;
+                }
+                if (i == start) {
+                    return false;
+                }
+                if (numeric) {
+                    out.write(NUMBER);
+                    out.number(version, start, i);
+                }
+                else {
+                    out.write(TEXT);
+                    out.string(version, start, i, false);
+                }
+            }
+            while (i < length && version.charAt(i) == '.');
+            out.write(END);
+        }
+        else {
+            out.write(RELEASE);
+        }
+        if (i < length && version.charAt(i) == '+') {
+            do {
+                int start = ++i;
+                while (i < length && isIdentifier(version.charAt(i))) {
+                    i++;
+                }
+                if (i == start) {
+                    return false;
+                }
+            }
+            while (i < length && version.charAt(i) == '.');
+        }
+        return i == length;
+    }
+
+    private static boolean isIdentifier(final char c) {
+        return isDigit(c) || (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || c == '-';
+    }
+}
@@ -0,0 +1,359 @@
+package dev.mccue.purl;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.jspecify.annotations.Nullable;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Range of versions; parsed from a
+ * <a href="https://github.com/package-url/purl-spec/blob/master/VERSION-RANGE-SPEC.rst">{@code vers}</a> specifier, eg.
+ * {@code vers:maven/>=1.0|<2.0|!=1.5}.
+ *
+ * Versions are ordered by the {@link VersionScheme#of(String) versioning scheme} of the range: Maven's
+ * {@code ComparableVersion} for {@code maven}, PEP 440 for {@code pypi}, semantic versioning for {@code npm},
+ * {@code cargo} and {@code semver}, Go module versions for {@code golang}, and numbers and text otherwise.  The
+ * versions of the constraints are parsed once, when the range is; so checking a version only parses that version.
+ * Versions which are not valid in the scheme are only in a range by an exact {@code =} constraint, or {@code *}.
+ *
+ * Immutable, so safe for use by concurrent threads.
+ */
+public final class VersionRange
+{
+    private static final String PREFIX = "vers:";
+
+    private static final byte[][] NONE = new byte[0][];
+
+    /**
+     * Specifier without whitespace.
+     */
+    private final String value;
+
+    private final String scheme;
+
+    private final VersionScheme versionScheme;
+
+    /**
+     * Whether the range is {@code *}; any version.
+     */
+    private final boolean any;
+
+    /**
+     * Keys of {@code =} constraints.
+     */
+    private final byte[][] included;
+
+    /**
+     * Keys of {@code !=} constraints.
+     */
+    private final byte[][] excluded;
+
+    /**
+     * Intervals of the other constraints; in order, and disjoint.
+     */
+    private final Interval[] intervals;
+
+    private VersionRange(final String value,
+                         final String scheme,
+                         final VersionScheme versionScheme,
+                         final List<Constraint> constraints)
+    {
+        this.value = value;
+        this.scheme = scheme;
+        this.versionScheme = versionScheme;
+        this.any = constraints.isEmpty();
+
+        List<byte[]> included = new ArrayList<>();
+        List<byte[]> excluded = new ArrayList<>();
+        List<Constraint> ranges = new ArrayList<>();
+        for (Constraint constraint : constraints) {
+            if (constraint.operator == Operator.EQUAL || constraint.operator == Operator.IMPLICIT_EQUAL) {
+                included.add(constraint.key);
+            }
+            else if (constraint.operator == Operator.NOT_EQUAL) {
+                excluded.add(constraint.key);
+            }
+            else {
+                ranges.add(constraint);
+            }
+        }
+        this.included = included.toArray(NONE);
+        this.excluded = excluded.toArray(NONE);
+        this.intervals = intervals(ranges);
+    }
+
+    /**
+     * Parse range from given {@code vers} specifier.
+     *
+     * @throws IllegalArgumentException if the value is not a {@code vers} specifier
+     */
+    public static VersionRange parse(final String value) {
+        requireNonNull(value);
+
+        // whitespace is insignificant
+        StringBuilder buff = new StringBuilder(value.length());
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (!Character.isWhitespace(c)) {
+                buff.append(c);
+            }
+        }
+        String vers = buff.toString();
+
+        if (!vers.regionMatches(true, 0, PREFIX, 0, PREFIX.length())) {
+            throw invalid(value, "missing vers: prefix");
+        }
+        int slash = vers.indexOf('/', PREFIX.length());
+        if (slash == -1 || slash == PREFIX.length()) {
+            throw invalid(value, "missing versioning scheme");
+        }
+        String scheme = MoreStrings.lowerCase(vers.substring(PREFIX.length(), slash));
+        VersionScheme versionScheme = VersionScheme.of(scheme);
+        if (vers.substring(slash + 1).equals("*")) {
+            return new VersionRange(vers, scheme, versionScheme, List.of());
+        }
+
+        List<Constraint> constraints = new ArrayList<>();
+        int start = slash + 1;
+        while (start <= vers.length()) {
+            int end = vers.indexOf('|', start);
+            if (end == -1) {
+                end = vers.length();
+            }
+            Operator operator = Operator.of(vers, start);
+            int versionStart = start + operator.symbol.length();
+            if (versionStart >= end) {
+                throw invalid(value, "missing version");
+            }
+            if (vers.charAt(versionStart) == '*') {
+                throw invalid(value, "* must be the only constraint");
+            }
+            constraints.add(new Constraint(operator, versionScheme.key(decode(value, vers, versionStart, end))));
+            start = end + 1;
+        }
+        return new VersionRange(vers, scheme, versionScheme, constraints);
+    }
+
+    private static IllegalArgumentException invalid(final String value, final String reason) {
+        return new IllegalArgumentException("Invalid version range: " + reason + ": " + value);
+    }
+
+    /**
+     * Percent-decode given range of vers.
+     */
+    private static String decode(final String value, final String vers, final int start, final int end) {
+        int escape = vers.indexOf('%', start);
+        if (escape == -1 || escape >= end) {
+            return vers.substring(start, end);
+        }
+        // escapes are ASCII, so never part of the encoding of other characters
+        byte[] bytes = vers.substring(start, end).getBytes(StandardCharsets.UTF_8);
+        int count = 0;
+        for (int i = 0; i < bytes.length; i++) {
+            if (bytes[i] != '%') {
+                bytes[count++] = bytes[i];
+                continue;
+            }
+            int high = i + 2 < bytes.length ? Character.digit(bytes[i + 1], 16) : -1;
+            int low = i + 2 < bytes.length ? Character.digit(bytes[i + 2], 16) : -1;
+            if (high == -1 || low == -1) {
+                throw invalid(value, "illegal escape");
+            }
+            bytes[count++] = (byte) (high << 4 | low);
+            i += 2;
+        }
+        return new String(bytes, 0, count, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Intervals of given {@code <}, {@code <=}, {@code >} and {@code >=} constraints; as the {@code vers} specification
+     * checks them pairwise, in order of their versions.
+     */
+    private Interval[] intervals(final List<Constraint> ranges) {
+        ranges.sort((a, b) -> VersionScheme.compare(a.key, b.key));
+        List<Interval> result = new ArrayList<>();
+        if (ranges.size() == 1) {
+            Constraint constraint = ranges.get(0);
+            result.add(constraint.operator.isLess()
+                    ? new Interval(null, false, constraint.key, constraint.operator == Operator.LESS_OR_EQUAL)
+                    : new Interval(constraint.key, constraint.operator == Operator.GREATER_OR_EQUAL, null, false));
+        }
+        for (int i = 0; i + 1 < ranges.size(); i++) {
+            Constraint current = ranges.get(i);
+            Constraint next = ranges.get(i + 1);
+            if (i == 0 && current.operator.isLess()) {
+                result.add(new Interval(null, false, current.key, current.operator == Operator.LESS_OR_EQUAL));
+            }
+            if (!current.operator.isLess() && next.operator.isLess()) {
+                result.add(new Interval(current.key, current.operator == Operator.GREATER_OR_EQUAL,
+                        next.key, next.operator == Operator.LESS_OR_EQUAL));
+            }
+            if (i + 2 == ranges.size() && !next.operator.isLess()) {
+                result.add(new Interval(next.key, next.operator == Operator.GREATER_OR_EQUAL, null, false));
+            }
+        }
+        return result.toArray(new Interval[0]);
+    }
+
+    /**
+     * Versioning scheme of the range; in lower case.
+     */
+    public String getScheme() {
+        return scheme;
+    }
+
+    /**
+     * Whether given version is in the range.
+     */
+    public boolean contains(final String version) {
+        return contains(versionScheme.key(requireNonNull(version)));
+    }
+
+    /**
+     * Whether the version of given package-url is in the range; {@code false} if it has no version.
+     *
+     * The version is parsed the first time it is checked against a range of the same versioning scheme, and kept by the
+     * package-url; so checking many package-urls against many ranges parses each version once.
+     */
+    public boolean matches(final PackageUrl purl) {
+        if (purl.getVersion() == null) {
+            return false;
+        }
+        return contains(purl.versionKey(versionScheme));
+    }
+
+    private boolean contains(final byte[] key) {
+        if (any) {
+            return true;
+        }
+        for (byte[] version : included) {
+            if (VersionScheme.compare(key, version) == 0) {
+                return true;
+            }
+        }
+        // versions not valid in the scheme are not ordered against valid ones
+        if (key[0] == 0) {
+            return false;
+        }
+        for (byte[] version : excluded) {
+            if (VersionScheme.compare(key, version) == 0) {
+                return false;
+            }
+        }
+        for (Interval interval : intervals) {
+            if (interval.lower != null) {
+                int cmp = VersionScheme.compare(key, interval.lower);
+                if (cmp < 0) {
+                    return false;
+                }
+                if (cmp == 0 && !interval.lowerInclusive) {
+                    continue;
+                }
+            }
+            if (interval.upper == null) {
+                return true;
+            }
+            int cmp = VersionScheme.compare(key, interval.upper);
+            if (cmp < 0 || cmp == 0 && interval.upperInclusive) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public boolean equals(final Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        return value.equals(((VersionRange) o).value);
+    }
+
+    @Override
+    public int hashCode() {
+        return value.hashCode();
+    }
+
+    /**
+     * The {@code vers} specifier; without whitespace.
+     */
+    @Override
+    public String toString() {
+        return value;
+    }
+
+    private enum Operator
+    {
+        LESS_OR_EQUAL("<="),
+        GREATER_OR_EQUAL(">="),
+        NOT_EQUAL("!="),
+        LESS("<"),
+        GREATER(">"),
+        EQUAL("="),
+        IMPLICIT_EQUAL("");
+
+        private final String symbol;
+
+        Operator(final String symbol) {
+            this.symbol = symbol;
+        }
+
+        /**
+         * Operator at given index of vers; {@link #IMPLICIT_EQUAL} if there is none.
+         */
+        static Operator of(final String vers, final int index) {
+            for (Operator operator : values()) {
+                if (vers.startsWith(operator.symbol, index)) {
+                    return operator;
+                }
+            }
+            throw new AssertionError();
+        }
+
+        boolean isLess() {
+            return this == LESS || this == LESS_OR_EQUAL;
+        }
+    }
+
+    private static final class Constraint
+    {
+        private final Operator operator;
+
+        private final byte[] key;
+
+        Constraint(final Operator operator, final byte[] key) {
+            this.operator = operator;
+            this.key = key;
+        }
+    }
+
+    private static final class Interval
+    {
+        @Nullable
+        private final byte[] lower;
+
+        private final boolean lowerInclusive;
+
+        @Nullable
+        private final byte[] upper;
+
+        private final boolean upperInclusive;
+
+        Interval(@Nullable final byte[] lower,
+                 final boolean lowerInclusive,
+                 @Nullable final byte[] upper,
+                 final boolean upperInclusive)
+        {
+            this.lower = lower;
+            this.lowerInclusive = lowerInclusive;
+            this.upper = upper;
+            this.upperInclusive = upperInclusive;
+        }
+    }
+}
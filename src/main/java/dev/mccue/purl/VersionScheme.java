@@ -0,0 +1,228 @@
+package dev.mccue.purl;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Map;
+
+/**
+ * Ordering of the versions of a versioning scheme; eg. of Maven artifacts or npm packages.
+ *
+ * Each version is parsed once into a {@link #key(String) key}; an array of bytes whose
+ * {@link #compare(byte[], byte[]) order} is the order of the versions, so ordering many versions parses each once
+ * rather than on each comparison.  Versions which are not valid in a scheme order before every valid version, in the
+ * order of the {@link #GENERIC generic} scheme.
+ *
+ * Schemes are looked up {@link #of(String) by package-url type}.  Immutable, so safe for use by concurrent threads.
+ */
+public abstract class VersionScheme
+{
+    /**
+     * Keys compare as if followed by any number of this byte; so trailing ones are insignificant.
+     */
+    static final int PAD = 0x26;
+
+    /**
+     * Numbers compared numerically and everything else lexicographically; ignoring separators.
+     */
+    public static final VersionScheme GENERIC = new GenericVersionScheme();
+
+    /**
+     * Semantic versioning; with an optional {@code v} prefix.
+     */
+    public static final VersionScheme SEMVER = new SemverVersionScheme();
+
+    /**
+     * Maven's {@code ComparableVersion}.
+     */
+    public static final VersionScheme MAVEN = new MavenVersionScheme();
+
+    /**
+     * PEP 440 Python versions.
+     */
+    public static final VersionScheme PYPI = new Pep440VersionScheme();
+
+    /**
+     * Go module versions; including pseudo-versions.
+     */
+    public static final VersionScheme GOLANG = new GolangVersionScheme();
+
+    /**
+     * Schemes by package-url type; which are also the {@code vers} versioning scheme names.
+     */
+    private static final Map<String, VersionScheme> TYPES = Map.of(
+            "maven", MAVEN,
+            "pypi", PYPI,
+            "npm", SEMVER,
+            "cargo", SEMVER,
+            "semver", SEMVER,
+            "golang", GOLANG);
+
+    VersionScheme() {
+    }
+
+    /**
+     * Scheme of given package-url type, or {@code vers} versioning scheme name; {@link #GENERIC} if there is no specific
+     * scheme.
+     */
+    public static VersionScheme of(final String type) {
+        return TYPES.getOrDefault(MoreStrings.lowerCase(type), GENERIC);
+    }
+
+    /**
+     * Comparison key of given version; to be compared by {@link #compare(byte[], byte[])} with keys of the same scheme.
+     *
+     * Numbers are packed two digits to a byte; so keys are about as long as their version, or shorter.
+     */
+    public final byte[] key(final String version) {
+        KeyWriter out = new KeyWriter(version.length() + 8);
+        out.write(1);
+        if (!encode(version, out)) {
+            out.truncate(0);
+            out.write(0);
+            GENERIC.encode(version, out);
+        }
+        return out.toByteArray();
+    }
+
+    /**
+     * Write key of given version; returning {@code false} if it is not valid in this scheme.
+     */
+    abstract boolean encode(String version, KeyWriter out);
+
+    /**
+     * Comparator of versions; which parses both versions on each comparison, so for ordering many versions, compare
+     * their {@link #key(String) keys} instead.
+     */
+    public final Comparator<String> comparator() {
+        return (a, b) -> compare(key(a), key(b));
+    }
+
+    /**
+     * Compare two keys of the same scheme; unsigned lexicographically, with the shorter key padded with {@code PAD}.
+     */
+    public static int compare(final byte[] a, final byte[] b) {
+        int i = Arrays.mismatch(a, b);
+        if (i == -1) {
+            return 0;
+        }
+        if (i < a.length && i < b.length) {
+            return Byte.toUnsignedInt(a[i]) - Byte.toUnsignedInt(b[i]);
+        }
+        return i < a.length ? padded(a, i) : -padded(b, i);
+    }
+
+    /**
+     * First eight bytes of given key, padded as compared; so keys with different prefixes compare as their prefixes do,
+     * unsigned, and only keys with the same prefix need comparing in full.
+     */
+    static long prefix(final byte[] key) {
+        long result = 0;
+        for (int i = 0; i < Long.BYTES; i++) {
+            result = result << 8 | (i < key.length ? Byte.toUnsignedInt(key[i]) : PAD);
+        }
+        return result;
+    }
+
+    private static int padded(final byte[] key, final int start) {
+        for (int i = start; i < key.length; i++) {
+            int b = Byte.toUnsignedInt(key[i]);
+            if (b != PAD) {
+                return b - PAD;
+            }
+        }
+        return 0;
+    }
+
+    static boolean isDigit(final char c) {
+        return c >= '0' && c <= '9';
+    }
+
+    /**
+     * Growable key; with order preserving encodings of numbers and strings.
+     */
+    static final class KeyWriter
+    {
+        private byte[] bytes;
+
+        private int length;
+
+        KeyWriter(final int capacity) {
+            this.bytes = new byte[capacity];
+        }
+
+        int length() {
+            return length;
+        }
+
+        void truncate(final int length) {
+            this.length = length;
+        }
+
+        void write(final int b) {
+            if (length == bytes.length) {
+                bytes = Arrays.copyOf(bytes, length * 2);
+            }
+            bytes[length++] = (byte) b;
+        }
+
+        /**
+         * Write given range of ASCII digits; as the number of significant digits followed by the digits packed two to a
+         * byte, so longer numbers order after shorter ones.
+         */
+        void number(final CharSequence value, final int start, final int end) {
+            int from = start;
+            while (from < end && value.charAt(from) == '0') {
+                from++;
+            }
+            int digits = end - from;
+            if (digits < 0xFF) {
+                write(digits);
+            }
+            else {
+                write(0xFF);
+                write(digits >>> 24);
+                write(digits >>> 16);
+                write(digits >>> 8);
+                write(digits);
+            }
+            for (int i = from; i < end; i += 2) {
+                int high = value.charAt(i) - '0';
+                int low = i + 1 < end ? value.charAt(i + 1) - '0' : 0;
+                write(high << 4 | low);
+            }
+        }
+
+        /**
+         * Write given range of value as {@code UTF-8}, with bytes {@code 0} and {@code 1} escaped, followed by a
+         * {@code 0}; so a string orders before any longer string it is a prefix of.
+         */
+        void string(final CharSequence value, final int start, final int end, final boolean lowerCase) {
+            for (int i = start; i < end; i++) {
+                char c = value.charAt(i);
+                if (lowerCase) {
+                    c = c >= 'A' && c <= 'Z' ? (char) (c + ('a' - 'A')) : c < 0x80 ? c : Character.toLowerCase(c);
+                }
+                if (c >= 0x80) {
+                    int next = Character.isHighSurrogate(c) && i + 1 < end ? i + 2 : i + 1;
+                    for (byte b : value.subSequence(i, next).toString().getBytes(StandardCharsets.UTF_8)) {
+                        write(b);
+                    }
+                    i = next - 1;
+                }
+                else if (c <= 1) {
+                    write(1);
+                    write(c + 1);
+                }
+                else {
+                    write(c);
+                }
+            }
+            write(0);
+        }
+
+        byte[] toByteArray() {
+            return Arrays.copyOf(bytes, length);
+        }
+    }
+}
@@ -0,0 +1,164 @@
+package dev.mccue.purl;
+
+import java.lang.reflect.Array;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Checks package-urls hold their components in less memory than the {@link TreeMap} and {@link ArrayList} collections
+ * they once did.
+ *
+ * Sizes are estimated for a 64-bit JVM with compressed references (12 byte object headers, 16 byte array headers,
+ * 4 byte references, 8 byte alignment), from declared fields; strings are shared by both layouts, so are not counted.
+ * The {@code benchmarks} module measures actual sizes with JOL.
+ */
+class FootprintTest
+{
+    private static final String[] PURLS = {
+            "pkg:maven/org.apache.commons/commons-lang3@3.12.0?type=jar",
+            "pkg:maven/org.apache.commons/commons-lang3@3.12.0?classifier=sources&type=jar",
+            "pkg:npm/%40angular/core@16.0.0",
+            "pkg:pypi/django@4.2#django/db",
+            "pkg:golang/github.com/gorilla/mux@v1.8.0#context",
+            "pkg:deb/debian/curl@7.50.3-1?arch=i386&distro=jessie&repository_url=https://deb.example.com"
+    };
+
+    @Test
+    void smallerThanCollections() {
+        for (String value : PURLS) {
+            PackageUrl purl = PackageUrl.parse(value);
+            long compact = retained(purl, new IdentityHashMap<>());
+            long collections = shallow(PackageUrl.class)
+                    + list(purl.getNamespace() != null ? purl.getNamespace().size() : -1)
+                    + map(purl.getQualifiers() != null ? purl.getQualifiers().size() : -1)
+                    + list(purl.getSubpath() != null ? purl.getSubpath().size() : -1);
+            assertTrue(compact < collections, value + ": " + compact + " >= " + collections);
+        }
+    }
+
+    @Test
+    void singleQualifierSavesMoreThanHundredBytes() {
+        PackageUrl purl = PackageUrl.parse("pkg:maven/g/a@1.0?type=jar");
+        long compact = retained(purl, new IdentityHashMap<>());
+        long collections = shallow(PackageUrl.class) + list(1) + map(1);
+        assertTrue(collections - compact >= 100, compact + " vs " + collections);
+    }
+
+    /**
+     * Size of {@code unmodifiableList(new ArrayList<>(segments))}; or nothing if there are no segments.
+     */
+    private static long list(final int size) {
+        if (size == -1) {
+            return 0;
+        }
+        return shallow(Collections.unmodifiableList(new ArrayList<>()).getClass()) + shallow(ArrayList.class)
+                + array(size);
+    }
+
+    /**
+     * Size of {@code unmodifiableSortedMap(new TreeMap<>(qualifiers))}; or nothing if there are no qualifiers.
+     */
+    private static long map(final int size) {
+        if (size == -1) {
+            return 0;
+        }
+        long entry;
+        try {
+            entry = shallow(Class.forName("java.util.TreeMap$Entry"));
+        }
+        catch (ClassNotFoundException e) {
+            throw new AssertionError(e);
+        }
+        return shallow(Collections.unmodifiableSortedMap(new TreeMap<>()).getClass()) + shallow(TreeMap.class)
+                + size * entry;
+    }
+
+    /**
+     * Size of given object and the objects it references, other than strings; following only arrays and objects of this
+     * package, which are owned by package-urls.
+     */
+    private static long retained(final Object object, final Map<Object, Boolean> seen) {
+        if (object instanceof String || seen.put(object, Boolean.TRUE) != null) {
+            return 0;
+        }
+        Class<?> type = object.getClass();
+        if (type.isArray()) {
+            int length = Array.getLength(object);
+            long size = array(length);
+            if (!type.getComponentType().isPrimitive()) {
+                for (int i = 0; i < length; i++) {
+                    Object element = Array.get(object, i);
+                    if (element != null) {
+                        size += retained(element, seen);
+                    }
+                }
+            }
+            return size;
+        }
+        if (type.getPackage() != PackageUrl.class.getPackage()) {
+            return 0;
+        }
+        long size = shallow(type);
+        for (Class<?> c = type; c != Object.class; c = c.getSuperclass()) {
+            for (Field field : c.getDeclaredFields()) {
+                if (Modifier.isStatic(field.getModifiers()) || field.getType().isPrimitive()) {
+                    continue;
+                }
+                field.setAccessible(true);
+                Object value;
+                try {
+                    value = field.get(object);
+                }
+                catch (IllegalAccessException e) {
+                    throw new AssertionError(e);
+                }
+                if (value != null) {
+                    size += retained(value, seen);
+                }
+            }
+        }
+        return size;
+    }
+
+    private static long shallow(final Class<?> type) {
+        long size = 12;
+        for (Class<?> c = type; c != Object.class; c = c.getSuperclass()) {
+            for (Field field : c.getDeclaredFields()) {
+                if (Modifier.isStatic(field.getModifiers())) {
+                    continue;
+                }
+                Class<?> fieldType = field.getType();
+                if (fieldType == long.class || fieldType == double.class) {
+                    size += 8;
+                }
+                else if (fieldType == boolean.class || fieldType == byte.class) {
+                    size += 1;
+                }
+                else if (fieldType == char.class || fieldType == short.class) {
+                    size += 2;
+                }
+                else {
+                    size += 4;
+                }
+            }
+        }
+        return align(size);
+    }
+
+    private static long array(final int length) {
+        return align(16 + 4L * length);
+    }
+
+    private static long align(final long size) {
+        return (size + 7) & ~7;
+    }
+}
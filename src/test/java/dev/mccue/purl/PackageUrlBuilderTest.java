@@ -0,0 +1,146 @@
+package dev.mccue.purl;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class PackageUrlBuilderTest
+{
+    private static void assertBuiltEqual(final PackageUrl expected, final PackageUrl actual) {
+        assertEquals(expected, actual);
+        assertEquals(actual, expected);
+        assertEquals(expected.hashCode(), actual.hashCode());
+        assertEquals(0, expected.compareTo(actual));
+        assertEquals(expected.toString(), actual.toString());
+        for (RenderFlavor flavor : RenderFlavor.values()) {
+            assertEquals(expected.toString(flavor), actual.toString(flavor));
+        }
+        assertEquals(expected.getName(), actual.getName());
+        assertEquals(expected.getNamespace(), actual.getNamespace());
+        assertEquals(expected.getVersion(), actual.getVersion());
+        assertEquals(expected.getQualifiers(), actual.getQualifiers());
+        assertEquals(expected.getSubpath(), actual.getSubpath());
+    }
+
+    @Test
+    void templateBuildsAsBuilder() {
+        Map<String, String> qualifiers = new LinkedHashMap<>();
+        qualifiers.put("Type", "jar");
+        qualifiers.put("classifier", "sources");
+        qualifiers.put("blank", " ");
+        for (String[] components : new String[][] {
+                {"maven", "org.apache.commons", "commons-lang3"},
+                {"pypi", null, "Django_Utils"},
+                {"github", "Package-Url", "Purl-Spec"},
+                {"bitbucket", "Birkenfeld", "Pygments-Main"},
+                {"npm", "@angular", "core"},
+                {"generic", "a/b/c", "café €"},
+        }) {
+            for (boolean transform : new boolean[] {true, false}) {
+                PackageUrlBuilder builder = PackageUrl.builder()
+                        .typeSpecificTransformations(transform)
+                        .type(components[0])
+                        .name(components[2]);
+                if (components[1] != null) {
+                    builder.namespace(components[1]);
+                }
+                PackageUrlTemplate template = builder.template();
+                assertBuiltEqual(builder.build(), template.getPrototype());
+                assertEquals(builder.build().toString(), template.toString());
+
+                for (String version : new String[] {null, "1.0", "1.0+build/é", "@#?"}) {
+                    builder.version(version).qualifiers((Map<String, String>) null).subpath((List<String>) null);
+                    assertBuiltEqual(builder.build(), template.build(version));
+                    assertBuiltEqual(builder.version(version).qualifiers(qualifiers).subpath("src/main").build(),
+                            template.build(version, qualifiers, List.of("src", "main")));
+                }
+            }
+        }
+    }
+
+    @Test
+    void templateOfEmptyNamespace() {
+        PackageUrlBuilder builder = PackageUrl.builder().type("generic").namespace(List.of()).name("x");
+        PackageUrlTemplate template = builder.template();
+        assertBuiltEqual(builder.version("1").subpath(List.of()).build(),
+                template.build("1", null, List.of()));
+        assertEquals(List.of(), template.build("1").getNamespace());
+    }
+
+    @Test
+    void templateValidates() {
+        PackageUrlTemplate template = PackageUrl.builder().type("maven").namespace("g").name("a").template();
+        assertThrows(InvalidException.class, () -> template.build("1", Map.of("bad key", "v"), null));
+        assertThrows(InvalidException.class, () -> template.build("1", null, List.of("a/b")));
+        assertThrows(InvalidException.class, () -> template.build("1\n"));
+        assertThrows(InvalidException.class, () -> PackageUrl.builder().type("maven").namespace("g").template());
+        assertThrows(InvalidException.class, () -> PackageUrl.builder().type("1maven").name("a").template());
+    }
+
+    @Test
+    void templateSharesFixedComponents() {
+        PackageUrlTemplate template = PackageUrl.builder().type("maven").namespace("org.example").name("lib")
+                .template();
+        PackageUrl a = template.build("1.0");
+        PackageUrl b = template.build("2.0", Map.of("type", "pom"), null);
+        assertSame(a.namespace(), b.namespace());
+        assertSame(a.getName(), b.getName());
+        assertEquals("pkg:maven/org.example/lib@2.0?type=pom", b.toString());
+    }
+
+    @Test
+    void reset() {
+        PackageUrlBuilder builder = PackageUrl.builder()
+                .type("maven")
+                .namespace("org.example")
+                .name("lib")
+                .version("1.0")
+                .qualifier("type", "jar")
+                .qualifier("classifier", "sources")
+                .subpath("src");
+        PackageUrl first = builder.build();
+        assertEquals("pkg:maven/org.example/lib@1.0?classifier=sources&type=jar#src", first.toString());
+
+        PackageUrl second = builder.reset().type("npm").name("lodash").build();
+        assertBuiltEqual(PackageUrl.builder().type("npm").name("lodash").build(), second);
+        assertNull(second.getQualifiers());
+        assertNull(second.getNamespace());
+        assertNull(second.getVersion());
+        assertNull(second.getSubpath());
+
+        PackageUrl third = builder.reset().type("npm").name("lodash").qualifier("os", "linux").build();
+        assertBuiltEqual(PackageUrl.parse("pkg:npm/lodash?os=linux"), third);
+        // earlier package-urls are not changed by reuse
+        assertEquals("pkg:maven/org.example/lib@1.0?classifier=sources&type=jar#src", first.toString());
+        assertEquals(Map.of("classifier", "sources", "type", "jar"), first.getQualifiers());
+        assertNull(second.getQualifiers());
+
+        assertThrows(MissingComponentException.class, () -> builder.reset().build());
+    }
+
+    @Test
+    void resetKeepsTransformations() {
+        PackageUrlBuilder builder = PackageUrl.builder().typeSpecificTransformations(false);
+        builder.type("pypi").name("Django_Utils").qualifier("a", "b");
+        PackageUrl purl = builder.reset().type("pypi").name("Django_Utils").build();
+        assertEquals("Django_Utils", purl.getName());
+        assertNull(purl.getQualifiers());
+    }
+
+    @Test
+    void resetBuilderFrom() {
+        PackageUrl purl = PackageUrl.parse("pkg:maven/org.example/lib@1.0?type=jar#src");
+        PackageUrlBuilder builder = PackageUrl.builder().from(purl);
+        assertBuiltEqual(purl, builder.build());
+        PackageUrl other = builder.reset().from(PackageUrl.parse("pkg:npm/a@1")).build();
+        assertBuiltEqual(PackageUrl.parse("pkg:npm/a@1"), other);
+        assertEquals(List.of("src"), purl.getSubpath());
+    }
+}
@@ -0,0 +1,209 @@
+package dev.mccue.purl;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InvalidObjectException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.ObjectStreamClass;
+import java.io.ObjectStreamConstants;
+import java.io.StreamCorruptedException;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PackageUrlCodecTest
+{
+    /**
+     * {@link PackageUrlTableTest#corpus()}, with more types, namespace segments and qualifier keys than small
+     * dictionaries hold.
+     */
+    private static List<PackageUrl> corpus() {
+        List<PackageUrl> result = new ArrayList<>(PackageUrlTableTest.corpus());
+        for (int i = 0; i < 50; i++) {
+            result.add(PackageUrl.parse("pkg:type" + i % 7 + "/ns" + i % 5 + "/ns" + i % 3 + "/name" + i + "@" + i +
+                                        "?key" + i % 4 + "=" + i + "&z=z#sub/" + i));
+        }
+        return result;
+    }
+
+    private static byte[] write(final PackageUrlCodec codec, final List<PackageUrl> purls) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+        for (PackageUrl purl : purls) {
+            codec.write(purl, out);
+        }
+        out.flush();
+        return bytes.toByteArray();
+    }
+
+    private static List<PackageUrl> read(final PackageUrlCodec codec, final byte[] bytes, final int count)
+            throws IOException
+    {
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes));
+        List<PackageUrl> result = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            result.add(codec.read(in));
+        }
+        assertEquals(-1, in.read(), "all read");
+        return result;
+    }
+
+    private static void assertSame(final List<PackageUrl> expected, final List<PackageUrl> actual) {
+        assertEquals(expected, actual);
+        for (int i = 0; i < expected.size(); i++) {
+            assertEquals(expected.get(i).toString(), actual.get(i).toString());
+            assertEquals(expected.get(i).getNamespace(), actual.get(i).getNamespace());
+            assertEquals(expected.get(i).getSubpath(), actual.get(i).getSubpath());
+        }
+    }
+
+    @Test
+    void roundTrip() throws IOException {
+        List<PackageUrl> purls = corpus();
+        byte[] plain = write(new PackageUrlCodec(), purls);
+        assertSame(purls, read(new PackageUrlCodec(), plain, purls.size()));
+        for (int dictionarySize : new int[] {1, 2, 8, 1024}) {
+            byte[] bytes = write(new PackageUrlCodec(dictionarySize), purls);
+            assertSame(purls, read(new PackageUrlCodec(dictionarySize), bytes, purls.size()));
+            // a dictionary too small for the strings repeated costs more in markers of literals than it saves
+            if (dictionarySize == 1024) {
+                assertTrue(bytes.length < plain.length, dictionarySize + ": " + bytes.length + " >= " + plain.length);
+            }
+        }
+    }
+
+    @Test
+    void bothDirections() throws IOException {
+        List<PackageUrl> purls = corpus();
+        PackageUrlCodec codec = new PackageUrlCodec(4);
+        PackageUrlCodec peer = new PackageUrlCodec(4);
+        for (int i = 0; i < purls.size(); i++) {
+            List<PackageUrl> one = purls.subList(i, i + 1);
+            assertSame(one, read(peer, write(codec, one), 1));
+            assertSame(one, read(codec, write(peer, one), 1));
+        }
+    }
+
+    /**
+     * Once full, a dictionary keeps the strings it has; so later ones are written as literals each time.
+     */
+    @Test
+    void dictionaryOverflow() throws IOException {
+        List<PackageUrl> purls = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            purls.add(PackageUrl.parse("pkg:type" + i + "/namespace" + i + "/name"));
+        }
+        List<PackageUrl> twice = new ArrayList<>(purls);
+        twice.addAll(purls);
+        byte[] full = write(new PackageUrlCodec(2), twice);
+        assertSame(twice, read(new PackageUrlCodec(2), full, twice.size()));
+        byte[] large = write(new PackageUrlCodec(100), twice);
+        assertTrue(large.length < full.length, large.length + " >= " + full.length);
+
+        // the first two strings, type0 and namespace0, are references when repeated
+        byte[] first = write(new PackageUrlCodec(2), purls.subList(0, 1));
+        PackageUrlCodec codec = new PackageUrlCodec(2);
+        write(codec, purls);
+        byte[] repeated = write(codec, purls.subList(0, 1));
+        byte[] other = write(codec, purls.subList(1, 2));
+        assertTrue(repeated.length < first.length, repeated.length + " >= " + first.length);
+        assertEquals(write(new PackageUrlCodec(2), purls.subList(1, 2)).length, other.length);
+    }
+
+    @Test
+    void readCorrupt() {
+        // invalid flags
+        assertCorrupt(new PackageUrlCodec(), 0x10);
+        // length of more than 31 bits
+        assertCorrupt(new PackageUrlCodec(), 0, 0xFF, 0xFF, 0xFF, 0xFF, 0x08);
+        // no qualifiers
+        assertCorrupt(new PackageUrlCodec(), 0x04, 1, 'a', 1, 'b', 0);
+        // qualifiers not sorted, nor unique
+        assertCorrupt(new PackageUrlCodec(), 0x04, 1, 'a', 1, 'b', 2, 1, 'k', 1, 'v', 1, 'a', 1, 'v');
+        assertCorrupt(new PackageUrlCodec(), 0x04, 1, 'a', 1, 'b', 2, 1, 'k', 1, 'v', 1, 'k', 1, 'v');
+        // more qualifiers than fit in an array
+        assertCorrupt(new PackageUrlCodec(), 0x04, 1, 'a', 1, 'b', 0xFF, 0xFF, 0xFF, 0xFF, 0x07);
+        // reference to a string not yet read
+        assertCorrupt(new PackageUrlCodec(4), 0, 1, 1, 'b');
+    }
+
+    @Test
+    void readTruncated() throws IOException {
+        byte[] bytes = write(new PackageUrlCodec(), List.of(PackageUrl.parse("pkg:maven/g/a@1.0?type=jar#sub")));
+        for (int length = 0; length < bytes.length; length++) {
+            DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes, 0, length));
+            assertThrows(EOFException.class, () -> new PackageUrlCodec().read(in), "length " + length);
+        }
+        // a huge length is not allocated up front
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(new byte[] {
+                0, 1, 'a', (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, 0x07, 'b'}));
+        assertThrows(EOFException.class, () -> new PackageUrlCodec().read(in));
+    }
+
+    private static void assertCorrupt(final PackageUrlCodec codec, final int... values) {
+        byte[] bytes = new byte[values.length];
+        for (int i = 0; i < values.length; i++) {
+            bytes[i] = (byte) values[i];
+        }
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes));
+        assertThrows(StreamCorruptedException.class, () -> codec.read(in));
+    }
+
+    @Test
+    void invalidDictionarySize() {
+        assertThrows(IllegalArgumentException.class, () -> new PackageUrlCodec(-1));
+    }
+
+    @Test
+    void serialization() throws IOException, ClassNotFoundException {
+        assertEquals(2L, ObjectStreamClass.lookup(PackageUrl.class).getSerialVersionUID());
+        List<PackageUrl> purls = corpus();
+        purls.add(new PackageUrlParser().lazy(true).parse("pkg:npm/%40angular/core@16.0.0?os=linux#src/app"));
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            out.writeObject(new ArrayList<>(purls));
+            out.writeObject(purls.get(0));
+        }
+        try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+            @SuppressWarnings("unchecked")
+            List<PackageUrl> read = (List<PackageUrl>) in.readObject();
+            assertSame(purls, read);
+            assertEquals(purls.get(0), in.readObject());
+        }
+    }
+
+    /**
+     * A stream holding a package-url itself, rather than its proxy, is rejected; so fields are never set from a stream.
+     */
+    @Test
+    void serializationProxyRequired() throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.writeShort(ObjectStreamConstants.STREAM_MAGIC);
+        out.writeShort(ObjectStreamConstants.STREAM_VERSION);
+        out.writeByte(ObjectStreamConstants.TC_OBJECT);
+        out.writeByte(ObjectStreamConstants.TC_CLASSDESC);
+        out.writeUTF(PackageUrl.class.getName());
+        out.writeLong(2L);
+        out.writeByte(ObjectStreamConstants.SC_SERIALIZABLE);
+        out.writeShort(0);
+        out.writeByte(ObjectStreamConstants.TC_ENDBLOCKDATA);
+        out.writeByte(ObjectStreamConstants.TC_NULL);
+        out.flush();
+        try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+            InvalidObjectException e = assertThrows(InvalidObjectException.class, in::readObject);
+            assertEquals("Serialization proxy required", e.getMessage());
+        }
+    }
+}
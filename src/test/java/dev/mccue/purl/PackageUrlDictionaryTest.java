@@ -0,0 +1,212 @@
+package dev.mccue.purl;
+
+import java.io.IOException;
+import java.io.StreamCorruptedException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PackageUrlDictionaryTest
+{
+    @TempDir
+    Path dir;
+
+    /**
+     * Given number of distinct package-urls; with long shared prefixes, as in real dictionaries.
+     */
+    private static List<PackageUrl> purls(final int count) {
+        List<PackageUrl> result = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            result.add(PackageUrl.parse("pkg:maven/org.example.group" + i % 7 + "/artifact-" + i % 13 + "@1." + i +
+                                        (i % 3 == 0 ? "?type=jar" : "")));
+        }
+        return result;
+    }
+
+    /**
+     * Canonical forms of given package-urls; in the order of their {@code UTF-8} bytes, without duplicates.
+     */
+    private static List<String> sorted(final List<PackageUrl> purls) {
+        return purls.stream()
+                .map(PackageUrl::toString)
+                .distinct()
+                .sorted((a, b) -> Arrays.compareUnsigned(a.getBytes(StandardCharsets.UTF_8),
+                        b.getBytes(StandardCharsets.UTF_8)))
+                .collect(Collectors.toList());
+    }
+
+    private static void assertDictionary(final List<String> expected, final PackageUrlDictionary dictionary) {
+        assertEquals(expected.size(), dictionary.size());
+        assertEquals(expected, dictionary.stream().collect(Collectors.toList()));
+        Set<String> set = new HashSet<>(expected);
+        for (String value : expected) {
+            assertTrue(dictionary.contains(value), value);
+            assertTrue(dictionary.contains(PackageUrl.parse(value)), value);
+            String longer = value + "0";
+            assertEquals(set.contains(longer), dictionary.contains(longer), longer);
+            String shorter = value.substring(0, value.length() - 1);
+            assertEquals(set.contains(shorter), dictionary.contains(shorter), shorter);
+        }
+    }
+
+    @Test
+    void blockBoundaries() throws IOException {
+        for (int count : new int[] {0, 1, 31, 32, 33, 64, 65}) {
+            List<PackageUrl> purls = purls(count);
+            Path path = dir.resolve("dictionary-" + count);
+            PackageUrlDictionary.write(path, purls.stream());
+            PackageUrlDictionary dictionary = PackageUrlDictionary.open(path);
+            assertDictionary(sorted(purls), dictionary);
+            assertFalse(dictionary.contains("pkg:generic/absent"));
+            assertFalse(dictionary.contains(""));
+            assertFalse(dictionary.contains("pkg:zzz/after-all"));
+        }
+    }
+
+    @Test
+    void duplicatesWrittenOnce() throws IOException {
+        List<PackageUrl> purls = purls(40);
+        List<PackageUrl> doubled = new ArrayList<>(purls);
+        doubled.addAll(purls);
+        Collections.shuffle(doubled, new Random(1));
+        Path path = dir.resolve("dictionary");
+        PackageUrlDictionary.write(path, doubled.stream());
+        assertDictionary(sorted(purls), PackageUrlDictionary.open(path));
+    }
+
+    @Test
+    void mergedRuns() throws IOException {
+        List<PackageUrl> purls = purls(2_000);
+        List<PackageUrl> shuffled = new ArrayList<>(purls);
+        shuffled.addAll(purls.subList(0, 500));
+        Collections.shuffle(shuffled, new Random(2));
+        Path path = dir.resolve("dictionary");
+        // runs of about a hundred package-urls; with duplicates across runs
+        PackageUrlDictionary.write(path, shuffled.stream(), 30, 5_000);
+        assertDictionary(sorted(purls), PackageUrlDictionary.open(path));
+        try (Stream<Path> files = Files.list(dir)) {
+            assertEquals(List.of(path), files.collect(Collectors.toList()), "temporary files deleted");
+        }
+    }
+
+    @Test
+    void multipleSegments() throws IOException {
+        Random random = new Random(3);
+        List<PackageUrl> purls = new ArrayList<>();
+        for (int i = 0; i < 1_000; i++) {
+            purls.add(PackageUrl.parse("pkg:generic/" + Long.toHexString(random.nextLong()) + "@" + random.nextInt()));
+        }
+        Path path = dir.resolve("dictionary");
+        // 4 KiB segments; so blocks are padded to not cross them
+        PackageUrlDictionary.write(path, purls.stream(), 12, 1_000);
+        assertTrue(Files.size(path) > 4 * 4096, "several segments");
+        assertDictionary(sorted(purls), PackageUrlDictionary.open(path));
+    }
+
+    @Test
+    void writeSorted() throws IOException {
+        List<String> expected = sorted(purls(100));
+        Path path = dir.resolve("dictionary");
+        PackageUrlDictionary.writeSorted(path, expected.stream().flatMap(value -> Stream.of(value, value))
+                .map(PackageUrl::parse));
+        PackageUrlDictionary dictionary = PackageUrlDictionary.open(path);
+        assertDictionary(expected, dictionary);
+
+        Path copy = dir.resolve("copy");
+        PackageUrlDictionary.writeSorted(copy, dictionary.stream().map(PackageUrl::parse), 12);
+        assertDictionary(expected, PackageUrlDictionary.open(copy));
+    }
+
+    @Test
+    void writeSortedRejectsDisorder() {
+        List<String> expected = sorted(purls(100));
+        List<String> swapped = new ArrayList<>(expected);
+        Collections.swap(swapped, 40, 41);
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class, () ->
+                PackageUrlDictionary.writeSorted(dir.resolve("dictionary"), swapped.stream().map(PackageUrl::parse)));
+        assertTrue(e.getMessage().startsWith("Package-urls not in order: " + expected.get(40)), e.getMessage());
+    }
+
+    @Test
+    void lookups() throws IOException {
+        List<PackageUrl> purls = new ArrayList<>(purls(100));
+        for (String value : new String[] {
+                "pkg:maven/org.example/lib@1.0",
+                "pkg:maven/org.example/lib@2.0?type=pom",
+                "pkg:maven/org.example/lib#sub",
+                "pkg:maven/org.example/lib",
+                "pkg:maven/org.example/library@1.0",
+                "pkg:maven/org.example.sub/lib@1.0",
+                "pkg:pypi/django-utils@1.0",
+                "pkg:pypi/django@4.2",
+                "pkg:npm/a@1.0"
+        }) {
+            purls.add(PackageUrl.parse(value));
+        }
+        Path path = dir.resolve("dictionary");
+        PackageUrlDictionary.write(path, purls.stream());
+        PackageUrlDictionary dictionary = PackageUrlDictionary.open(path);
+
+        assertEquals(List.of("pkg:maven/org.example/lib", "pkg:maven/org.example/lib#sub",
+                "pkg:maven/org.example/lib@1.0", "pkg:maven/org.example/lib@2.0?type=pom"),
+                dictionary.find("maven", List.of("org.example"), "lib").collect(Collectors.toList()));
+        // the name is transformed as for the type
+        assertEquals(List.of("pkg:pypi/django-utils@1.0"),
+                dictionary.find("PyPI", null, "Django_Utils").collect(Collectors.toList()));
+        assertEquals(List.of(), dictionary.find("maven", List.of("org.example"), "li").collect(Collectors.toList()));
+
+        assertEquals(5, dictionary.stream("maven", List.of("org.example")).count());
+        assertEquals(2, dictionary.stream("pypi", null).count());
+        assertEquals(sorted(purls.subList(0, 100)),
+                dictionary.startingWith("pkg:maven/org.example.group").collect(Collectors.toList()));
+        assertEquals(List.of(), dictionary.startingWith("pkg:zzz").collect(Collectors.toList()));
+
+        assertEquals(List.of("pkg:npm/a@1.0", "pkg:pypi/django-utils@1.0"),
+                dictionary.range("pkg:n", "pkg:pypi/django@").collect(Collectors.toList()));
+        assertEquals(List.of("pkg:maven/org.example/lib@1.0"),
+                dictionary.range("pkg:maven/org.example/lib@1.0", "pkg:maven/org.example/lib@1.1")
+                        .collect(Collectors.toList()));
+        assertEquals(List.of(), dictionary.range("pkg:b", "pkg:a").collect(Collectors.toList()));
+    }
+
+    @Test
+    void rangesAcrossBlocks() throws IOException {
+        List<String> expected = sorted(purls(200));
+        Path path = dir.resolve("dictionary");
+        PackageUrlDictionary.writeSorted(path, expected.stream().map(PackageUrl::parse));
+        PackageUrlDictionary dictionary = PackageUrlDictionary.open(path);
+        for (int from = 0; from < expected.size(); from += 7) {
+            for (int to = from; to <= expected.size(); to += 29) {
+                String end = to < expected.size() ? expected.get(to) : "pkg:zzz";
+                assertEquals(expected.subList(from, to),
+                        dictionary.range(expected.get(from), end).collect(Collectors.toList()), from + ".." + to);
+            }
+        }
+    }
+
+    @Test
+    void notADictionary() throws IOException {
+        Path path = dir.resolve("dictionary");
+        Files.write(path, new byte[64]);
+        assertThrows(StreamCorruptedException.class, () -> PackageUrlDictionary.open(path));
+        Files.write(path, new byte[3]);
+        assertThrows(StreamCorruptedException.class, () -> PackageUrlDictionary.open(path));
+    }
+}
@@ -0,0 +1,241 @@
+package dev.mccue.purl;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.StreamCorruptedException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PackageUrlFilterTest
+{
+    private static final PackageUrlParser PARSER = new PackageUrlParser();
+
+    /**
+     * Non-canonical spellings of package-urls, each followed by its canonical form.
+     */
+    private static final String[][] SPELLINGS = {
+            {"pkg:Maven/org.example/lib@1.0", "pkg:maven/org.example/lib@1.0"},
+            {"pkg:maven/org.example/lib@1.0?type=jar&classifier=x",
+             "pkg:maven/org.example/lib@1.0?classifier=x&type=jar"},
+            {"pkg:maven/org.example/lib?Type=jar", "pkg:maven/org.example/lib?type=jar"},
+            {"pkg:maven/org.example/lib@1.0?type=", "pkg:maven/org.example/lib@1.0"},
+            {"pkg:pypi/Django_Utils@1.0", "pkg:pypi/django-utils@1.0"},
+            {"pkg:github/Package-Url/Purl-Spec", "pkg:github/package-url/purl-spec"},
+            {"pkg:maven/org.example/lib@1.0#/sub/", "pkg:maven/org.example/lib@1.0#sub"},
+            {"pkg://maven/org.example/lib", "pkg:maven/org.example/lib"},
+            {"pkg:maven//org.example/lib", "pkg:maven/org.example/lib"},
+            {"pkg:maven/org.example/l%69b", "pkg:maven/org.example/lib"},
+            {"pkg:generic/caf%c3%a9", "pkg:generic/caf%C3%A9"},
+    };
+
+    private static List<PackageUrl> purls(final String prefix, final int count) {
+        List<PackageUrl> result = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            switch (i % 4) {
+                case 0:
+                    result.add(PackageUrl.parse("pkg:maven/org." + prefix + i % 97 + "/lib-" + i + "@1." + i));
+                    break;
+                case 1:
+                    result.add(PackageUrl.parse("pkg:npm/%40" + prefix + "/pkg-" + i + "@" + i + ".0.0"));
+                    break;
+                case 2:
+                    result.add(PackageUrl.parse("pkg:pypi/" + prefix + "-" + i + "@" + i + "?extension=whl#src"));
+                    break;
+                default:
+                    result.add(PackageUrl.parse("pkg:generic/" + prefix + "/caf%C3%A9-" + i));
+            }
+        }
+        return result;
+    }
+
+    private static void assertContainsAll(final PackageUrlFilter filter, final List<PackageUrl> purls) {
+        for (PackageUrl purl : purls) {
+            String value = purl.toString();
+            assertTrue(filter.mightContain(purl), value);
+            assertTrue(filter.mightContain(value), value);
+            assertTrue(filter.mightContain(new StringBuilder(value)), value);
+            byte[] bytes = ("  " + value).getBytes(StandardCharsets.UTF_8);
+            assertTrue(filter.mightContain(bytes, 2, bytes.length - 2), value);
+        }
+    }
+
+    @Test
+    void noFalseNegatives() {
+        for (double rate : new double[] {0.5, 0.01, 0.0001}) {
+            for (int count : new int[] {0, 1, 100, 10_000}) {
+                List<PackageUrl> purls = purls("in", count);
+                assertContainsAll(PackageUrlFilter.of(purls, rate), purls);
+                assertContainsAll(PackageUrlFilter.versionless(purls, rate), purls);
+            }
+        }
+    }
+
+    @Test
+    void falsePositiveRate() {
+        List<PackageUrl> purls = purls("in", 10_000);
+        List<PackageUrl> others = purls("out", 20_000);
+        for (double rate : new double[] {0.1, 0.01}) {
+            PackageUrlFilter filter = PackageUrlFilter.of(purls, rate);
+            int positives = 0;
+            for (PackageUrl other : others) {
+                if (filter.mightContain(other)) {
+                    positives++;
+                }
+            }
+            double actual = (double) positives / others.size();
+            assertTrue(actual < rate * 2, actual + " for " + rate);
+        }
+    }
+
+    @Test
+    void canonicalStringsAgreeWithParsing() {
+        List<PackageUrl> purls = purls("in", 1_000);
+        for (String[] spelling : SPELLINGS) {
+            assertFalse(PARSER.isCanonical(spelling[0], new PackageUrlScanner()), spelling[0]);
+            assertEquals(spelling[1], PackageUrl.parse(spelling[0]).toString());
+        }
+        // conservative, but plain canonical forms are not parsed
+        for (int i = 0; i < SPELLINGS.length - 1; i++) {
+            assertTrue(PARSER.isCanonical(SPELLINGS[i][1], new PackageUrlScanner()), SPELLINGS[i][1]);
+        }
+        for (boolean versionless : new boolean[] {false, true}) {
+            List<PackageUrl> contained = new ArrayList<>(purls);
+            for (String[] spelling : SPELLINGS) {
+                contained.add(PackageUrl.parse(spelling[1]));
+            }
+            PackageUrlFilter filter = versionless ? PackageUrlFilter.versionless(contained, 0.01) :
+                                      PackageUrlFilter.of(contained, 0.01);
+            for (String[] spelling : SPELLINGS) {
+                assertTrue(filter.mightContain(spelling[0]), spelling[0]);
+                assertTrue(filter.mightContain(spelling[1]), spelling[1]);
+            }
+
+            // whichever path checks a string, its answer is that for the package-url it is
+            PackageUrlFilter other = versionless ? PackageUrlFilter.versionless(purls, 0.5) :
+                                     PackageUrlFilter.of(purls, 0.5);
+            List<String> values = new ArrayList<>();
+            for (String[] spelling : SPELLINGS) {
+                values.addAll(Arrays.asList(spelling));
+            }
+            for (PackageUrl purl : purls("out", 1_000)) {
+                values.add(purl.toString());
+                values.add(purl.toString().replace("pkg:", "pkg:/"));
+            }
+            for (String value : values) {
+                PackageUrl purl = PackageUrl.parse(value);
+                if (PARSER.isCanonical(value, new PackageUrlScanner())) {
+                    assertEquals(purl.toString(), value);
+                }
+                assertEquals(other.mightContain(purl), other.mightContain(value), value);
+                assertEquals(other.mightContain(purl), other.mightContain(purl.toString()), value);
+            }
+        }
+    }
+
+    @Test
+    void notPackageUrls() {
+        List<PackageUrl> purls = purls("in", 100);
+        PackageUrlFilter filter = PackageUrlFilter.of(purls, 0.5);
+        for (String value : new String[] {"", "pkg:", "pkg:maven", "maven/org.example/lib", "pkg:maven/a/%zz",
+                                          "pkg:npm/@angular/core@16.0.0"})
+        {
+            assertFalse(filter.mightContain(value), value);
+        }
+    }
+
+    @Test
+    void versionless() {
+        List<PackageUrl> purls = purls("in", 1_000);
+        PackageUrlFilter filter = PackageUrlFilter.versionless(purls, 0.001);
+        assertTrue(filter.isVersionless());
+        assertFalse(PackageUrlFilter.of(purls, 0.001).isVersionless());
+        for (PackageUrl purl : purls) {
+            PackageUrl other = purl.withVersion("9.9").withQualifier("type", "zip").withSubpath("other");
+            assertTrue(filter.mightContain(other), other.toString());
+            assertTrue(filter.mightContain(other.toString()), other.toString());
+            assertTrue(filter.mightContain(purl.withoutVersion().withoutQualifiers().withoutSubpath()),
+                    purl.toString());
+            // non-canonical, so parsed
+            assertTrue(filter.mightContain(other.toString().replace("pkg:", "pkg://")), other.toString());
+        }
+        int positives = 0;
+        for (PackageUrl purl : purls("out", 1_000)) {
+            if (filter.mightContain(purl)) {
+                positives++;
+            }
+        }
+        assertTrue(positives < 10, positives + " false positives");
+    }
+
+    @Test
+    void writeAndRead() throws IOException {
+        List<PackageUrl> purls = purls("in", 5_000);
+        List<PackageUrl> others = purls("out", 5_000);
+        for (PackageUrlFilter filter : new PackageUrlFilter[] {
+                PackageUrlFilter.of(purls, 0.05), PackageUrlFilter.versionless(purls, 0.05)})
+        {
+            byte[] bytes = write(filter);
+            PackageUrlFilter read = PackageUrlFilter.read(new DataInputStream(new ByteArrayInputStream(bytes)));
+            assertEquals(filter.isVersionless(), read.isVersionless());
+            assertContainsAll(read, purls);
+            for (PackageUrl other : others) {
+                assertEquals(filter.mightContain(other), read.mightContain(other), other.toString());
+            }
+            assertTrue(Arrays.equals(bytes, write(read)));
+
+            byte[] truncated = Arrays.copyOf(bytes, bytes.length - 1);
+            assertThrows(EOFException.class, () ->
+                    PackageUrlFilter.read(new DataInputStream(new ByteArrayInputStream(truncated))));
+        }
+    }
+
+    @Test
+    void readInvalid() throws IOException {
+        byte[] bytes = write(PackageUrlFilter.of(purls("in", 10), 0.01));
+        byte[] magic = bytes.clone();
+        magic[0] ^= 1;
+        assertThrows(StreamCorruptedException.class, () ->
+                PackageUrlFilter.read(new DataInputStream(new ByteArrayInputStream(magic))));
+        byte[] format = bytes.clone();
+        format[7] ^= 1;
+        assertThrows(StreamCorruptedException.class, () ->
+                PackageUrlFilter.read(new DataInputStream(new ByteArrayInputStream(format))));
+        byte[] size = bytes.clone();
+        Arrays.fill(size, 9, 13, (byte) 0);
+        assertThrows(StreamCorruptedException.class, () ->
+                PackageUrlFilter.read(new DataInputStream(new ByteArrayInputStream(size))));
+        // a huge size is not allocated up front
+        byte[] huge = bytes.clone();
+        huge[9] = 0x0F;
+        assertThrows(EOFException.class, () ->
+                PackageUrlFilter.read(new DataInputStream(new ByteArrayInputStream(huge))));
+    }
+
+    @Test
+    void invalidFalsePositiveRate() {
+        for (double rate : new double[] {0, 1, -0.1, Double.NaN}) {
+            assertThrows(IllegalArgumentException.class, () -> PackageUrlFilter.of(List.of(), rate));
+        }
+    }
+
+    private static byte[] write(final PackageUrlFilter filter) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            filter.write(out);
+        }
+        return bytes.toByteArray();
+    }
+}
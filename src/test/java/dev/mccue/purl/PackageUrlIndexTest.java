@@ -0,0 +1,237 @@
+package dev.mccue.purl;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PackageUrlIndexTest
+{
+    private static List<PackageUrl> parse(final String... values) {
+        List<PackageUrl> result = new ArrayList<>();
+        for (String value : values) {
+            result.add(PackageUrl.parse(value));
+        }
+        return result;
+    }
+
+    @Test
+    void addRemoveContains() {
+        PackageUrlIndex index = new PackageUrlIndex();
+        PackageUrl purl = PackageUrl.parse("pkg:maven/org.example/lib@1.0");
+        assertFalse(index.contains(purl));
+        assertTrue(index.add(purl));
+        assertFalse(index.add(PackageUrl.parse("pkg:maven/org.example/lib@1.0")));
+        assertTrue(index.contains(PackageUrl.parse("pkg:maven/org.example/lib@1.0")));
+        assertFalse(index.contains(PackageUrl.parse("pkg:maven/org.example/lib@1.1")));
+        assertFalse(index.contains(PackageUrl.parse("pkg:maven/org.example/lib@1.0?type=pom")));
+        assertEquals(1, index.size());
+
+        assertFalse(index.remove(PackageUrl.parse("pkg:maven/org.example/lib@2.0")));
+        assertFalse(index.remove(PackageUrl.parse("pkg:maven/org.other/lib@1.0")));
+        assertFalse(index.remove(PackageUrl.parse("pkg:npm/lib@1.0")));
+        assertTrue(index.remove(PackageUrl.parse("pkg:maven/org.example/lib@1.0")));
+        assertFalse(index.remove(purl));
+        assertFalse(index.contains(purl));
+        assertEquals(0, index.size());
+    }
+
+    @Test
+    void findInNaturalOrder() {
+        PackageUrlIndex index = new PackageUrlIndex();
+        List<PackageUrl> versions = parse(
+                "pkg:maven/org.example/lib",
+                "pkg:maven/org.example/lib@1.0",
+                "pkg:maven/org.example/lib@1.0?type=pom",
+                "pkg:maven/org.example/lib@2.0",
+                "pkg:maven/org.example/lib@2.0#sub");
+        for (int i = versions.size() - 1; i >= 0; i--) {
+            index.add(versions.get(i));
+        }
+        index.add(PackageUrl.parse("pkg:maven/org.example/library@1.0"));
+        index.add(PackageUrl.parse("pkg:maven/org.example.sub/lib@1.0"));
+
+        assertEquals(versions, index.find(PackageUrl.parse("pkg:maven/org.example/lib@9")));
+        assertEquals(versions, index.find("maven", List.of("org.example"), "lib"));
+        assertEquals(List.of(), index.find("maven", List.of("org.example"), "li"));
+        assertEquals(List.of(), index.find("maven", List.of("org"), "lib"));
+        assertEquals(List.of(), index.find("npm", null, "lib"));
+        assertThrows(UnsupportedOperationException.class, () -> index.find("maven", List.of("org.example"), "lib")
+                .clear());
+    }
+
+    @Test
+    void namesAndNamespaces() {
+        PackageUrlIndex index = new PackageUrlIndex();
+        for (PackageUrl purl : parse(
+                "pkg:golang/github.com/gorilla/mux@v1.8.0",
+                "pkg:golang/github.com/gorilla/websocket@v1.5.0",
+                "pkg:golang/github.com/google/uuid@v1.3.0",
+                "pkg:golang/golang.org/x/text@v0.3.0",
+                "pkg:golang/github.com/a@v1",
+                "pkg:npm/lodash@4.17.21"))
+        {
+            index.add(purl);
+        }
+        assertEquals(Set.of("golang", "npm"), index.types());
+        assertEquals(Set.of("github.com", "golang.org"), index.namespaces("golang", null));
+        assertEquals(Set.of("github.com", "golang.org"), index.namespaces("golang", List.of()));
+        assertEquals(Set.of("gorilla", "google"), index.namespaces("golang", List.of("github.com")));
+        assertEquals(Set.of("a"), index.names("golang", List.of("github.com")));
+        assertEquals(Set.of("mux", "websocket"), index.names("golang", List.of("github.com", "gorilla")));
+        assertEquals(Set.of(), index.names("golang", List.of("github.com", "gorilla", "mux")));
+        assertEquals(Set.of(), index.namespaces("golang", List.of("gitlab.com")));
+        assertEquals(Set.of(), index.names("cargo", null));
+        assertEquals(Set.of("lodash"), index.names("npm", null));
+
+        assertEquals(4, index.stream("golang", List.of("github.com")).count());
+        assertEquals(2, index.stream("golang", List.of("github.com", "gorilla")).count());
+        assertEquals(5, index.stream("golang", null).count());
+        assertEquals(0, index.stream("golang", List.of("bitbucket.org")).count());
+        assertEquals(6, index.stream().count());
+    }
+
+    @Test
+    void removePrunesNamespaces() {
+        PackageUrlIndex index = new PackageUrlIndex();
+        PackageUrl deep = PackageUrl.parse("pkg:golang/github.com/gorilla/mux@v1.8.0");
+        PackageUrl shallow = PackageUrl.parse("pkg:golang/github.com/a@v1");
+        index.add(deep);
+        index.add(shallow);
+
+        assertTrue(index.remove(deep));
+        assertEquals(Set.of(), index.namespaces("golang", List.of("github.com")));
+        assertEquals(Set.of("github.com"), index.namespaces("golang", null));
+
+        assertTrue(index.remove(shallow));
+        assertEquals(Set.of(), index.namespaces("golang", null));
+        // types are kept
+        assertEquals(Set.of("golang"), index.types());
+        assertEquals(0, index.size());
+
+        // a namespace with packages is kept while it has children
+        index.add(deep);
+        index.add(PackageUrl.parse("pkg:golang/github.com/gorilla@v1"));
+        assertTrue(index.remove(PackageUrl.parse("pkg:golang/github.com/gorilla@v1")));
+        assertEquals(Set.of("gorilla"), index.namespaces("golang", List.of("github.com")));
+        assertTrue(index.contains(deep));
+    }
+
+    @Test
+    void nullAndEmptyNamespaces() {
+        PackageUrlIndex index = new PackageUrlIndex();
+        PackageUrl absent = PackageUrl.builder().type("generic").name("x").version("1").build();
+        PackageUrl empty = PackageUrl.builder().type("generic").namespace(List.of()).name("x").version("1").build();
+        assertTrue(index.add(absent));
+        assertFalse(index.contains(empty));
+        assertTrue(index.add(empty));
+        assertEquals(2, index.size());
+        // both are at the root of the type, but are different package-urls
+        assertEquals(List.of(absent, empty), index.find(absent));
+        assertEquals(List.of(absent, empty), index.find("generic", null, "x"));
+        assertEquals(List.of(absent, empty), index.find("generic", List.of(), "x"));
+
+        assertTrue(index.remove(empty));
+        assertTrue(index.contains(absent));
+        assertFalse(index.contains(empty));
+        assertTrue(index.remove(absent));
+        assertEquals(Set.of(), index.names("generic", null));
+    }
+
+    /**
+     * Writers add and remove versions of packages which share namespaces, and so stripes, and prune them; while readers
+     * check each lookup sees a sorted snapshot of whole updates.
+     */
+    @Test
+    void concurrentUpdatesAndReads() throws Exception {
+        PackageUrlIndex index = new PackageUrlIndex();
+        int writers = 4;
+        int rounds = 200;
+        ExecutorService executor = Executors.newFixedThreadPool(writers + 2);
+        try {
+            AtomicBoolean done = new AtomicBoolean();
+            CountDownLatch start = new CountDownLatch(1);
+            List<Future<?>> writes = new ArrayList<>();
+            for (int w = 0; w < writers; w++) {
+                int writer = w;
+                writes.add(executor.submit(() -> {
+                    start.await();
+                    for (int round = 0; round < rounds; round++) {
+                        List<PackageUrl> purls = new ArrayList<>();
+                        for (int i = 0; i < 10; i++) {
+                            purls.add(PackageUrl.parse("pkg:maven/org.shared/lib@" + writer + "." + i));
+                            purls.add(PackageUrl.parse("pkg:maven/org.shared.w" + writer + "/lib@" + i));
+                            purls.add(PackageUrl.parse("pkg:golang/github.com/w" + writer + "/deep/mod@v" + i));
+                        }
+                        for (PackageUrl purl : purls) {
+                            assertTrue(index.add(purl), purl.toString());
+                        }
+                        if (round < rounds - 1) {
+                            for (PackageUrl purl : purls) {
+                                assertTrue(index.remove(purl), purl.toString());
+                            }
+                        }
+                    }
+                    return null;
+                }));
+            }
+            List<Future<?>> reads = new ArrayList<>();
+            for (int r = 0; r < 2; r++) {
+                reads.add(executor.submit(() -> {
+                    start.await();
+                    PackageUrl absent = PackageUrl.parse("pkg:maven/org.shared/lib@absent");
+                    while (!done.get()) {
+                        List<PackageUrl> found = index.find("maven", List.of("org.shared"), "lib");
+                        for (int i = 1; i < found.size(); i++) {
+                            assertTrue(found.get(i - 1).compareTo(found.get(i)) < 0, found.toString());
+                        }
+                        for (PackageUrl purl : found) {
+                            assertEquals("lib", purl.getName());
+                        }
+                        assertFalse(index.contains(absent));
+                        index.stream("golang", List.of("github.com")).forEach(purl ->
+                                assertEquals("mod", purl.getName()));
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> write : writes) {
+                write.get(60, TimeUnit.SECONDS);
+            }
+            done.set(true);
+            for (Future<?> read : reads) {
+                read.get(60, TimeUnit.SECONDS);
+            }
+        }
+        finally {
+            executor.shutdownNow();
+        }
+
+        assertEquals(writers * 30, index.size());
+        Set<String> expected = new HashSet<>();
+        for (int writer = 0; writer < writers; writer++) {
+            for (int i = 0; i < 10; i++) {
+                expected.add("pkg:maven/org.shared/lib@" + writer + "." + i);
+                expected.add("pkg:maven/org.shared.w" + writer + "/lib@" + i);
+                expected.add("pkg:golang/github.com/w" + writer + "/deep/mod@v" + i);
+            }
+        }
+        assertEquals(expected, index.stream().map(PackageUrl::toString).collect(Collectors.toSet()));
+        assertEquals(writers * 10, index.find("maven", List.of("org.shared"), "lib").size());
+    }
+}
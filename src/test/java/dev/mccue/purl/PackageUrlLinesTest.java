@@ -0,0 +1,258 @@
+package dev.mccue.purl;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PackageUrlLinesTest
+{
+    private static final PackageUrlParser PARSER = new PackageUrlParser();
+
+    /**
+     * Window sizes smaller than the lines, so that they and their terminators straddle windows.
+     */
+    private static final int[] WINDOW_SIZES = {1, 2, 3, 7, 16, 64, PackageUrlLines.WINDOW_SIZE};
+
+    @TempDir
+    Path dir;
+
+    /**
+     * Lines of input, with a mix of terminators and of empty and invalid lines.
+     */
+    static String input(final int count, final String lastTerminator) {
+        String[] terminators = {"\n", "\r\n", "\r", "\n\n", "\r\n\r\n", "\n\r"};
+        StringBuilder result = new StringBuilder();
+        for (int i = 0; i < count; i++) {
+            switch (i % 5) {
+                case 0:
+                    result.append("pkg:maven/org.example/lib-").append(i).append("@1.").append(i);
+                    break;
+                case 1:
+                    result.append("pkg:npm/%40scope/pkg-").append(i).append("?os=linux#src/app");
+                    break;
+                case 2:
+                    result.append("pkg:generic/café-").append(i);
+                    break;
+                case 3:
+                    result.append("not a purl ").append(i);
+                    break;
+                default:
+                    result.append("pkg:maven/g/a@");
+            }
+            result.append(i + 1 < count ? terminators[i % terminators.length] : lastTerminator);
+        }
+        return result.toString();
+    }
+
+    /**
+     * Lines of input as the streams should give them; numbered from {@code 1}, and counting empty lines.
+     */
+    static List<String> expected(final String input) {
+        List<String> result = new ArrayList<>();
+        long lineNumber = 0;
+        int start = 0;
+        while (start < input.length()) {
+            int end = start;
+            while (end < input.length() && input.charAt(end) != '\n' && input.charAt(end) != '\r') {
+                end++;
+            }
+            lineNumber++;
+            if (end > start) {
+                String line = input.substring(start, end);
+                result.add(lineNumber + ": " + PARSER.tryParse(line));
+            }
+            start = end + 1;
+            if (end + 1 < input.length() && input.charAt(end) == '\r' && input.charAt(end + 1) == '\n') {
+                start++;
+            }
+        }
+        return result;
+    }
+
+    private static List<String> toStrings(final Stream<PackageUrlLine> lines) {
+        try (lines) {
+            return lines.map(PackageUrlLine::toString).collect(Collectors.toList());
+        }
+    }
+
+    /**
+     * Input stream which reads at most one byte at a time.
+     */
+    private static InputStream trickle(final byte[] bytes) {
+        return new ByteArrayInputStream(bytes)
+        {
+            @Override
+            public synchronized int read(final byte[] b, final int off, final int len) {
+                return super.read(b, off, Math.min(len, 1));
+            }
+        };
+    }
+
+    private void assertLines(final String input) throws IOException {
+        List<String> expected = expected(input);
+        byte[] bytes = input.getBytes(StandardCharsets.UTF_8);
+        assertEquals(expected, toStrings(PARSER.parseAll(new StringReader(input))));
+        assertEquals(expected, toStrings(PARSER.parseAll(new ByteArrayInputStream(bytes))));
+        assertEquals(expected, toStrings(PARSER.parseAll(trickle(bytes))));
+
+        Path path = dir.resolve("purls.txt");
+        Files.write(path, bytes);
+        assertEquals(expected, toStrings(PARSER.parseAll(path)));
+        for (int windowSize : WINDOW_SIZES) {
+            assertEquals(expected, toStrings(PARSER.parseAll(path, false, true, windowSize, Long.MAX_VALUE)),
+                    "window " + windowSize);
+        }
+    }
+
+    @Test
+    void parseAll() throws IOException {
+        for (String last : new String[] {"", "\n", "\r", "\r\n", "\n\n"}) {
+            for (int count : new int[] {0, 1, 2, 5, 6, 31}) {
+                assertLines(input(count, last));
+            }
+        }
+        for (String input : new String[] {"", "\n", "\r\n", "\r", "\r\r\n\n", "\n\n\npkg:npm/a", "\r\npkg:npm/a\r"}) {
+            assertLines(input);
+        }
+    }
+
+    /**
+     * Lines longer than the buffer read, or the window mapped, which are grown to hold them.
+     */
+    @Test
+    void longLines() throws IOException {
+        StringBuilder name = new StringBuilder();
+        while (name.length() < 3 * 64 * 1024) {
+            name.append("abcdefghijklmnopqrstuvwxyz-");
+        }
+        String input = "pkg:npm/a\r\npkg:generic/" + name + "@1\r\npkg:npm/b\rpkg:generic/" + name + "-2";
+        assertLines(input);
+        assertLines(input + "\r\n");
+    }
+
+    @Test
+    void failureLineNumbers() throws IOException {
+        String input = "pkg:npm/a\r\n\r\nnot a purl\npkg:npm/b\r\rpkg:maven/g/a@\n";
+        Path path = dir.resolve("failures.txt");
+        Files.writeString(path, input);
+        for (int windowSize : WINDOW_SIZES) {
+            List<PackageUrlLine> lines;
+            try (Stream<PackageUrlLine> stream = PARSER.parseAll(path, false, true, windowSize, Long.MAX_VALUE)) {
+                lines = stream.collect(Collectors.toList());
+            }
+            assertEquals(4, lines.size());
+            assertEquals(1, lines.get(0).getLineNumber());
+            assertTrue(lines.get(0).getResult().isSuccess());
+            assertEquals(3, lines.get(1).getLineNumber());
+            assertFalse(lines.get(1).getResult().isSuccess());
+            assertEquals("not a purl", lines.get(1).getResult().getValue());
+            assertEquals(4, lines.get(2).getLineNumber());
+            assertEquals(6, lines.get(3).getLineNumber());
+            assertFalse(lines.get(3).getResult().isSuccess());
+            assertEquals("pkg:maven/g/a@", lines.get(3).getResult().getValue());
+        }
+    }
+
+    private static List<String> sorted(final List<String> lines) {
+        List<String> result = new ArrayList<>(lines);
+        result.sort(null);
+        return result;
+    }
+
+    /**
+     * Parallel streams, split down to single lines, give the lines of sequential ones; in the same order if ordered.
+     */
+    @Test
+    void parallel() throws IOException {
+        Path path = dir.resolve("purls.txt");
+        for (String last : new String[] {"", "\n", "\r", "\r\n"}) {
+            for (int count : new int[] {1, 2, 6, 31}) {
+                String input = input(count, last);
+                List<String> expected = expected(input);
+                Files.writeString(path, input);
+                for (int windowSize : new int[] {3, PackageUrlLines.WINDOW_SIZE}) {
+                    for (long minimumSplitSize : new long[] {1, 2, 16}) {
+                        String message = input + " window " + windowSize + " split " + minimumSplitSize;
+                        assertEquals(expected, toStrings(PARSER.parseAll(path, true, true, windowSize,
+                                minimumSplitSize)), message);
+                        assertEquals(sorted(expected), sorted(toStrings(PARSER.parseAll(path, true, false,
+                                windowSize, minimumSplitSize))), message);
+                    }
+                }
+            }
+        }
+
+        // large enough to be split with the default minimum
+        String input = input(20_000, "\r\n");
+        Files.writeString(path, input);
+        List<String> expected = expected(input);
+        assertTrue(input.length() > 8 * PackageUrlLines.MINIMUM_SPLIT_SIZE);
+        assertEquals(expected, toStrings(PARSER.parseAllParallel(path, true)));
+        assertEquals(sorted(expected), sorted(toStrings(PARSER.parseAllParallel(path, false))));
+        assertEquals(expected, toStrings(PARSER.parseAll(path).parallel()));
+    }
+
+    /**
+     * Ranges split off at each line terminator; including either side of a {@code \r\n}, and before the last line.
+     */
+    @Test
+    void splits() throws IOException {
+        String input = "pkg:npm/a\r\n\r\nnot a purl\r\npkg:npm/b\rpkg:maven/g/a@\n\npkg:npm/c@1\r\npkg:npm/d";
+        Path path = dir.resolve("purls.txt");
+        Files.writeString(path, input);
+        List<String> expected = expected(input);
+        for (int windowSize : new int[] {1, 3, PackageUrlLines.WINDOW_SIZE}) {
+            List<Spliterator<PackageUrlLine>> ranges = new ArrayList<>();
+            try (Stream<PackageUrlLine> stream = PARSER.parseAll(path, true, true, windowSize, 1)) {
+                split(stream.spliterator(), ranges);
+                List<Long> ends = new ArrayList<>();
+                long end = 0;
+                for (Spliterator<PackageUrlLine> range : ranges) {
+                    end += range.estimateSize();
+                    ends.add(end);
+                }
+                assertEquals(input.length(), end);
+                assertTrue(ends.contains((long) input.indexOf("\r\n") + 2), ends.toString());
+                assertTrue(ends.contains((long) input.lastIndexOf("\r\n") + 2), ends.toString());
+                assertTrue(ends.contains((long) input.indexOf("\r\n\r\n") + 4), ends.toString());
+                assertFalse(ends.contains((long) input.indexOf("\r\n") + 1), ends.toString());
+
+                List<String> actual = new ArrayList<>();
+                for (Spliterator<PackageUrlLine> range : ranges) {
+                    range.forEachRemaining(line -> actual.add(line.toString()));
+                }
+                assertEquals(expected, actual, "window " + windowSize);
+            }
+        }
+    }
+
+    /**
+     * Split given range as far as it goes; adding the ranges in order.
+     */
+    private static void split(final Spliterator<PackageUrlLine> range, final List<Spliterator<PackageUrlLine>> ranges) {
+        Spliterator<PackageUrlLine> prefix = range.trySplit();
+        if (prefix != null) {
+            split(prefix, ranges);
+            split(range, ranges);
+        }
+        else {
+            ranges.add(range);
+        }
+    }
+}
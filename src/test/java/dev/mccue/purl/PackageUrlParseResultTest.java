@@ -0,0 +1,32 @@
+package dev.mccue.purl;
+
+import java.nio.charset.StandardCharsets;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class PackageUrlParseResultTest
+{
+    @Test
+    void valueOfFailure() {
+        PackageUrlParseResult result = new PackageUrlParser().tryParse("pkg:maven/g/a@");
+        assertFalse(result.isSuccess());
+        assertEquals("pkg:maven/g/a@", result.getValue());
+        assertEquals('@', result.getValue().charAt(result.getOffset() - 1));
+    }
+
+    @Test
+    void valueOfFailureFromBytes() {
+        byte[] bytes = "xx pkg:maven//a yy".getBytes(StandardCharsets.UTF_8);
+        PackageUrlParseResult result = new PackageUrlParser().tryParse(bytes, 3, 12);
+        assertEquals("pkg:maven//a", result.getValue());
+    }
+
+    @Test
+    void noValueOfSuccess() {
+        assertNull(new PackageUrlParser().tryParse("pkg:maven/g/a@1.0").getValue());
+    }
+}
@@ -0,0 +1,83 @@
+package dev.mccue.purl;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PackageUrlParserTest
+{
+    @Test
+    void cachedFailureThrowsNewException() {
+        PackageUrlParser parser = new PackageUrlParser().cache(16);
+        InvalidException first = assertThrows(InvalidException.class, () -> parser.parse("pkg:maven/g/a@"));
+        first.addSuppressed(new IllegalStateException("first caller"));
+        InvalidException second = assertThrows(InvalidException.class, () -> parser.parse("pkg:maven/g/a@"));
+
+        assertEquals(1, parser.cacheHitCount());
+        assertNotSame(first, second);
+        assertEquals(first.getMessage(), second.getMessage());
+        assertEquals(0, second.getSuppressed().length);
+    }
+
+    @Test
+    void stackTracesDisabled() {
+        PackageUrlParser parser = new PackageUrlParser().stackTraces(false);
+        for (String value : new String[] {"pkg:maven/g/a@", "pkg:maven//a", "pkg:maven/g/a%zz"}) {
+            RuntimeException e = assertThrows(RuntimeException.class, () -> parser.parse(value));
+            assertEquals(0, e.getStackTrace().length, value);
+        }
+    }
+
+    @Test
+    void stackTracesEnabled() {
+        PackageUrlParser parser = new PackageUrlParser();
+        for (String value : new String[] {"pkg:maven/g/a@", "pkg:maven//a", "pkg:maven/g/a%zz"}) {
+            RuntimeException e = assertThrows(RuntimeException.class, () -> parser.parse(value));
+            assertTrue(e.getStackTrace().length > 0, value);
+        }
+    }
+
+    @Test
+    void illegalEscapeIsIllegalArgument() {
+        PackageUrlParser parser = new PackageUrlParser().stackTraces(false);
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+                () -> parser.parse("pkg:maven/g/a%zz"));
+        assertTrue(e.getMessage().startsWith("Illegal escape (%) pattern in: "), e.getMessage());
+    }
+
+    @Test
+    void toExceptionAfterStacklessParse() {
+        PackageUrlParser parser = new PackageUrlParser().stackTraces(false).cache(16);
+        for (String value : new String[] {"pkg:maven/g/a@", "pkg:maven/g/a%zz"}) {
+            assertThrows(RuntimeException.class, () -> parser.parse(value));
+            assertTrue(parser.tryParse(value).toException().getStackTrace().length > 0, value);
+        }
+    }
+
+    @Test
+    void emptyNamespaceSegment() {
+        EmptySegmentException e = assertThrows(EmptySegmentException.class,
+                () -> new PackageUrlParser().parse("pkg:maven///x"));
+        assertEquals("Empty segment in: /", e.getMessage());
+    }
+
+    @Test
+    void sharePackages() {
+        for (boolean lazy : new boolean[] {false, true}) {
+            PackageUrlParser parser = new PackageUrlParser().lazy(lazy).sharePackages(true);
+            PackageUrl a = parser.parse("pkg:maven/org.example/lib@1.0");
+            PackageUrl b = parser.parse("pkg:maven/org.example/lib@2.0");
+            assertSame(a.namespace(), b.namespace());
+            assertSame(a.getName(), b.getName());
+            assertEquals(PackageUrl.parse("pkg:maven/org.example/lib@2.0"), b);
+            assertTrue(a.compareTo(b) < 0);
+
+            PackageUrl other = new PackageUrlParser().lazy(lazy).parse("pkg:maven/org.example/lib@1.0");
+            assertNotSame(a.namespace(), other.namespace());
+        }
+    }
+}
@@ -0,0 +1,237 @@
+package dev.mccue.purl;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PackageUrlPatternTest
+{
+    private static void assertMatches(final String pattern, final String... purls) {
+        PackageUrlPattern parsed = PackageUrlPattern.parse(pattern);
+        PackageUrlMatcher matcher = PackageUrlMatcher.compile(List.of(parsed));
+        for (String purl : purls) {
+            assertTrue(parsed.matches(PackageUrl.parse(purl)), pattern + " " + purl);
+            assertTrue(matcher.matches(PackageUrl.parse(purl)), pattern + " " + purl);
+        }
+    }
+
+    private static void assertNotMatches(final String pattern, final String... purls) {
+        PackageUrlPattern parsed = PackageUrlPattern.parse(pattern);
+        PackageUrlMatcher matcher = PackageUrlMatcher.compile(List.of(parsed));
+        for (String purl : purls) {
+            assertFalse(parsed.matches(PackageUrl.parse(purl)), pattern + " " + purl);
+            assertFalse(matcher.matches(PackageUrl.parse(purl)), pattern + " " + purl);
+        }
+    }
+
+    @Test
+    void wildcards() {
+        assertMatches("pkg:npm/*", "pkg:npm/lodash", "pkg:npm/lodash@4.17.21?arch=x#lib");
+        assertNotMatches("pkg:npm/*", "pkg:npm/%40angular/core", "pkg:maven/g/lodash");
+        assertMatches("pkg:*/lodash", "pkg:npm/lodash", "pkg:generic/lodash@1");
+        assertNotMatches("pkg:*/lodash", "pkg:npm/lodash-es", "pkg:generic/x/lodash");
+        assertMatches("pkg:npm/%40angular/*", "pkg:npm/%40angular/core@16.0.0");
+        assertMatches("pkg:npm/*/core", "pkg:npm/%40angular/core");
+        assertNotMatches("pkg:npm/*/core", "pkg:npm/core", "pkg:npm/a/b/core");
+        // as written, with extra slashes
+        assertMatches("pkg://npm/*/", "pkg:npm/lodash");
+    }
+
+    @Test
+    void anySegments() {
+        assertMatches("pkg:npm/**/*", "pkg:npm/lodash", "pkg:npm/%40angular/core");
+        assertMatches("pkg:golang/github.com/**/mux", "pkg:golang/github.com/mux",
+                "pkg:golang/github.com/gorilla/mux@v1.8.0", "pkg:golang/github.com/a/b/c/mux");
+        assertNotMatches("pkg:golang/github.com/**/mux", "pkg:golang/gitlab.com/gorilla/mux",
+                "pkg:golang/github.com/gorilla/muxer", "pkg:golang/mux");
+        assertMatches("pkg:golang/**/gorilla/*", "pkg:golang/gorilla/mux", "pkg:golang/github.com/gorilla/mux",
+                "pkg:golang/a/gorilla/b/gorilla/mux");
+        assertNotMatches("pkg:golang/**/gorilla/*", "pkg:golang/github.com/gorilla/x/mux", "pkg:golang/mux");
+        assertMatches("pkg:golang/**/*/**/mux", "pkg:golang/a/mux", "pkg:golang/a/b/c/mux");
+        assertNotMatches("pkg:golang/**/*/**/mux", "pkg:golang/mux");
+        assertMatches("pkg:*/**/*", "pkg:maven/g/a@1", "pkg:generic/x");
+    }
+
+    @Test
+    void versions() {
+        assertMatches("pkg:maven/g/a", "pkg:maven/g/a", "pkg:maven/g/a@1.0");
+        assertMatches("pkg:maven/g/a@*", "pkg:maven/g/a@1.0");
+        assertNotMatches("pkg:maven/g/a@*", "pkg:maven/g/a");
+        assertMatches("pkg:maven/g/a@1.0", "pkg:maven/g/a@1.0");
+        assertNotMatches("pkg:maven/g/a@1.0", "pkg:maven/g/a@1.0.0", "pkg:maven/g/a");
+        assertMatches("pkg:maven/g/a@1.0%2B1", "pkg:maven/g/a@1.0%2B1");
+
+        String log4shell = "pkg:maven/org.apache.logging.log4j/log4j-core@>=2.0|<2.17.1";
+        assertMatches(log4shell, "pkg:maven/org.apache.logging.log4j/log4j-core@2.0",
+                "pkg:maven/org.apache.logging.log4j/log4j-core@2.14.1",
+                "pkg:maven/org.apache.logging.log4j/log4j-core@2.17.0?type=jar");
+        assertNotMatches(log4shell, "pkg:maven/org.apache.logging.log4j/log4j-core@1.2.17",
+                "pkg:maven/org.apache.logging.log4j/log4j-core@2.17.1",
+                "pkg:maven/org.apache.logging.log4j/log4j-core");
+        assertMatches("pkg:npm/lodash@>=4.0.0|!=4.17.21", "pkg:npm/lodash@4.17.20");
+        assertNotMatches("pkg:npm/lodash@>=4.0.0|!=4.17.21", "pkg:npm/lodash@4.17.21");
+        // in the scheme of the type
+        assertMatches("pkg:pypi/django@>=4.0|<4.2", "pkg:pypi/django@4.1.post1", "pkg:pypi/django@4.2rc1");
+        assertNotMatches("pkg:pypi/django@>=4.0|<4.2", "pkg:pypi/django@4.0rc1");
+    }
+
+    @Test
+    void qualifiers() {
+        assertMatches("pkg:maven/g/a?type=jar", "pkg:maven/g/a?type=jar", "pkg:maven/g/a?classifier=x&type=jar");
+        assertNotMatches("pkg:maven/g/a?type=jar", "pkg:maven/g/a?type=pom", "pkg:maven/g/a");
+        assertMatches("pkg:maven/g/a?!classifier", "pkg:maven/g/a", "pkg:maven/g/a?type=jar");
+        assertNotMatches("pkg:maven/g/a?!classifier", "pkg:maven/g/a?classifier=sources");
+        assertMatches("pkg:maven/g/a?classifier=*", "pkg:maven/g/a?classifier=sources");
+        assertNotMatches("pkg:maven/g/a?classifier=*", "pkg:maven/g/a?type=jar");
+        // a decoded asterisk is a literal
+        assertMatches("pkg:maven/g/a?classifier=%2A", "pkg:maven/g/a?classifier=%2A");
+        assertNotMatches("pkg:maven/g/a?classifier=%2A", "pkg:maven/g/a?classifier=sources");
+        assertMatches("pkg:maven/g/a?Type=jar&!classifier", "pkg:maven/g/a?type=jar");
+        assertNotMatches("pkg:maven/g/a?Type=jar&!classifier", "pkg:maven/g/a?classifier=x&type=jar");
+    }
+
+    @Test
+    void subpaths() {
+        assertMatches("pkg:golang/a/b", "pkg:golang/a/b", "pkg:golang/a/b#c");
+        assertMatches("pkg:golang/a/b#c/d", "pkg:golang/a/b#c/d", "pkg:golang/a/b#/c/d/");
+        assertNotMatches("pkg:golang/a/b#c/d", "pkg:golang/a/b#c", "pkg:golang/a/b");
+        assertMatches("pkg:golang/a/b#", "pkg:golang/a/b");
+        assertNotMatches("pkg:golang/a/b#", "pkg:golang/a/b#c");
+    }
+
+    @Test
+    void typeTransforms() {
+        assertMatches("pkg:PyPI/Django_Utils", "pkg:pypi/django-utils@1.0", "pkg:pypi/Django_Utils");
+        assertMatches("pkg:github/Package-Url/*", "pkg:github/package-url/purl-spec");
+        assertMatches("pkg:github/*/Purl-Spec", "pkg:GitHub/Package-Url/purl-spec");
+        assertNotMatches("pkg:pypi/Django_Utils", "pkg:pypi/django-utilities");
+        // of the pattern's type only; so not with any type
+        assertNotMatches("pkg:*/Django_Utils", "pkg:pypi/django-utils");
+        assertMatches("pkg:maven/Org.Example/Lib", "pkg:maven/Org.Example/Lib");
+        assertNotMatches("pkg:maven/Org.Example/Lib", "pkg:maven/org.example/lib");
+    }
+
+    @Test
+    void invalid() {
+        for (String value : new String[] {
+                "npm/lodash",
+                "pkg:npm",
+                "pkg:npm/",
+                "pkg:npm//",
+                "pkg:/npm",
+                "pkg:npm/@1.0",
+                "pkg:1npm/lodash",
+                "pkg:n%20m/lodash",
+                "pkg:npm/lodash@",
+                "pkg:npm/lodash@>=",
+                "pkg:npm/lodash@>=1.0|",
+                "pkg:npm/lodash?type=",
+                "pkg:npm/lodash?type",
+                "pkg:npm/lodash?=jar",
+                "pkg:npm/lodash?!",
+                "pkg:npm/lodash?type=a&Type=b",
+                "pkg:npm/lodash?type=a&!type",
+                "pkg:npm/lo%zzdash",
+                "pkg:npm/%zz/lodash",
+                "pkg:npm/lodash@1%z",
+                "pkg:npm/lodash?type=%z",
+                "pkg:npm/lodash#%zz",
+        }) {
+            IllegalArgumentException e = assertThrows(IllegalArgumentException.class, () ->
+                    PackageUrlPattern.parse(value), value);
+            assertTrue(e.getMessage().startsWith("Invalid package-url pattern: "), e.getMessage());
+            assertTrue(e.getMessage().endsWith(": " + value), e.getMessage());
+        }
+    }
+
+    @Test
+    void equality() {
+        PackageUrlPattern pattern = PackageUrlPattern.parse("pkg:npm/**/*@>=1.0?!dev");
+        assertEquals("pkg:npm/**/*@>=1.0?!dev", pattern.toString());
+        assertEquals(pattern, PackageUrlPattern.parse("pkg:npm/**/*@>=1.0?!dev"));
+        assertEquals(pattern.hashCode(), PackageUrlPattern.parse("pkg:npm/**/*@>=1.0?!dev").hashCode());
+        assertFalse(pattern.equals(PackageUrlPattern.parse("pkg:npm/**/*@>=1.0")));
+    }
+
+    @Test
+    void matchInCompiledOrder() {
+        List<PackageUrlPattern> patterns = new ArrayList<>();
+        for (String value : new String[] {
+                "pkg:npm/lodash@>=4.0", "pkg:*/**/*", "pkg:npm/*", "pkg:maven/**/*", "pkg:npm/lodash", "pkg:npm/**/x",
+                "pkg:npm/lodash?!arch", "pkg:npm/*"
+        }) {
+            patterns.add(PackageUrlPattern.parse(value));
+        }
+        PackageUrlMatcher matcher = PackageUrlMatcher.compile(patterns);
+        assertEquals(patterns.size(), matcher.size());
+        List<PackageUrlPattern> matched = matcher.match(PackageUrl.parse("pkg:npm/lodash@4.17.21"));
+        assertEquals(List.of(patterns.get(0), patterns.get(1), patterns.get(2), patterns.get(4), patterns.get(6),
+                patterns.get(7)), matched);
+        assertThrows(UnsupportedOperationException.class, () -> matched.remove(0));
+        assertEquals(List.of(), matcher.match(PackageUrl.parse("pkg:pypi/x/y/z")).stream()
+                .filter(pattern -> pattern != patterns.get(1)).collect(Collectors.toList()));
+        assertEquals(List.of(), PackageUrlMatcher.compile(List.of()).match(PackageUrl.parse("pkg:npm/x")));
+        assertFalse(PackageUrlMatcher.compile(List.of()).matches(PackageUrl.parse("pkg:npm/x")));
+    }
+
+    /**
+     * Matching random package-urls against random patterns finds just those a linear scan of the patterns does.
+     */
+    @Test
+    void matcherAgreesWithPatterns() {
+        Random random = new Random(1);
+        String[] types = {"maven", "npm", "pypi", "golang", "*"};
+        String[] segments = {"a", "b", "*", "**"};
+        String[] names = {"x", "y", "*"};
+        String[] versions = {"", "", "@1.0", "@*", "@>=1.0|<2.0", "@>=1.0|!=1.5"};
+        String[] rules = {"", "", "?type=jar", "?!classifier", "?type=*", "?classifier=src&!type"};
+        String[] subpaths = {"", "", "#", "#sub", "#a/b"};
+        List<PackageUrlPattern> patterns = new ArrayList<>();
+        for (int i = 0; i < 400; i++) {
+            StringBuilder pattern = new StringBuilder("pkg:").append(pick(random, types)).append('/');
+            for (int segment = random.nextInt(4); segment > 0; segment--) {
+                pattern.append(pick(random, segments)).append('/');
+            }
+            pattern.append(pick(random, names)).append(pick(random, versions)).append(pick(random, rules))
+                    .append(pick(random, subpaths));
+            patterns.add(PackageUrlPattern.parse(pattern.toString()));
+        }
+        PackageUrlMatcher matcher = PackageUrlMatcher.compile(patterns);
+
+        String[] purlTypes = {"maven", "npm", "pypi", "golang"};
+        String[] purlSegments = {"a", "b", "c"};
+        String[] purlNames = {"x", "y", "z"};
+        String[] purlVersions = {"", "@1.0", "@1.5", "@2.0"};
+        String[] qualifiers = {"", "?type=jar", "?classifier=src", "?classifier=src&type=pom"};
+        String[] purlSubpaths = {"", "#sub", "#a/b"};
+        int matched = 0;
+        for (int i = 0; i < 5_000; i++) {
+            StringBuilder value = new StringBuilder("pkg:").append(pick(random, purlTypes)).append('/');
+            for (int segment = random.nextInt(5); segment > 0; segment--) {
+                value.append(pick(random, purlSegments)).append('/');
+            }
+            value.append(pick(random, purlNames)).append(pick(random, purlVersions)).append(pick(random, qualifiers))
+                    .append(pick(random, purlSubpaths));
+            PackageUrl purl = PackageUrl.parse(value.toString());
+            List<PackageUrlPattern> expected = patterns.stream()
+                    .filter(pattern -> pattern.matches(purl))
+                    .collect(Collectors.toList());
+            assertEquals(expected, matcher.match(purl), value.toString());
+            assertEquals(!expected.isEmpty(), matcher.matches(purl), value.toString());
+            matched += expected.size();
+        }
+        assertTrue(matched > 5_000, "too few matches to compare: " + matched);
+    }
+
+    private static String pick(final Random random, final String[] values) {
+        return values[random.nextInt(values.length)];
+    }
+}
@@ -0,0 +1,163 @@
+package dev.mccue.purl;
+
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PackageUrlTableTest
+{
+    private static final PackageUrlParser[] PARSERS = {new PackageUrlParser(), new PackageUrlParser().lazy(true)};
+
+    /**
+     * Package-urls with and without each component; including empty namespaces and subpaths, which only building makes.
+     */
+    static List<PackageUrl> corpus() {
+        List<PackageUrl> result = new ArrayList<>();
+        for (String value : new String[] {
+                "pkg:maven/org.apache.commons/commons-lang3@3.12.0?type=jar",
+                "pkg:maven/org.apache.commons/commons-lang3@3.12.0?classifier=sources&type=jar",
+                "pkg:maven/org.apache.commons/commons-text",
+                "pkg:npm/%40angular/core@16.0.0",
+                "pkg:pypi/django@4.2#django/db",
+                "pkg:golang/github.com/gorilla/mux@v1.8.0#context",
+                "pkg:generic/x?a=1&b=2#a/b/c",
+                "pkg:generic/caf%C3%A9@%E2%82%AC1?k=%C3%BC#%F0%9F%98%80",
+                "pkg:deb/debian/curl@7.50.3-1?arch=i386&distro=jessie"
+        }) {
+            result.add(PackageUrl.parse(value));
+        }
+        result.add(PackageUrl.builder().type("generic").namespace(List.of()).name("x").build());
+        result.add(PackageUrl.builder().type("generic").name("x").subpath(List.of()).build());
+        result.add(PackageUrl.builder().type("generic").namespace(List.of()).name("x").subpath(List.of()).build());
+        result.add(PackageUrl.builder().type("generic").namespace(List.of()).name("x").version("1")
+                .qualifier("k", "v").subpath(List.of()).build());
+        result.add(PackageUrl.builder().type("generic").name("x").build());
+        return result;
+    }
+
+    @Test
+    void roundTrip() {
+        List<PackageUrl> purls = corpus();
+        PackageUrlTable table = new PackageUrlTable();
+        for (PackageUrl purl : purls) {
+            assertEquals(table.size(), table.add(purl));
+        }
+        assertEquals(purls.size(), table.size());
+        for (int row = 0; row < purls.size(); row++) {
+            PackageUrl purl = purls.get(row);
+            PackageUrl view = table.view(row);
+            PackageUrl get = table.get(row);
+            assertEquals(purl, get, purl.toString());
+            assertEquals(purl, view, purl.toString());
+            assertEquals(view, purl, purl.toString());
+            assertEquals(view, get, purl.toString());
+            assertEquals(get, view, purl.toString());
+            assertEquals(purl.hashCode(), view.hashCode());
+            assertEquals(0, purl.compareTo(view));
+            assertEquals(purl.getNamespace(), view.getNamespace());
+            assertEquals(purl.getQualifiers(), view.getQualifiers());
+            assertEquals(purl.getSubpath(), view.getSubpath());
+        }
+    }
+
+    @Test
+    void emptyIsNotAbsent() {
+        PackageUrlTable table = new PackageUrlTable();
+        PackageUrl empty = PackageUrl.builder().type("generic").namespace(List.of()).name("x").subpath(List.of())
+                .build();
+        PackageUrl absent = PackageUrl.builder().type("generic").name("x").build();
+        table.add(empty);
+        table.add(absent);
+        assertNotEquals(table.view(0), table.view(1));
+        assertNotEquals(table.view(0), absent);
+        assertNotEquals(absent, table.view(0));
+
+        Set<PackageUrl> set = new HashSet<>(corpus());
+        table.stream().forEach(view -> assertTrue(set.contains(view), view.toString()));
+    }
+
+    @Test
+    void streamViewsInOrder() {
+        List<PackageUrl> purls = corpus();
+        PackageUrlTable table = new PackageUrlTable();
+        table.addAll(purls);
+        assertEquals(purls, table.stream().collect(Collectors.toList()));
+    }
+
+    @Test
+    void growth() {
+        List<PackageUrl> purls = corpus();
+        PackageUrlTable table = new PackageUrlTable(0);
+        List<PackageUrl> expected = new ArrayList<>();
+        for (int i = 0; i < 10_000; i++) {
+            PackageUrl purl = purls.get(i % purls.size()).withVersion("1." + i);
+            expected.add(purl);
+            table.add(purl);
+        }
+        assertEquals(expected.size(), table.size());
+        for (int row = 0; row < expected.size(); row++) {
+            assertEquals(expected.get(row), table.view(row));
+        }
+    }
+
+    @Test
+    void ensureCapacityAndTrim() {
+        List<PackageUrl> purls = corpus();
+        PackageUrlTable table = new PackageUrlTable(1);
+        table.ensureCapacity(1_000);
+        table.addAll(purls);
+        table.trimToSize();
+        for (int row = 0; row < purls.size(); row++) {
+            assertEquals(purls.get(row), table.get(row));
+        }
+        // still appendable once trimmed
+        int row = table.add(purls.get(0));
+        assertEquals(purls.size(), row);
+        assertEquals(purls.get(0), table.view(row));
+
+        PackageUrlTable empty = new PackageUrlTable();
+        empty.trimToSize();
+        assertEquals(0, empty.size());
+        empty.add(purls.get(1));
+        assertEquals(purls.get(1), empty.get(0));
+    }
+
+    @Test
+    void addAllLines() {
+        String lines = "pkg:maven/g/a@1.0\n" +
+                       "not a purl\n" +
+                       "pkg:npm/a@1.0\n" +
+                       "pkg:maven/g/a@\n" +
+                       "pkg:pypi/django@4.2\n";
+        for (PackageUrlParser parser : PARSERS) {
+            PackageUrlTable table = new PackageUrlTable();
+            table.add(PackageUrl.parse("pkg:generic/first"));
+            try (Stream<PackageUrlLine> stream = parser.parseAll(new StringReader(lines))) {
+                assertEquals(2, table.addAll(stream));
+            }
+            assertEquals(List.of(PackageUrl.parse("pkg:generic/first"), PackageUrl.parse("pkg:maven/g/a@1.0"),
+                    PackageUrl.parse("pkg:npm/a@1.0"), PackageUrl.parse("pkg:pypi/django@4.2")),
+                    table.stream().collect(Collectors.toList()));
+        }
+    }
+
+    @Test
+    void invalidRow() {
+        PackageUrlTable table = new PackageUrlTable();
+        table.add(PackageUrl.parse("pkg:generic/x"));
+        assertThrows(IndexOutOfBoundsException.class, () -> table.get(1));
+        assertThrows(IndexOutOfBoundsException.class, () -> table.view(-1));
+        assertThrows(IllegalArgumentException.class, () -> new PackageUrlTable(-1));
+    }
+}
@@ -0,0 +1,349 @@
+package dev.mccue.purl;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.lang.reflect.Field;
+import java.net.URI;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.function.UnaryOperator;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PackageUrlTest
+{
+    private static final PackageUrlParser[] PARSERS = {new PackageUrlParser(), new PackageUrlParser().lazy(true)};
+
+    @Test
+    void naturalOrder() {
+        List<String> expected = List.of(
+                "pkg:generic/a",
+                "pkg:maven/org.example/lib",
+                "pkg:maven/org.example/lib@1.0",
+                "pkg:maven/org.example/lib@2.0",
+                "pkg:maven/org.example/lib@2.0?type=pom",
+                "pkg:maven/org.example/other@1.0",
+                "pkg:maven/org.example.sub/lib@1.0",
+                "pkg:npm/a@1.0",
+                "pkg:npm/%40scope/a@1.0");
+        for (PackageUrlParser parser : PARSERS) {
+            List<PackageUrl> purls = new ArrayList<>();
+            for (String value : expected) {
+                purls.add(parser.parse(value));
+            }
+            Collections.reverse(purls);
+            Collections.sort(purls);
+            List<String> actual = new ArrayList<>();
+            for (PackageUrl purl : purls) {
+                actual.add(purl.toString());
+            }
+            assertEquals(expected, actual);
+        }
+    }
+
+    @Test
+    void versionOrder() {
+        List<String> expected = List.of(
+                "pkg:maven/org.example/lib",
+                "pkg:maven/org.example/lib?type=pom",
+                "pkg:maven/org.example/lib@1.0",
+                "pkg:maven/org.example/lib@1.0?type=pom",
+                "pkg:maven/org.example/lib@1.0.0",
+                "pkg:maven/org.example/lib@1.2",
+                "pkg:maven/org.example/lib@1.10",
+                "pkg:maven/org.example/lib@2.0-SNAPSHOT",
+                "pkg:maven/org.example/lib@2.0",
+                "pkg:maven/org.example/lib@2.0#sub",
+                "pkg:maven/org.example/other@0.1",
+                "pkg:npm/a@1.0.0-rc.1",
+                "pkg:npm/a@1.0.0");
+        for (PackageUrlParser parser : PARSERS) {
+            List<PackageUrl> purls = new ArrayList<>();
+            for (String value : expected) {
+                purls.add(parser.parse(value));
+            }
+            Comparator<PackageUrl> comparator = PackageUrl.versionComparator();
+            for (PackageUrl a : purls) {
+                for (PackageUrl b : purls) {
+                    assertEquals(Integer.signum(comparator.compare(a, b)), -Integer.signum(comparator.compare(b, a)));
+                    assertEquals(a == b, comparator.compare(a, b) == 0, a + " " + b);
+                }
+            }
+            Collections.shuffle(purls, new Random(1));
+            purls.sort(comparator);
+            List<String> actual = new ArrayList<>();
+            for (PackageUrl purl : purls) {
+                actual.add(purl.toString());
+            }
+            assertEquals(expected, actual);
+        }
+    }
+
+    /**
+     * Versions are only parsed to compare package-urls of the same package.
+     */
+    @Test
+    void versionsOfOtherPackagesNotParsed() throws ReflectiveOperationException {
+        Field versionKey = PackageUrl.class.getDeclaredField("versionKey");
+        versionKey.setAccessible(true);
+        PackageUrl a = PackageUrl.parse("pkg:maven/org.example/a@1.0");
+        PackageUrl b = PackageUrl.parse("pkg:maven/org.example/b@1.0");
+        assertTrue(PackageUrl.versionComparator().compare(a, b) < 0);
+        assertNull(versionKey.get(a));
+        assertNull(versionKey.get(b));
+    }
+
+    @Test
+    void sortedByVersion() {
+        for (PackageUrlParser parser : PARSERS) {
+            List<PackageUrl> purls = new ArrayList<>();
+            for (String value : new String[] {
+                    "pkg:maven/org.example/lib@1.0.0",
+                    "pkg:maven/org.example/lib@1.0?type=pom",
+                    "pkg:maven/org.example/lib@1.0",
+                    "pkg:maven/org.example/lib@1.0#sub",
+                    "pkg:maven/org.example/lib@1.10",
+                    "pkg:maven/org.example/lib@1.2?classifier=sources",
+                    "pkg:maven/org.example/lib@1.2",
+                    "pkg:maven/org.example/lib?type=pom",
+                    "pkg:maven/org.example/lib",
+                    "pkg:maven/org.example/other@1.0",
+                    "pkg:npm/a@1.0.0",
+                    "pkg:npm/a@1.0.0",
+            }) {
+                purls.add(parser.parse(value));
+            }
+            Collections.shuffle(purls, new Random(2));
+            List<PackageUrl> sorted = PackageUrl.sortedByVersion(purls);
+            // the first of equal versions in natural order is kept
+            assertEquals(List.of(
+                    PackageUrl.parse("pkg:maven/org.example/lib"),
+                    PackageUrl.parse("pkg:maven/org.example/lib@1.0"),
+                    PackageUrl.parse("pkg:maven/org.example/lib@1.2"),
+                    PackageUrl.parse("pkg:maven/org.example/lib@1.10"),
+                    PackageUrl.parse("pkg:maven/org.example/other@1.0"),
+                    PackageUrl.parse("pkg:npm/a@1.0.0")), sorted);
+
+            // sorted by the comparator
+            List<PackageUrl> copy = new ArrayList<>(sorted);
+            copy.sort(PackageUrl.versionComparator());
+            assertEquals(copy, sorted);
+
+            // modifiable
+            sorted.add(PackageUrl.parse("pkg:generic/x"));
+            assertEquals(List.of(), PackageUrl.sortedByVersion(List.of()));
+        }
+    }
+
+    /**
+     * Each {@code with} method gives the package-url building the original with the same change does.
+     */
+    @Test
+    void withEqualsBuilt() {
+        List<PackageUrl> purls = new ArrayList<>(PackageUrlTableTest.corpus());
+        for (PackageUrl purl : PackageUrlTableTest.corpus()) {
+            purls.add(PARSERS[1].parse(purl.toString()));
+        }
+        for (PackageUrl purl : purls) {
+            String value = purl.toString();
+            assertWith(purl, it -> it.withVersion("2.0"), it -> it.version("2.0"));
+            assertWith(purl, it -> it.withVersion("2.0 é/@?#"), it -> it.version("2.0 é/@?#"));
+            assertWith(purl, PackageUrl::withoutVersion, it -> it.version(null));
+            assertWith(purl, it -> it.withQualifier("Type", "pom"), it -> it.qualifier("Type", "pom"));
+            assertWith(purl, it -> it.withQualifier("k", "v&w=x"), it -> it.qualifier("k", "v&w=x"));
+            assertWith(purl, it -> it.withQualifier("a", " "), it -> it.qualifier("a", " "));
+            Map<String, String> withoutType = new HashMap<>(purl.getQualifiers() != null ? purl.getQualifiers() :
+                                                            Map.of());
+            withoutType.remove("type");
+            assertWith(purl, it -> it.withoutQualifier("TYPE"), it -> it.qualifiers((Map<String, String>) null)
+                    .qualifiers(withoutType.isEmpty() ? null : withoutType));
+            assertWith(purl, PackageUrl::withoutQualifiers, it -> it.qualifiers((Map<String, String>) null));
+            assertWith(purl, it -> it.withSubpath(List.of("a", "b")), it -> it.subpath(List.of("a", "b")));
+            assertWith(purl, it -> it.withSubpath(List.of()), it -> it.subpath(List.of()));
+            assertWith(purl, it -> it.withSubpath("/a/b%20c/%C3%A9/"), it -> it.subpath("/a/b%20c/%C3%A9/"));
+            assertWith(purl, PackageUrl::withoutSubpath, it -> it.subpath((List<String>) null));
+            assertWith(purl, it -> it.withoutVersion().withoutQualifiers().withoutSubpath(),
+                    it -> it.version(null).qualifiers((Map<String, String>) null).subpath((List<String>) null));
+            // the original is not changed
+            assertEquals(value, purl.toString());
+        }
+    }
+
+    private static void assertWith(final PackageUrl purl,
+                                   final UnaryOperator<PackageUrl> with,
+                                   final UnaryOperator<PackageUrlBuilder> builder)
+    {
+        PackageUrl actual = with.apply(purl);
+        PackageUrl expected = builder.apply(PackageUrl.builder().typeSpecificTransformations(false).from(purl))
+                .build();
+        assertEquals(expected, actual, purl.toString());
+        assertEquals(actual, expected, purl.toString());
+        assertEquals(expected.hashCode(), actual.hashCode(), purl.toString());
+        assertEquals(0, expected.compareTo(actual), purl.toString());
+        assertEquals(expected.toString(), actual.toString());
+        assertEquals(expected.getNamespace(), actual.getNamespace());
+        assertEquals(expected.getVersion(), actual.getVersion());
+        assertEquals(expected.getQualifiers(), actual.getQualifiers());
+        assertEquals(expected.getSubpath(), actual.getSubpath());
+        assertEquals(PackageUrl.parse(expected.toString()).toString(), actual.toString());
+    }
+
+    @Test
+    void withUnchanged() {
+        PackageUrl purl = PackageUrl.parse("pkg:maven/org.example/lib@1.0?type=jar#src");
+        assertSame(purl, purl.withVersion("1.0"));
+        assertSame(purl, purl.withQualifier("TYPE", "jar"));
+        assertSame(purl, purl.withoutQualifier("classifier"));
+        PackageUrl bare = PackageUrl.parse("pkg:maven/org.example/lib");
+        assertSame(bare, bare.withoutVersion());
+        assertSame(bare, bare.withoutQualifiers());
+        assertSame(bare, bare.withoutQualifier("type"));
+        assertSame(bare, bare.withoutSubpath());
+    }
+
+    @Test
+    void withRemovesLastQualifier() {
+        PackageUrl purl = PackageUrl.parse("pkg:maven/org.example/lib@1.0?type=jar");
+        assertNull(purl.withoutQualifier("type").getQualifiers());
+        assertNull(purl.withQualifier("type", "").getQualifiers());
+        assertEquals("pkg:maven/org.example/lib@1.0", purl.withoutQualifier("Type").toString());
+    }
+
+    @Test
+    void withValidates() {
+        PackageUrl purl = PackageUrl.parse("pkg:maven/org.example/lib@1.0");
+        // versions are removed with withoutVersion
+        assertThrows(NullPointerException.class, () -> purl.withVersion(null));
+        assertThrows(NullPointerException.class, () -> purl.withQualifier("type", null));
+        assertThrows(NullPointerException.class, () -> purl.withSubpath((List<String>) null));
+        assertThrows(InvalidException.class, () -> purl.withVersion(""));
+        assertThrows(InvalidException.class, () -> purl.withVersion("1\n"));
+        assertThrows(InvalidException.class, () -> purl.withQualifier("bad key", "v"));
+        assertThrows(InvalidException.class, () -> purl.withSubpath(List.of("a/b")));
+        assertThrows(InvalidException.class, () -> purl.withSubpath(List.of("")));
+        assertThrows(InvalidException.class, () -> purl.withSubpath("a/./b"));
+        assertThrows(InvalidException.class, () -> purl.withSubpath("a//b"));
+        assertThrows(InvalidException.class, () -> purl.withSubpath(""));
+    }
+
+    /**
+     * Package-urls of the table corpus, with non-ASCII components given raw; each as parsed eagerly and lazily, and as
+     * built, so with and without a cached rendering.
+     */
+    private static List<PackageUrl> renderCorpus() {
+        List<PackageUrl> result = new ArrayList<>();
+        List<String> values = new ArrayList<>();
+        for (PackageUrl purl : PackageUrlTableTest.corpus()) {
+            values.add(purl.toString());
+            result.add(purl);
+        }
+        values.add("pkg:generic/café@1€?k=ü#x/ÿ");
+        values.add("pkg:generic/%F0%9F%98%80/%E2%82%AC?emoji=%F0%9F%98%80");
+        values.add("pkg:Maven/org.example/lib@1.0?Type=jar");
+        for (String value : values) {
+            for (PackageUrlParser parser : PARSERS) {
+                result.add(parser.parse(value));
+            }
+            result.add(PackageUrl.builder().from(PackageUrl.parse(value)).build());
+        }
+        return result;
+    }
+
+    /**
+     * Rendering to an appendable, buffer or stream gives the {@code UTF-8} bytes of the rendered string; before and
+     * after rendering either flavor to a string.
+     */
+    @Test
+    void renderAndWrite() throws IOException {
+        for (RenderFlavor first : RenderFlavor.values()) {
+            for (PackageUrl original : renderCorpus()) {
+                // a copy with nothing rendered; then with the first flavor rendered
+                for (PackageUrl purl : new PackageUrl[] {copy(original), withRendered(copy(original), first)}) {
+                    for (RenderFlavor flavor : RenderFlavor.values()) {
+                        String expected = copy(original).toString(flavor);
+                        assertRendered(expected, purl, flavor);
+                    }
+                }
+            }
+        }
+    }
+
+    private static PackageUrl copy(final PackageUrl purl) {
+        return PackageUrl.builder().typeSpecificTransformations(false).from(purl).build();
+    }
+
+    private static PackageUrl withRendered(final PackageUrl purl, final RenderFlavor flavor) {
+        purl.toString(flavor);
+        return purl;
+    }
+
+    private static void assertRendered(final String expected, final PackageUrl purl, final RenderFlavor flavor)
+            throws IOException
+    {
+        byte[] bytes = expected.getBytes(StandardCharsets.UTF_8);
+        assertEquals(expected, purl.renderTo(new StringBuilder(), flavor).toString());
+        assertEquals("> " + expected, purl.renderTo(new StringBuilder("> "), flavor).toString());
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        purl.writeTo(out, flavor);
+        assertArrayEquals(bytes, out.toByteArray(), expected);
+
+        for (ByteBuffer buffer : new ByteBuffer[] {
+                ByteBuffer.allocate(bytes.length + 3),
+                ByteBuffer.allocateDirect(bytes.length + 3),
+                ByteBuffer.wrap(new byte[bytes.length + 8], 2, bytes.length + 3).slice()})
+        {
+            buffer.position(1);
+            assertSame(buffer, purl.writeTo(buffer, flavor));
+            assertEquals(bytes.length + 1, buffer.position());
+            byte[] written = new byte[bytes.length];
+            buffer.position(1);
+            buffer.get(written);
+            assertArrayEquals(bytes, written, expected);
+        }
+
+        // too small, even by one byte; with the position kept
+        for (ByteBuffer buffer : new ByteBuffer[] {
+                ByteBuffer.allocate(bytes.length + 1),
+                ByteBuffer.allocateDirect(bytes.length - 1),
+                ByteBuffer.allocate(0)})
+        {
+            buffer.position(Math.min(2, buffer.limit()));
+            int position = buffer.position();
+            assertThrows(BufferOverflowException.class, () -> purl.writeTo(buffer, flavor), expected);
+            assertEquals(position, buffer.position());
+        }
+        ByteBuffer exact = ByteBuffer.allocate(bytes.length);
+        purl.writeTo(exact, flavor);
+        assertEquals(0, exact.remaining());
+        assertTrue(Arrays.equals(bytes, exact.array()));
+    }
+
+    @Test
+    void toUri() {
+        for (PackageUrl purl : renderCorpus()) {
+            URI uri = purl.toUri();
+            assertEquals(URI.create(purl.toString(RenderFlavor.SCHEME)), uri);
+            assertEquals(purl.toString(RenderFlavor.SCHEME), uri.toString());
+            assertEquals("pkg", uri.getScheme());
+            assertTrue(uri.isOpaque(), uri.toString());
+            assertEquals(purl.toString(), PackageUrl.parse(uri.toString()).toString());
+        }
+    }
+}
@@ -0,0 +1,124 @@
+package dev.mccue.purl;
+
+import java.util.List;
+import java.util.Random;
+import java.util.function.Consumer;
+import java.util.regex.Pattern;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Checks the character tables of {@link PackageUrlValidator} against the patterns of {@link PackageUrlParser} they
+ * replaced.
+ */
+class PackageUrlValidatorTest
+{
+    private static final String LINE_TERMINATORS = "\n\r\u0085\u2028\u2029";
+
+    private static final Component[] COMPONENTS = {
+            new Component("type", PackageUrlParser.TYPE, PackageUrlValidator::validateType),
+            new Component("qualifier key", PackageUrlParser.QUALIFIER_KEY, PackageUrlValidator::validateQualifierKey),
+            new Component("namespace segment", PackageUrlParser.NAMESPACE_SEGMENT,
+                    value -> PackageUrlValidator.validateNamespace(List.of(value))),
+            new Component("subpath segment", PackageUrlParser.SUBPATH_SEGMENT,
+                    value -> PackageUrlValidator.validateSubpath(List.of(value))),
+            new Component("version", PackageUrlParser.VERSION, PackageUrlValidator::validateVersion),
+    };
+
+    @Test
+    void empty() {
+        check("");
+    }
+
+    @Test
+    void everyChar() {
+        for (int c = Character.MIN_VALUE; c <= Character.MAX_VALUE; c++) {
+            check(String.valueOf((char) c));
+        }
+    }
+
+    @Test
+    void everyAsciiPair() {
+        char[] pair = new char[2];
+        for (char a = 0; a < 128; a++) {
+            for (char b = 0; b < 128; b++) {
+                pair[0] = a;
+                pair[1] = b;
+                check(new String(pair));
+            }
+        }
+    }
+
+    @Test
+    void randomStrings() {
+        Random random = new Random(12);
+        StringBuilder buf = new StringBuilder();
+        for (int i = 0; i < 200_000; i++) {
+            buf.setLength(0);
+            int length = random.nextInt(10);
+            for (int j = 0; j < length; j++) {
+                switch (random.nextInt(5)) {
+                    case 0:
+                        buf.append((char) random.nextInt(128));
+                        break;
+                    case 1:
+                        buf.append((char) random.nextInt(Character.MIN_SURROGATE));
+                        break;
+                    case 2:
+                        buf.appendCodePoint(Character.MIN_SUPPLEMENTARY_CODE_POINT
+                                            + random.nextInt(Character.MAX_CODE_POINT
+                                                             - Character.MIN_SUPPLEMENTARY_CODE_POINT));
+                        break;
+                    case 3:
+                        // unpaired surrogate
+                        buf.append((char) (Character.MIN_SURROGATE + random.nextInt(0x800)));
+                        break;
+                    default:
+                        buf.append(LINE_TERMINATORS.charAt(random.nextInt(LINE_TERMINATORS.length())));
+                        break;
+                }
+            }
+            check(buf.toString());
+        }
+    }
+
+    private static void check(final String value) {
+        for (Component component : COMPONENTS) {
+            boolean expected = component.pattern.matcher(value).matches();
+            boolean valid;
+            try {
+                component.validator.accept(value);
+                valid = true;
+            }
+            catch (InvalidException e) {
+                valid = false;
+            }
+            assertEquals(expected, valid, () -> component.name + ": " + escape(value));
+        }
+    }
+
+    private static String escape(final String value) {
+        StringBuilder buf = new StringBuilder();
+        for (int i = 0; i < value.length(); i++) {
+            buf.append(String.format("\\u%04X", (int) value.charAt(i)));
+        }
+        return buf.toString();
+    }
+
+    private static final class Component
+    {
+        private final String name;
+
+        private final Pattern pattern;
+
+        private final Consumer<String> validator;
+
+        Component(final String name, final String pattern, final Consumer<String> validator) {
+            this.name = name;
+            this.pattern = Pattern.compile(pattern);
+            this.validator = validator;
+        }
+    }
+}
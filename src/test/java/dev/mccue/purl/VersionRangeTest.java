@@ -0,0 +1,132 @@
+package dev.mccue.purl;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class VersionRangeTest
+{
+    private static void assertContains(final String range, final String... versions) {
+        VersionRange parsed = VersionRange.parse(range);
+        for (String version : versions) {
+            assertTrue(parsed.contains(version), range + " contains " + version);
+        }
+    }
+
+    private static void assertNotContains(final String range, final String... versions) {
+        VersionRange parsed = VersionRange.parse(range);
+        for (String version : versions) {
+            assertFalse(parsed.contains(version), range + " does not contain " + version);
+        }
+    }
+
+    private static void assertInvalid(final String range, final String reason) {
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class, () -> VersionRange.parse(range));
+        assertTrue(e.getMessage().contains(reason), e.getMessage());
+    }
+
+    @Test
+    void interval() {
+        assertContains("vers:maven/>=1.0|<2.0", "1.0", "1.0.0", "1.5", "2.0-alpha");
+        assertNotContains("vers:maven/>=1.0|<2.0", "1.0-alpha", "0.9", "2.0", "2.1");
+        assertContains("vers:maven/>1.0|<=2.0", "1.0.1", "2.0");
+        assertNotContains("vers:maven/>1.0|<=2.0", "1.0", "2.0.1");
+    }
+
+    @Test
+    void unboundedIntervals() {
+        assertContains("vers:npm/<1.2.3", "0.0.1", "1.2.3-rc.1");
+        assertNotContains("vers:npm/<1.2.3", "1.2.3", "2.0.0");
+        assertContains("vers:npm/>=1.2.3", "1.2.3", "100.0.0");
+        assertNotContains("vers:npm/>=1.2.3", "1.2.2", "1.2.3-rc.1");
+    }
+
+    @Test
+    void disjointIntervals() {
+        String range = "vers:pypi/<1.0|>=2.0|<3.0|>=4.0";
+        assertContains(range, "0.9", "2.0", "2.9", "4.0", "5.0");
+        assertNotContains(range, "1.0", "1.5", "3.0", "3.9");
+    }
+
+    @Test
+    void constraintsInAnyOrder() {
+        assertContains("vers:pypi/<3.0|>=2.0", "2.0", "2.5");
+        assertNotContains("vers:pypi/<3.0|>=2.0", "1.0", "3.0");
+    }
+
+    @Test
+    void equalAndNotEqual() {
+        assertContains("vers:maven/1.0|=1.5|2.0", "1.0", "1.0.0", "1.5", "2.0");
+        assertNotContains("vers:maven/1.0|=1.5|2.0", "1.2", "3.0");
+        assertContains("vers:maven/>=1.0|<2.0|!=1.5", "1.4", "1.6");
+        assertNotContains("vers:maven/>=1.0|<2.0|!=1.5", "1.5", "1.5.0");
+    }
+
+    @Test
+    void any() {
+        assertContains("vers:generic/*", "1.0", "anything");
+        assertContains("vers:semver/*", "not semver");
+    }
+
+    @Test
+    void invalidVersionsOnlyByEquality() {
+        assertContains("vers:semver/>=1.0.0|!=x|x", "x", "1.0.0");
+        assertNotContains("vers:semver/>=0.0.0", "x", "1.0");
+    }
+
+    @Test
+    void whitespaceAndCase() {
+        VersionRange range = VersionRange.parse(" VERS:Maven / >= 1.0 | < 2.0 ");
+        assertEquals("maven", range.getScheme());
+        assertEquals("VERS:Maven/>=1.0|<2.0", range.toString());
+        assertTrue(range.contains("1.5"));
+        assertEquals(VersionRange.parse("VERS:Maven/>=1.0|<2.0"), range);
+    }
+
+    @Test
+    void escapedVersion() {
+        assertContains("vers:generic/1.0%2B1", "1.0+1");
+        assertContains("vers:generic/%E2%82%AC1", "€1");
+    }
+
+    @Test
+    void matchesPackageUrl() {
+        VersionRange range = VersionRange.parse("vers:maven/>=1.0|<2.0");
+        assertTrue(range.matches(PackageUrl.parse("pkg:maven/g/a@1.5")));
+        assertFalse(range.matches(PackageUrl.parse("pkg:maven/g/a@2.5")));
+        assertFalse(range.matches(PackageUrl.parse("pkg:maven/g/a")));
+    }
+
+    @Test
+    void trailingSeparator() {
+        assertInvalid("vers:maven/>=1.0|", "missing version");
+        assertInvalid("vers:maven/>=1.0||<2.0", "missing version");
+        assertInvalid("vers:maven/>=", "missing version");
+        assertInvalid("vers:maven/", "missing version");
+    }
+
+    @Test
+    void anyWithOtherConstraints() {
+        assertInvalid("vers:maven/*|>=1.0", "* must be the only constraint");
+        assertInvalid("vers:maven/>=1.0|*", "* must be the only constraint");
+        assertInvalid("vers:maven/>=*", "* must be the only constraint");
+    }
+
+    @Test
+    void illegalEscape() {
+        assertInvalid("vers:generic/1.0%zz", "illegal escape");
+        assertInvalid("vers:generic/1.0%2", "illegal escape");
+        assertInvalid("vers:generic/1.0%|2.0", "illegal escape");
+    }
+
+    @Test
+    void missingScheme() {
+        assertInvalid("vers:/>=1.0", "missing versioning scheme");
+        assertInvalid("vers:>=1.0", "missing versioning scheme");
+        assertInvalid("maven/>=1.0", "missing vers: prefix");
+        assertInvalid("", "missing vers: prefix");
+    }
+}
@@ -0,0 +1,96 @@
+package dev.mccue.purl;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class VersionSchemeTest
+{
+    /**
+     * Assert given versions are in strictly ascending order; checking every pair.
+     */
+    private static void assertOrder(final VersionScheme scheme, final String... versions) {
+        for (int i = 0; i < versions.length; i++) {
+            for (int j = 0; j < versions.length; j++) {
+                int cmp = VersionScheme.compare(scheme.key(versions[i]), scheme.key(versions[j]));
+                String pair = versions[i] + " vs " + versions[j];
+                assertEquals(Integer.signum(Integer.compare(i, j)), Integer.signum(cmp), pair);
+            }
+        }
+    }
+
+    private static void assertSameVersion(final VersionScheme scheme, final String... versions) {
+        for (String version : versions) {
+            assertEquals(0, VersionScheme.compare(scheme.key(versions[0]), scheme.key(version)),
+                    versions[0] + " vs " + version);
+        }
+    }
+
+    @Test
+    void schemeOfType() {
+        assertSame(VersionScheme.MAVEN, VersionScheme.of("maven"));
+        assertSame(VersionScheme.PYPI, VersionScheme.of("PyPI"));
+        assertSame(VersionScheme.SEMVER, VersionScheme.of("npm"));
+        assertSame(VersionScheme.SEMVER, VersionScheme.of("cargo"));
+        assertSame(VersionScheme.GOLANG, VersionScheme.of("golang"));
+        assertSame(VersionScheme.GENERIC, VersionScheme.of("deb"));
+    }
+
+    @Test
+    void maven() {
+        assertOrder(VersionScheme.MAVEN,
+                "1-alpha", "1-alpha-1", "1-alpha2", "1-beta", "1-milestone", "1-rc", "1-snapshot", "1", "1-sp", "1-abc",
+                "1-1", "1.1", "1.2", "1.10", "1.10.1", "2-rc1", "2");
+        assertSameVersion(VersionScheme.MAVEN, "1", "1.0", "1.0.0", "1-ga", "1-final", "1-release", "1.0-GA");
+        assertSameVersion(VersionScheme.MAVEN, "1-rc", "1-cr", "1.0-RC");
+        assertSameVersion(VersionScheme.MAVEN, "1-a1", "1-alpha-1", "1-alpha1");
+    }
+
+    @Test
+    void pep440() {
+        // ordering example of PEP 440
+        assertOrder(VersionScheme.PYPI,
+                "1.dev0", "1.0.dev456", "1.0a1", "1.0a2.dev456", "1.0a12.dev456", "1.0a12", "1.0b1.dev456", "1.0b2",
+                "1.0b2.post345.dev456", "1.0b2.post345", "1.0rc1.dev456", "1.0rc1", "1.0", "1.0+abc.5", "1.0+abc.7",
+                "1.0+5", "1.0.post456.dev34", "1.0.post456", "1.0.15", "1.1.dev1", "1!0.1");
+        assertSameVersion(VersionScheme.PYPI, "1.0", "1", "1.0.0", "v1.0", "0!1.0");
+        assertSameVersion(VersionScheme.PYPI, "1.0rc1", "1.0c1", "1.0-rc.1", "1.0RC1");
+    }
+
+    @Test
+    void semver() {
+        // ordering example of the semantic versioning specification
+        assertOrder(VersionScheme.SEMVER,
+                "1.0.0-alpha", "1.0.0-alpha.1", "1.0.0-alpha.beta", "1.0.0-beta", "1.0.0-beta.2", "1.0.0-beta.11",
+                "1.0.0-rc.1", "1.0.0", "2.0.0", "2.1.0", "2.1.1", "10.0.0");
+        assertSameVersion(VersionScheme.SEMVER, "1.0.0", "v1.0.0", "1.0.0+build.1", "1.0.0+20130313144700");
+    }
+
+    @Test
+    void golang() {
+        assertOrder(VersionScheme.GOLANG,
+                "v0.0.0-20191109021931-daa7c04131f5", "v0.0.0-20200101000000-000000000000", "v0.0.0", "v1.2.3-pre",
+                "v1.2.4-0.20191109021931-daa7c04131f5", "v1.2.4", "v2.0.0");
+        assertSameVersion(VersionScheme.GOLANG, "v2.0.0", "v2.0.0+incompatible");
+    }
+
+    @Test
+    void generic() {
+        assertOrder(VersionScheme.GENERIC, "1", "1.a", "1.b", "1.1", "1.2", "1.10", "2", "10", "10.0");
+        assertSameVersion(VersionScheme.GENERIC, "1.2", "1-2", "1_2");
+    }
+
+    @Test
+    void invalidVersionsBeforeValid() {
+        assertOrder(VersionScheme.SEMVER, "a", "1.0", "0.0.1");
+        assertOrder(VersionScheme.GOLANG, "1.0.0", "v0.0.1");
+    }
+
+    @Test
+    void comparatorAgreesWithKeys() {
+        assertTrue(VersionScheme.MAVEN.comparator().compare("1.0-alpha", "1.0") < 0);
+        assertEquals(0, VersionScheme.MAVEN.comparator().compare("1.0", "1"));
+    }
+}